@@ -11,7 +11,7 @@ import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 import org.apache.commons.lang.StringUtils;
-import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.duracloud.account.security.auth.IpRangeMatcher;
 
 /**
  * @author "Daniel Bernstein (dbernstein@duraspace.org)"
@@ -31,13 +31,10 @@ public class CIDRRangeValidator
     public boolean isValid(String value, ConstraintValidatorContext context) {
         //may contain multiple values, semicolon separated.
         if (!StringUtils.isBlank(value)) {
-            String[] values = value.split(";");
-            for (String val : values) {
-                try {
-                    new IpAddressMatcher(val);
-                } catch (IllegalArgumentException ex) {
-                    return false;
-                }
+            try {
+                IpRangeMatcher.compile(value);
+            } catch (IllegalArgumentException ex) {
+                return false;
             }
             return true;
         } else {
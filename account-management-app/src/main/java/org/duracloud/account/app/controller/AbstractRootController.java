@@ -8,14 +8,18 @@
 package org.duracloud.account.app.controller;
 
 import org.duracloud.account.db.util.AccountManagerService;
+import org.duracloud.account.db.util.KeysetPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.servlet.ModelAndView;
 
 /**
  * @author Daniel Bernstein
  * Date: Feb 17, 2012
  */
 public abstract class AbstractRootController extends AbstractController {
+    public static final String RESULT_PAGE_KEY = "resultPage";
+    public static final String FILTER_KEY = "filter";
 
     @Autowired(required = true)
     private RootAccountManagerService rootAccountManagerService;
@@ -42,4 +46,12 @@ public abstract class AbstractRootController extends AbstractController {
     public void setAccountManagerService(AccountManagerService accountManagerService) {
         this.accountManagerService = accountManagerService;
     }
+
+    /**
+     * Adds the paging details of a listing, used by the page navigation.
+     */
+    protected void addPageAttributes(ModelAndView mav, KeysetPage<?> page, String filter) {
+        mav.addObject(RESULT_PAGE_KEY, page);
+        mav.addObject(FILTER_KEY, filter);
+    }
 }
@@ -21,6 +21,7 @@ import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.model.UserInvitation;
 import org.duracloud.account.db.model.util.DuracloudAccount;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.duracloud.account.db.util.error.UnsentEmailException;
@@ -221,17 +222,17 @@ public class AccountUsersController extends AbstractAccountController {
         throws Exception {
         log.info("getEditUserForm user {} account {}", userId, accountId);
         AccountService accountService = getAccountService(accountId);
-        Set<DuracloudUser> users = accountService.getUsers();
+        List<AccountMember> members = accountService.getMembers();
 
-        for (DuracloudUser u : users) {
-            if (u.getId() == userId) {
+        for (AccountMember u : members) {
+            if (u.getId().equals(userId)) {
                 AccountUser au = new AccountUser(u.getId(),
                                                  u.getUsername(),
                                                  u.getFirstName(),
                                                  u.getLastName(),
                                                  u.getEmail(),
                                                  InvitationStatus.ACTIVE,
-                                                 u.getRoleByAcct(accountId),
+                                                 u.getRole(),
                                                  u.getAllowableIPAddressRange(),
                                                  false);
                 //TODO set current role for select box - based on hierarchy?
@@ -295,7 +296,7 @@ public class AccountUsersController extends AbstractAccountController {
         throws Exception {
         AccountInfo accountInfo = accountService.retrieveAccountInfo();
         model.addAttribute(ACCOUNT_INFO_KEY, accountInfo);
-        Set<DuracloudUser> users = accountService.getUsers();
+        List<AccountMember> members = accountService.getMembers();
         Set<UserInvitation> pendingUserInvitations = accountService.getPendingInvitations();
         DuracloudUser caller = getUser();
         DuracloudAccount duracloudAccount = new DuracloudAccount();
@@ -304,7 +305,7 @@ public class AccountUsersController extends AbstractAccountController {
         model.addAttribute("account", duracloudAccount);
 
         List<AccountUser> accountUsers =
-            buildUserList(accountInfo.getId(), users, caller);
+            buildUserList(accountInfo.getId(), members, caller);
         Collections.sort(accountUsers);
         addInvitationsToModel(pendingUserInvitations, accountService, model);
         model.addAttribute(USERS_KEY, accountUsers);
@@ -332,10 +333,10 @@ public class AccountUsersController extends AbstractAccountController {
      * @return
      */
     private List<AccountUser> buildUserList(
-        Long accountId, Set<DuracloudUser> users, DuracloudUser caller) {
+        Long accountId, List<AccountMember> members, DuracloudUser caller) {
         List<AccountUser> list = new LinkedList<AccountUser>();
-        for (DuracloudUser u : users) {
-            Role role = u.getRoleByAcct(accountId);
+        for (AccountMember u : members) {
+            Role role = u.getRole();
             AccountUser au =
                 new AccountUser(u.getId(),
                                 u.getUsername(),
@@ -348,8 +349,8 @@ public class AccountUsersController extends AbstractAccountController {
                                 caller.isRoot()
                                 || caller.isOwnerForAcct(accountId)
                                 || (caller.isAdminForAcct(accountId)
-                                    && (role.equals(Role.ROLE_USER)
-                                        || role.equals(Role.ROLE_ADMIN)))
+                                    && (Role.ROLE_USER.equals(role)
+                                        || Role.ROLE_ADMIN.equals(role)))
                 );
             list.add(au);
         }
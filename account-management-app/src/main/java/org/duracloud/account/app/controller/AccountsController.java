@@ -17,6 +17,7 @@ import org.duracloud.account.db.model.AccountInfo;
 import org.duracloud.account.db.model.AccountInfo.AccountStatus;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.util.AccountService;
+import org.duracloud.account.db.util.KeysetPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
@@ -48,10 +50,15 @@ public class AccountsController extends AbstractRootController {
     private AmaEndpoint amaEndpoint;
 
     @RequestMapping("")
-    public ModelAndView get() {
-        ModelAndView mav = new ModelAndView(BASE_VIEW, "accounts",
-                                            getRootAccountManagerService().listAllAccounts(null));
+    public ModelAndView get(@RequestParam(required = false) String filter,
+                            @RequestParam(required = false) KeysetPage.Key after,
+                            @RequestParam(required = false) KeysetPage.Key before,
+                            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
+        KeysetPage<AccountInfo> page =
+            getRootAccountManagerService().listAccounts(filter, after, before, size);
+        ModelAndView mav = new ModelAndView(BASE_VIEW, "accounts", page.getContent());
         mav.addObject("mcDomain", amaEndpoint.getDomain());
+        addPageAttributes(mav, page, filter);
         return mav;
     }
 
@@ -9,7 +9,6 @@ package org.duracloud.account.app.controller;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -19,6 +18,7 @@ import org.duracloud.account.app.model.Account;
 import org.duracloud.account.app.model.User;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Controller;
@@ -28,6 +28,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
@@ -57,10 +58,14 @@ public class RootUsersController extends AbstractRootController {
     }
 
     @RequestMapping("")
-    public ModelAndView get() {
+    public ModelAndView get(@RequestParam(required = false) String filter,
+                            @RequestParam(required = false) KeysetPage.Key after,
+                            @RequestParam(required = false) KeysetPage.Key before,
+                            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
         List<User> u = new ArrayList<User>();
-        Set<DuracloudUser> root_users = getRootAccountManagerService().listAllRootUsers(null);
-        for (DuracloudUser root_user : root_users) {
+        KeysetPage<DuracloudUser> page =
+            getRootAccountManagerService().listRootUsers(filter, after, before, size);
+        for (DuracloudUser root_user : page.getContent()) {
             Set<Account> accounts = new HashSet<Account>();
             u.add(new User(root_user.getId(),
                     root_user.getUsername(),
@@ -72,10 +77,9 @@ public class RootUsersController extends AbstractRootController {
                     root_user.isRoot()));
         }
 
-        Collections.sort(u);
-
         ModelAndView mav = new ModelAndView(BASE_VIEW);
         mav.addObject("rootusers", u);
+        addPageAttributes(mav, page, filter);
         return mav;
 
     }
@@ -7,20 +7,24 @@
  */
 package org.duracloud.account.app.controller;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
 import org.duracloud.account.app.model.Account;
 import org.duracloud.account.app.model.User;
@@ -29,6 +33,8 @@ import org.duracloud.account.db.model.AccountRights;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.KeysetPage;
+import org.duracloud.account.util.CsvWriter;
 import org.duracloud.common.util.DateUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -53,15 +59,21 @@ public class UsersController extends AbstractRootController {
     private static final String BASE_VIEW = BASE_MAPPING;
     private static final String CREATE_LIST_VIEW = "create-list";
     public static final String EDIT_ACCOUNT_USERS_FORM_KEY = "accountUsersEditForm";
+    private static final String[] CSV_HEADERS =
+        {"First Name", "Last Name", "Username", "Email", "Accounts & Roles"};
 
     @Autowired
     private DuracloudUserService userService;
 
     @RequestMapping("")
-    public ModelAndView get() {
+    public ModelAndView get(@RequestParam(required = false) String filter,
+                            @RequestParam(required = false) KeysetPage.Key after,
+                            @RequestParam(required = false) KeysetPage.Key before,
+                            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
         List<User> u = new ArrayList<User>();
-        Set<DuracloudUser> users = getRootAccountManagerService().listAllUsers(null);
-        for (DuracloudUser user : users) {
+        KeysetPage<DuracloudUser> page =
+            getRootAccountManagerService().listUsers(filter, after, before, size);
+        for (DuracloudUser user : page.getContent()) {
             Set<Account> accounts = new HashSet<Account>();
             if (user.getAccountRights() != null) {
                 for (AccountRights account : user.getAccountRights()) {
@@ -85,11 +97,10 @@ public class UsersController extends AbstractRootController {
                            user.isRoot()));
         }
 
-        Collections.sort(u);
-
         ModelAndView mav = new ModelAndView(BASE_VIEW);
         mav.addObject("users", u);
         mav.addObject(EDIT_ACCOUNT_USERS_FORM_KEY, new AccountUserEditForm());
+        addPageAttributes(mav, page, filter);
 
         return mav;
     }
@@ -161,71 +172,84 @@ public class UsersController extends AbstractRootController {
         return createRedirectMav(BASE_VIEW);
     }
 
+    /**
+     * Streams a list of all users, with their accounts and roles, as CSV.
+     * Users are written as they are read, so the export runs in constant
+     * memory however many users there are.
+     *
+     * The list is opened with the first user, so an error reading the first
+     * batch is answered with an error status. Once part of the list has been
+     * sent, an error is rethrown without completing the list, so the
+     * connection is dropped and the download fails rather than ending early.
+     *
+     * @param gzip whether to compress the list
+     */
     @RequestMapping(value = CREATE_LIST_VIEW, method = RequestMethod.GET)
-    public String createList(HttpServletResponse response) throws Exception {
+    public String createList(@RequestParam(defaultValue = "false") boolean gzip,
+                             HttpServletResponse response) throws Exception {
         log.info("Creating DuraCloud users list.");
-        String csvHeaders = "First Name,Last Name,Username,Email,Accounts & Roles\n";
-
-        StringBuffer contentDisposition = new StringBuffer();
-        contentDisposition.append("attachment;");
-        SimpleDateFormat dateFormat =
-            new SimpleDateFormat(DateUtil.DateFormat.PLAIN_FORMAT.getPattern());
-        contentDisposition.append("filename=\"duracloud-users-" + dateFormat.format(new Date()) + ".csv\"");
-        response.setHeader("Content-Disposition", contentDisposition.toString());
-
-        List<String[]> users = this.buildUsersList();
-        log.info("Found {} users.", users.size());
 
+        CsvWriter[] csv = {null};
+        int[] count = {0};
         try {
-            response.getOutputStream().print(csvHeaders);
-            ListIterator<String[]> itr = users.listIterator();
-            while (itr.hasNext()) {
-                String user = StringUtils.join(itr.next(), ",");
-                response.getOutputStream().print(user + "\n");
+            getRootAccountManagerService().exportUsers(user -> {
+                try {
+                    if (null == csv[0]) {
+                        csv[0] = openList(gzip, response);
+                    }
+                    csv[0].writeRow(user.getFirstName(),
+                                    user.getLastName(),
+                                    user.getUsername(),
+                                    user.getEmail(),
+                                    user.getAccountRoles().stream()
+                                        .map(acct -> acct.getAccountName() + ":" + acct.getRole())
+                                        .collect(Collectors.joining(" || ")));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (null == csv[0]) {
+                csv[0] = openList(gzip, response);
+            }
+            csv[0].close();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Error occurred while downloading DuraCloud users list after " +
+                      count[0] + " users: " + ex.getMessage(), ex);
+            if (response.isCommitted()) {
+                // The list is left unfinished, so the client sees the
+                // download fail
+                throw ex;
             }
-        } catch (IOException ex) {
-            log.error("Error occurred while downloading DuraCloud users list: " + ex.getMessage(), ex);
-            response.setStatus(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+            response.reset();
+            response.sendError(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+            return null;
         }
+        log.info("Wrote {} users.", count[0]);
 
         return null;
     }
 
-    private List<String[]> buildUsersList() {
-        List<String[]> userDataLines = new ArrayList<>();
-        List<String> userData;
-
-        // Get all DuraCloud users
-        Set<DuracloudUser> users = getRootAccountManagerService().listAllUsers(null);
-        for (DuracloudUser user : users) {
-            userData = new ArrayList<String>();
-
-            // Add user metadata
-            userData.add(user.getFirstName());
-            userData.add(user.getLastName());
-            userData.add(user.getUsername());
-            userData.add(user.getEmail());
-
-            // Create list of account:role pairs
-            List<String> accountRolesList = new ArrayList<String>();
-            String accountRoles = "";
-
-            if (user.getAccountRights() != null) {
-                for (AccountRights account : user.getAccountRights()) {
-                    AccountInfo accountInfo = account.getAccount();
-                    accountRolesList.add(accountInfo.getAcctName() + ":" +
-                                         user.getRoleByAcct(account.getAccount().getId()));
-                }
-                String[] accountRolesArray = accountRolesList.toArray(new String[0]);
-                accountRoles = StringUtils.join(accountRolesArray, " || ");
-            }
-            userData.add(accountRoles);
-
-            String[] userDataArray = userData.toArray(new String[0]);
-            userDataLines.add(userDataArray);
+    /*
+     * Sets the headers of the users list and writes its header row
+     */
+    private CsvWriter openList(boolean gzip, HttpServletResponse response) throws IOException {
+        SimpleDateFormat dateFormat =
+            new SimpleDateFormat(DateUtil.DateFormat.PLAIN_FORMAT.getPattern());
+        String filename = "duracloud-users-" + dateFormat.format(new Date()) + ".csv";
+        if (gzip) {
+            filename += ".gz";
+            response.setContentType("application/gzip");
+        } else {
+            response.setContentType("text/csv; charset=UTF-8");
         }
+        response.setHeader("Content-Disposition", "attachment;filename=\"" + filename + "\"");
 
-        return userDataLines;
+        OutputStream out = response.getOutputStream();
+        CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(
+            gzip ? new GZIPOutputStream(out) : out, StandardCharsets.UTF_8)));
+        csv.writeRow(CSV_HEADERS);
+        return csv;
     }
 
     protected DuracloudUserService getUserService() {
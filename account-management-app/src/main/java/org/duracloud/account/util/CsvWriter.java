@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes rows of comma separated values as described by RFC 4180. A value
+ * holding a comma, quote or line break is quoted, with its quotes doubled.
+ *
+ * A value which a spreadsheet would read as a formula (one beginning with
+ * =, +, -, @, tab or carriage return) is written with a leading apostrophe,
+ * so that names and addresses entered by users cannot run as formulas when
+ * the file is opened.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    private static final String LINE_END = "\r\n";
+
+    private Writer writer;
+
+    /**
+     * @param writer to write to, which should be buffered
+     */
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * @param values of the row; a null value is written as an empty one
+     * @throws IOException
+     */
+    public void writeRow(String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(values[i]);
+        }
+        writer.write(LINE_END);
+    }
+
+    private void writeValue(String value) throws IOException {
+        if (null == value || value.isEmpty()) {
+            return;
+        }
+
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' ||
+            first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+
+        if (quote) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+}
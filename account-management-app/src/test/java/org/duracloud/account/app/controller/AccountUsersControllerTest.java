@@ -123,8 +123,8 @@ public class AccountUsersControllerTest extends AmaControllerTestBase {
                 .andReturn(createAccountInfo())
                 .times(1);
 
-        EasyMock.expect(accountService.getUsers())
-                .andReturn(createUserSet())
+        EasyMock.expect(accountService.getMembers())
+                .andReturn(createMemberList())
                 .times(1);
 
         EasyMock.expect(accountManagerService.getAccount(accountId))
@@ -20,6 +20,7 @@ import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.util.AccountManagerService;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.DuracloudUserService;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
@@ -157,6 +158,9 @@ public class AmaTestBase {
         EasyMock.expect(accountService.getUsers())
                 .andReturn(new HashSet<DuracloudUser>(users))
                 .anyTimes();
+        EasyMock.expect(accountService.getMembers())
+                .andReturn(createMemberList())
+                .anyTimes();
 
         EasyMock.expect(accountManagerService.getAccount(accountId))
                 .andReturn(accountService)
@@ -184,5 +188,14 @@ public class AmaTestBase {
         return s;
     }
 
+    protected List<AccountMember> createMemberList() {
+        DuracloudUser user = createUser();
+        List<AccountMember> members = new ArrayList<AccountMember>();
+        members.add(new AccountMember(user.getId(), user.getUsername(), user.getFirstName(),
+                                      user.getLastName(), user.getEmail(), null, false,
+                                      Role.ROLE_OWNER));
+        return members;
+    }
+
 }
 
@@ -7,9 +7,10 @@
  */
 package org.duracloud.account.app.controller;
 
-import java.util.HashSet;
+import java.util.ArrayList;
 
 import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.util.KeysetPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.easymock.EasyMock;
@@ -46,9 +47,10 @@ public class RootUsersControllerTest extends AmaControllerTestBase {
      */
     @Test
     public void testGet() throws AccountNotFoundException {
-        EasyMock.expect(rootAccountManagerService.listAllRootUsers(null)).andReturn(new HashSet<DuracloudUser>());
+        EasyMock.expect(rootAccountManagerService.listRootUsers(null, null, null, KeysetPage.DEFAULT_SIZE))
+                .andReturn(new KeysetPage<>(new ArrayList<DuracloudUser>(), 0, null));
         replayMocks();
-        rootUsersController.get();
+        rootUsersController.get(null, null, null, KeysetPage.DEFAULT_SIZE);
     }
 
     @Test
@@ -7,14 +7,24 @@
  */
 package org.duracloud.account.app.controller;
 
-import java.util.HashSet;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Set;
+import java.util.function.Consumer;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
 
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.util.KeysetPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
+import org.duracloud.account.db.util.UserAccountRoles;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.easymock.EasyMock;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -46,9 +56,10 @@ public class UsersControllerTest extends AmaControllerTestBase {
      */
     @Test
     public void testGet() throws AccountNotFoundException {
-        EasyMock.expect(rootAccountManagerService.listAllUsers(null)).andReturn(new HashSet<DuracloudUser>());
+        EasyMock.expect(rootAccountManagerService.listUsers(null, null, null, KeysetPage.DEFAULT_SIZE))
+                .andReturn(new KeysetPage<>(new ArrayList<DuracloudUser>(), 0, null));
         replayMocks();
-        usersController.get();
+        usersController.get(null, null, null, KeysetPage.DEFAULT_SIZE);
     }
 
     @Test
@@ -98,4 +109,100 @@ public class UsersControllerTest extends AmaControllerTestBase {
         usersController.changeUserRole(userId, f, result, redirectAttributes);
     }
 
+    @Test
+    public void testCreateList() throws Exception {
+        ListStream out = new ListStream();
+        HttpServletResponse response = createMock(HttpServletResponse.class);
+        expectListOpened(response, out);
+        expectExport(null);
+        replayMocks();
+
+        usersController.createList(false, response);
+        String list = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        Assert.assertTrue(list.startsWith("First Name,"));
+        Assert.assertTrue(list.contains("John,Smith,jsmith,jsmith@example.com"));
+        Assert.assertTrue(out.closed);
+    }
+
+    @Test
+    public void testCreateListFailsBeforeWrite() throws Exception {
+        HttpServletResponse response = createMock(HttpServletResponse.class);
+        rootAccountManagerService.exportUsers(EasyMock.<Consumer<UserAccountRoles>>anyObject());
+        EasyMock.expectLastCall().andThrow(new IllegalStateException("database unavailable"));
+
+        // Nothing has been sent, so an error status replaces the list
+        EasyMock.expect(response.isCommitted()).andReturn(false);
+        response.reset();
+        EasyMock.expectLastCall();
+        response.sendError(500);
+        EasyMock.expectLastCall();
+        replayMocks();
+
+        usersController.createList(false, response);
+    }
+
+    @Test
+    public void testCreateListFailsAfterCommit() throws Exception {
+        ListStream out = new ListStream();
+        HttpServletResponse response = createMock(HttpServletResponse.class);
+        expectListOpened(response, out);
+        expectExport(new IllegalStateException("database unavailable"));
+        EasyMock.expect(response.isCommitted()).andReturn(true);
+        replayMocks();
+
+        // Part of the list has been sent, so the list is left unfinished
+        try {
+            usersController.createList(false, response);
+            Assert.fail("Exception expected");
+        } catch (IllegalStateException e) {
+            Assert.assertFalse(out.closed);
+        }
+    }
+
+    private void expectListOpened(HttpServletResponse response, ServletOutputStream out)
+        throws IOException {
+        response.setContentType("text/csv; charset=UTF-8");
+        EasyMock.expectLastCall();
+        response.setHeader(EasyMock.eq("Content-Disposition"), EasyMock.anyString());
+        EasyMock.expectLastCall();
+        EasyMock.expect(response.getOutputStream()).andReturn(out);
+    }
+
+    /*
+     * Exports one user, then fails with the given error if there is one
+     */
+    private void expectExport(RuntimeException error) {
+        rootAccountManagerService.exportUsers(EasyMock.<Consumer<UserAccountRoles>>anyObject());
+        EasyMock.expectLastCall().andAnswer(() -> {
+            Consumer<UserAccountRoles> consumer =
+                (Consumer<UserAccountRoles>) EasyMock.getCurrentArguments()[0];
+            consumer.accept(new UserAccountRoles(1L, "jsmith", "John", "Smith",
+                                                 "jsmith@example.com",
+                                                 Collections.<UserAccountRoles.AccountRole>emptyList()));
+            if (null != error) {
+                throw error;
+            }
+            return null;
+        });
+    }
+
+    private static class ListStream extends ServletOutputStream {
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private boolean closed;
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
 }
@@ -0,0 +1,40 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.util;
+
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class CsvWriterTest {
+
+    @Test
+    public void testWriteRow() throws Exception {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRow("First Name", "Last Name", "Email");
+        writer.writeRow("Ann", "Doe, Jr.", null);
+        writer.writeRow("Bob \"B\"", "Line\nbreak", "");
+        writer.writeRow("=SUM(A1:A2)", "-1", "@x,y");
+        writer.writeRow("+1", "\t=1+2", "\r=1+2");
+        writer.flush();
+
+        Assert.assertEquals("First Name,Last Name,Email\r\n" +
+                            "Ann,\"Doe, Jr.\",\r\n" +
+                            "\"Bob \"\"B\"\"\",\"Line\nbreak\",\r\n" +
+                            "'=SUM(A1:A2),'-1,\"'@x,y\"\r\n" +
+                            "'+1,'\t=1+2,\"'\r=1+2\"\r\n",
+                            out.toString());
+    }
+
+}
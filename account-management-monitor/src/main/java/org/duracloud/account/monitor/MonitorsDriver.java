@@ -7,8 +7,6 @@
  */
 package org.duracloud.account.monitor;
 
-import static org.duracloud.account.monitor.MonitorsDriver.Monitor.DUPLICATION;
-
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -17,28 +15,40 @@ import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.IOUtils;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.util.GlobalPropertiesConfigService;
 import org.duracloud.account.email.EmailUtil;
 import org.duracloud.account.email.EmailUtilImpl;
-import org.duracloud.account.monitor.duplication.DuplicationMonitorDriver;
+import org.duracloud.account.monitor.common.MonitorContext;
+import org.duracloud.account.monitor.common.MonitorProvider;
+import org.duracloud.account.monitor.common.MonitorScheduler;
+import org.duracloud.account.monitor.common.StoreManagerCache;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This class is the command-line driver for executing monitors for
- * instance health, storage reporting, and duplication checks that
- * are run across DuraCloud accounts managed by the Management Console that is
- * defined by the configuration credentials.
+ * This class is the command-line driver for executing monitors, such as
+ * duplication checks, that are run across DuraCloud accounts managed by the
+ * Management Console that is defined by the configuration credentials.
+ *
+ * The available monitors are discovered as {@link MonitorProvider}s on the
+ * classpath, so further monitors may be added by including their jars. All
+ * monitors run by a driver share its store manager connections, root
+ * credentials, and email notifications.
  *
  * @author Andrew Woods
  * Date: 7/18/11
  */
-public class MonitorsDriver {
+public class MonitorsDriver implements MonitorContext {
 
     private Logger log = LoggerFactory.getLogger(MonitorsDriver.class);
 
@@ -53,34 +63,60 @@ public class MonitorsDriver {
     private static final String FROM_ADDRESS = PREFIX_EMAIL + "from";
     private static final String TO_ADDRESS = PREFIX_EMAIL + "to.";
 
+    private static final String PREFIX_SCHEDULE = PREFIX + "schedule.";
+    private static final String INTERVAL = ".interval-minutes";
+    private static final String JITTER = ".jitter-minutes";
+
+    private static final String SESSION_IDLE = PREFIX + "session-idle-minutes";
+
+    private static final String DAEMON = "daemon";
+
     private Properties props;
     private EmailUtil emailUtil;
+    private Map<String, MonitorProvider> providers;
+    private Map<String, Runnable> monitorDrivers = new ConcurrentHashMap<>();
+    private StoreManagerCache storeManagers;
     private DuracloudRepoMgr repoMgr;
     private GlobalPropertiesConfigService configService;
 
-    /**
-     * This enum defines the types of monitors available through this driver.
-     */
-    public enum Monitor {
-        DUPLICATION;
+    public MonitorsDriver(Properties props) {
+        this(props, null);
+    }
 
-        public Runnable getMonitorDriver(Properties props, GlobalPropertiesConfigService configService) {
-            if (this.equals(DUPLICATION)) {
-                return new DuplicationMonitorDriver(props);
+    protected MonitorsDriver(Properties props, EmailUtil emailUtil) {
+        this.props = props;
+        this.emailUtil = null == emailUtil ? buildEmailUtil(props) : emailUtil;
+        this.providers = loadProviders();
 
-            } else {
-                throw new DuraCloudRuntimeException("Unknown type: " + this);
-            }
+        long idleTimeout = StoreManagerCache.DEFAULT_IDLE_TIMEOUT_MILLIS;
+        if (null != props.getProperty(SESSION_IDLE)) {
+            idleTimeout = TimeUnit.MINUTES.toMillis(getMinutes(props, SESSION_IDLE));
         }
+        this.storeManagers = new StoreManagerCache(idleTimeout);
+    }
 
-        public String toString() {
-            return name().toLowerCase();
+    /**
+     * Finds all monitor providers on the classpath.
+     *
+     * @return providers keyed by monitor name, in name order
+     */
+    public static Map<String, MonitorProvider> loadProviders() {
+        Map<String, MonitorProvider> providers = new TreeMap<>();
+        for (MonitorProvider provider : ServiceLoader.load(MonitorProvider.class)) {
+            String name = provider.getName().toLowerCase();
+            MonitorProvider existing = providers.put(name, provider);
+            if (null != existing) {
+                throw new DuraCloudRuntimeException(
+                    "Monitor " + name + " is provided by both " +
+                    existing.getClass().getName() + " and " +
+                    provider.getClass().getName());
+            }
         }
+        return providers;
     }
 
-    public MonitorsDriver(Properties props) {
-        this.props = props;
-        this.emailUtil = buildEmailUtil(props);
+    public Map<String, MonitorProvider> getProviders() {
+        return providers;
     }
 
     public DuracloudRepoMgr getRepoMgr() {
@@ -93,36 +129,124 @@ public class MonitorsDriver {
 
     /**
      * This method invokes the .run() method on the provided arg target.
+     * The monitor driver for a target is created on first use and is reused
+     * by later runs, allowing it to retain state between runs.
      *
-     * @param target to monitor
+     * @param target name of the monitor to run
      */
-    public void monitor(Monitor target) {
+    public void monitor(String target) {
         log.info("starting monitor: {}", target);
 
         try {
-            target.getMonitorDriver(props, configService).run();
+            monitorDrivers.computeIfAbsent(target, this::createMonitor).run();
 
         } catch (Exception e) {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            PrintStream error = new PrintStream(out);
+            sendError("Management Console Monitors Error",
+                      "Error in MonitorsDriver: " + e.getMessage(), e);
+        }
+    }
 
-            error.println("Error in MonitorsDriver: " + e.getMessage());
-            e.printStackTrace(error);
+    private Runnable createMonitor(String target) {
+        MonitorProvider provider = providers.get(target);
+        if (null == provider) {
+            throw new DuraCloudRuntimeException("Unknown monitor: " + target);
+        }
+        return provider.createMonitor(this);
+    }
 
-            error.flush();
-            IOUtils.closeQuietly(out);
+    /**
+     * This method schedules each monitor which has a configured interval to
+     * be run repeatedly by the provided scheduler.
+     *
+     * @param scheduler which runs the monitors
+     * @return number of monitors scheduled
+     */
+    public int schedule(MonitorScheduler scheduler) {
+        int scheduled = 0;
+        for (String target : providers.keySet()) {
+            String prefix = PREFIX_SCHEDULE + target;
+            if (null == props.getProperty(prefix + INTERVAL)) {
+                continue;
+            }
 
-            String msg = new String(out.toByteArray());
-            log.error(msg);
-            sendEmail("Management Console Monitors Error", msg);
+            long interval = getMinutes(props, prefix + INTERVAL);
+            long jitter = 0;
+            if (null != props.getProperty(prefix + JITTER)) {
+                jitter = getMinutes(props, prefix + JITTER);
+            }
+            if (interval < 1 || jitter < 0) {
+                throw new DuraCloudRuntimeException(
+                    "Invalid schedule for monitor " + target + ": interval " +
+                    interval + ", jitter " + jitter);
+            }
+
+            Runnable run = () -> monitor(target);
+            scheduler.schedule(target,
+                               run,
+                               TimeUnit.MINUTES.toMillis(interval),
+                               TimeUnit.MINUTES.toMillis(jitter));
+            scheduled++;
+        }
+        return scheduled;
+    }
+
+    /**
+     * This method runs all scheduled monitors until the process is stopped.
+     */
+    public void runDaemon() {
+        MonitorScheduler scheduler =
+            new MonitorScheduler(providers.size() + 1);
+        if (schedule(scheduler) == 0) {
+            scheduler.shutdown();
+            throw new DuraCloudRuntimeException(
+                "No monitor schedules found, expected properties such as: " +
+                PREFIX_SCHEDULE + "<monitor>" + INTERVAL);
         }
+        Runtime.getRuntime().addShutdownHook(new Thread(scheduler::shutdown));
+    }
+
+    private long getMinutes(Properties props, String key) {
+        String property = getProperty(props, key);
+        try {
+            return Long.parseLong(property.trim());
+        } catch (NumberFormatException e) {
+            throw new DuraCloudRuntimeException("Property " + key +
+                                                " is not a number: " + property);
+        }
+    }
+
+    @Override
+    public Properties getProperties() {
+        return props;
+    }
+
+    @Override
+    public StoreManagerCache getStoreManagers() {
+        return storeManagers;
     }
 
-    protected void sendEmail(String subject, String body) {
+    @Override
+    public void sendEmail(String subject, String body) {
         log.info("Sending email.\nsubject: {} \nbody \n{}", subject, body);
         emailUtil.sendEmail(subject, body);
     }
 
+    @Override
+    public void sendError(String subject, String message, Exception e) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream error = new PrintStream(out);
+
+        error.println(message);
+        e.printStackTrace(error);
+
+        error.flush();
+        IOUtils.closeQuietly(out);
+
+        String msg = new String(out.toByteArray());
+        log.error(msg);
+        sendEmail(subject, msg);
+    }
+
     private EmailUtil buildEmailUtil(Properties props) {
         String username = getProperty(props, AWS_USERNAME);
         String password = getProperty(props, AWS_PASSWORD);
@@ -171,14 +295,13 @@ public class MonitorsDriver {
             System.exit(1);
         }
 
-        String targetName = args[0].toLowerCase();
-        Monitor target = null;
-        try {
-            target = Monitor.valueOf(targetName.toUpperCase());
-
-        } catch (Exception e) {
-            StringBuilder msg = new StringBuilder("Target must be '");
-            msg.append(DUPLICATION);
+        String target = args[0].toLowerCase();
+        boolean daemon = DAEMON.equals(target);
+        if (!daemon && !loadProviders().containsKey(target)) {
+            StringBuilder msg = new StringBuilder("Target must be one of '");
+            msg.append(String.join("', '", loadProviders().keySet()));
+            msg.append("' or '");
+            msg.append(DAEMON);
             msg.append("'");
             System.err.println(usage(msg.toString()));
             System.exit(1);
@@ -206,7 +329,11 @@ public class MonitorsDriver {
         }
 
         MonitorsDriver driver = new MonitorsDriver(props);
-        driver.monitor(target);
+        if (daemon) {
+            driver.runDaemon();
+        } else {
+            driver.monitor(target);
+        }
     }
 
     private static String usage(String msg) {
@@ -216,12 +343,20 @@ public class MonitorsDriver {
         sb.append("\n\n");
         sb.append("Usage: ");
         sb.append("MonitorsDriver ");
-        sb.append("<instance|store_reporter|duplication> ");
+        sb.append("<");
+        sb.append(String.join("|", loadProviders().keySet()));
+        sb.append("|");
+        sb.append(DAEMON);
+        sb.append("> ");
         sb.append("<properties-file>");
         sb.append("\n\t");
-        sb.append("Where '");
-        sb.append(DUPLICATION);
-        sb.append("' must be provided to indicate the monitoring target.");
+        sb.append("Where the name of a monitor must be provided to ");
+        sb.append("indicate the monitoring target,");
+        sb.append("\n\t");
+        sb.append("or '");
+        sb.append(DAEMON);
+        sb.append("' to run each monitor repeatedly on the schedule ");
+        sb.append("defined in the properties file.");
         sb.append("\n\t");
         sb.append("And where 'properties-file' contains the necessary ");
         sb.append("initialization config.");
@@ -32,7 +32,34 @@ public abstract class BaseMonitor {
     private static final String MONITOR_USERNAME_KEY = "monitor.username";
     protected Logger log;
 
+    // The credentials file is read and decrypted once per process
+    private static volatile Credential rootCredential;
+
     protected Credential getRootCredential() {
+        Credential credential = rootCredential;
+        if (null == credential) {
+            synchronized (BaseMonitor.class) {
+                if (null == rootCredential) {
+                    rootCredential = readRootCredential();
+                }
+                credential = rootCredential;
+            }
+        }
+        return credential;
+    }
+
+    /**
+     * Discards the cached root credential, causing the credentials file to
+     * be read again on next use. This allows credentials which have been
+     * reset to be picked up by a long-running process.
+     */
+    protected void resetRootCredential() {
+        synchronized (BaseMonitor.class) {
+            rootCredential = null;
+        }
+    }
+
+    private Credential readRootCredential() {
         try {
             EncryptionUtil encryptionUtil = new EncryptionUtil();
 
@@ -0,0 +1,214 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.error.NotFoundException;
+import org.duracloud.error.UnauthorizedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class governs the requests made to a single DuraCloud account host.
+ *
+ * Requests are limited by a token bucket. The rate of the bucket is halved
+ * each time a request fails and grows back gradually toward the configured
+ * rate as requests succeed, so that a busy host is given room to recover.
+ * Failed requests are retried after an exponential backoff with full jitter.
+ * After a number of consecutive failures the circuit to the host is opened,
+ * and requests fail immediately until the cooldown has passed, after which
+ * requests are again allowed through.
+ *
+ * Requests which fail because an item is missing or access is denied are
+ * not retried, and are not counted as failures of the host.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class HostThrottle {
+
+    private static final double MIN_RATE = 0.1;
+    private static final double RECOVERY_STEPS = 20;
+
+    private Logger log = LoggerFactory.getLogger(HostThrottle.class);
+
+    private final String host;
+    private final double maxRate;
+    private final int maxRetries;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
+    private final int circuitFailures;
+    private final long circuitCooldownMillis;
+
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private int consecutiveFailures;
+    private long openUntil;
+
+    /**
+     * A request to be made to the host
+     */
+    public interface Call<T> {
+        T call() throws ContentStoreException;
+    }
+
+    /**
+     * Indicates that a request was not made because the circuit to the host
+     * is open
+     */
+    public static class CircuitOpenException extends ContentStoreException {
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @param host                  to which requests are made
+     * @param requestsPerSecond     maximum rate of requests, 0 for no limit
+     * @param maxRetries            number of times a failed request is retried
+     * @param retryDelayMillis      base delay before the first retry
+     * @param maxRetryDelayMillis   maximum delay before any retry
+     * @param circuitFailures       consecutive failures which open the circuit
+     * @param circuitCooldownMillis time for which the circuit remains open
+     */
+    public HostThrottle(String host,
+                        double requestsPerSecond,
+                        int maxRetries,
+                        long retryDelayMillis,
+                        long maxRetryDelayMillis,
+                        int circuitFailures,
+                        long circuitCooldownMillis) {
+        this.host = host;
+        this.maxRate = requestsPerSecond;
+        this.maxRetries = maxRetries;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+        this.circuitFailures = circuitFailures;
+        this.circuitCooldownMillis = circuitCooldownMillis;
+
+        this.rate = requestsPerSecond;
+        this.tokens = Math.max(1, requestsPerSecond);
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Makes a request to the host, waiting for the rate limit and retrying
+     * on failure as needed.
+     *
+     * @param call request to make
+     * @return result of the request
+     * @throws ContentStoreException if the request fails on the final attempt,
+     *                               or the circuit to the host is open
+     * @throws InterruptedException  if interrupted while waiting
+     */
+    public <T> T execute(Call<T> call)
+        throws ContentStoreException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            checkCircuit();
+            acquire();
+            try {
+                T result = call.call();
+                onSuccess();
+                return result;
+            } catch (NotFoundException | UnauthorizedException e) {
+                onSuccess();
+                throw e;
+            } catch (ContentStoreException e) {
+                onFailure();
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                long delay = backoff(attempt);
+                log.warn("Request to host {} failed (attempt {} of {}), retrying " +
+                         "in {} ms: {}", host, attempt + 1, maxRetries + 1,
+                         delay, e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * @return the current request rate limit, 0 if requests are not limited
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    public synchronized boolean isCircuitOpen() {
+        return System.currentTimeMillis() < openUntil;
+    }
+
+    private synchronized void checkCircuit() throws CircuitOpenException {
+        if (System.currentTimeMillis() < openUntil) {
+            throw new CircuitOpenException(
+                "Requests to host " + host + " are suspended after " +
+                consecutiveFailures + " consecutive failures");
+        }
+    }
+
+    /*
+     * Waits until a token is available in the bucket, then takes it
+     */
+    private void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                if (maxRate <= 0) {
+                    return;
+                }
+                long now = System.nanoTime();
+                tokens = Math.min(Math.max(1, rate),
+                                  tokens + (now - lastRefill) * rate / 1e9);
+                lastRefill = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) ((1 - tokens) / rate * 1e9);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(1, waitNanos));
+        }
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (maxRate > 0 && rate < maxRate) {
+            rate = Math.min(maxRate, rate + maxRate / RECOVERY_STEPS);
+        }
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (maxRate > 0) {
+            rate = Math.max(Math.min(MIN_RATE, maxRate), rate / 2);
+        }
+        if (consecutiveFailures >= circuitFailures && !isCircuitOpen()) {
+            log.warn("Suspending requests to host {} for {} ms after {} " +
+                     "consecutive failures", host, circuitCooldownMillis,
+                     consecutiveFailures);
+            openUntil = System.currentTimeMillis() + circuitCooldownMillis;
+        }
+    }
+
+    /*
+     * Exponential backoff with full jitter: a random delay up to the base
+     * delay doubled for each prior attempt, capped at the maximum delay
+     */
+    private long backoff(int attempt) {
+        long ceiling = retryDelayMillis << Math.min(attempt, 30);
+        if (ceiling <= 0 || ceiling > maxRetryDelayMillis) {
+            ceiling = maxRetryDelayMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+}
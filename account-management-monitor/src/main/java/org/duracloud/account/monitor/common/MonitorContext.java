@@ -0,0 +1,49 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import java.util.Properties;
+
+/**
+ * This interface gives monitors access to the resources which are shared
+ * by all monitors running in the same process.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public interface MonitorContext {
+
+    /**
+     * @return the monitor configuration properties
+     */
+    Properties getProperties();
+
+    /**
+     * @return the logged-in store managers of DuraCloud account hosts
+     */
+    StoreManagerCache getStoreManagers();
+
+    /**
+     * Sends an email to the configured monitor recipients
+     *
+     * @param subject of email
+     * @param body    of email
+     */
+    void sendEmail(String subject, String body);
+
+    /**
+     * Logs an error and sends an email which describes it, including the
+     * stack trace of the exception
+     *
+     * @param subject of email
+     * @param message describing the error
+     * @param e       exception which caused the error
+     */
+    void sendError(String subject, String message, Exception e);
+
+}
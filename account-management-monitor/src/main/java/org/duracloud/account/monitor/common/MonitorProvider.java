@@ -0,0 +1,37 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+/**
+ * This interface is implemented by each type of monitor which may be run by
+ * the MonitorsDriver. Providers are discovered with java.util.ServiceLoader,
+ * so a monitor is made available by listing its provider class in a
+ * META-INF/services/org.duracloud.account.monitor.common.MonitorProvider
+ * file of any jar on the classpath.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public interface MonitorProvider {
+
+    /**
+     * @return the name by which the monitor is selected on the command line
+     * and in schedule properties, such as "duplication"
+     */
+    String getName();
+
+    /**
+     * Creates the monitor. The monitor is created once and its run() method
+     * is called for each run, so it may retain state between runs.
+     *
+     * @param context resources shared by all monitors
+     * @return monitor to run
+     */
+    Runnable createMonitor(MonitorContext context);
+
+}
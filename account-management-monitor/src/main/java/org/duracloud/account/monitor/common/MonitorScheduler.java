@@ -0,0 +1,133 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class runs monitors repeatedly within a single long-running process.
+ * Each monitor is run on its own interval, offset by a random jitter so that
+ * monitors do not all start at the same moment. A run which comes due while
+ * the previous run of the same monitor is still in progress is skipped.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class MonitorScheduler {
+
+    private Logger log = LoggerFactory.getLogger(MonitorScheduler.class);
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param threads the number of monitor runs which may be in progress at
+     *                the same time
+     */
+    public MonitorScheduler(int threads) {
+        this.executor = Executors.newScheduledThreadPool(threads);
+    }
+
+    /**
+     * Schedules a monitor to be run repeatedly. The first run begins within
+     * one jitter period, after which each run begins one interval plus up to
+     * one jitter period after the start of the previous run.
+     *
+     * @param name           of the monitor, used for logging
+     * @param monitor        to run
+     * @param intervalMillis time between runs
+     * @param jitterMillis   maximum random delay added to each interval
+     */
+    public void schedule(String name,
+                         Runnable monitor,
+                         long intervalMillis,
+                         long jitterMillis) {
+        log.info("scheduling monitor {} to run every {} ms (jitter {} ms)",
+                 name, intervalMillis, jitterMillis);
+        ScheduledMonitor scheduled =
+            new ScheduledMonitor(name, monitor, intervalMillis, jitterMillis);
+        scheduled.scheduleNext(jitter(jitterMillis));
+    }
+
+    /**
+     * Stops scheduling runs and interrupts any runs in progress.
+     */
+    public void shutdown() {
+        log.info("shutting down monitor scheduler");
+        executor.shutdownNow();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    private static long jitter(long jitterMillis) {
+        if (jitterMillis <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(jitterMillis + 1);
+    }
+
+    private class ScheduledMonitor implements Runnable {
+        private final String name;
+        private final Runnable monitor;
+        private final long intervalMillis;
+        private final long jitterMillis;
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        ScheduledMonitor(String name,
+                         Runnable monitor,
+                         long intervalMillis,
+                         long jitterMillis) {
+            this.name = name;
+            this.monitor = monitor;
+            this.intervalMillis = intervalMillis;
+            this.jitterMillis = jitterMillis;
+        }
+
+        void scheduleNext(long delayMillis) {
+            try {
+                executor.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("not scheduling monitor {}, scheduler is shut down", name);
+            }
+        }
+
+        @Override
+        public void run() {
+            // The next run is timed from the start of this one
+            scheduleNext(intervalMillis + jitter(jitterMillis));
+
+            if (!running.compareAndSet(false, true)) {
+                log.warn("skipping run of monitor {}, the previous run is " +
+                         "still in progress", name);
+                return;
+            }
+
+            try {
+                log.info("starting scheduled run of monitor {}", name);
+                monitor.run();
+                log.info("completed scheduled run of monitor {}", name);
+            } catch (RuntimeException e) {
+                log.error("scheduled run of monitor " + name + " failed: " +
+                          e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.duracloud.client.ContentStoreManager;
+import org.duracloud.client.ContentStoreManagerImpl;
+import org.duracloud.common.model.Credential;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class retains logged-in store managers for DuraCloud account hosts so
+ * that repeated checks of a host do not need to connect and log in again.
+ * Store managers which have not been used within the idle timeout are logged
+ * out and discarded.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class StoreManagerCache {
+
+    /**
+     * The default idle timeout, two days
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 2 * 24 * 60 * 60 * 1000L;
+
+    private static final String PORT = "443";
+    private static final String CONTEXT = "durastore";
+
+    private Logger log = LoggerFactory.getLogger(StoreManagerCache.class);
+
+    private long idleTimeoutMillis;
+    private Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * @param idleTimeoutMillis time after which an unused store manager is
+     *                          discarded
+     */
+    public StoreManagerCache(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Gets the store manager for a host, creating and logging in a new store
+     * manager if none is retained for the host.
+     *
+     * @param host       of account
+     * @param credential used to log in a new store manager
+     * @return logged-in store manager
+     */
+    public ContentStoreManager getStoreManager(String host, Credential credential) {
+        evictIdle();
+        Session session = sessions.computeIfAbsent(host, h -> {
+            log.debug("logging in to host {}", h);
+            ContentStoreManager storeManager = createStoreManager(h);
+            storeManager.login(credential);
+            return new Session(storeManager);
+        });
+        session.lastUsed = System.currentTimeMillis();
+        return session.storeManager;
+    }
+
+    /**
+     * Discards the store manager for a host, so that the next request for the
+     * host connects and logs in again.
+     *
+     * @param host of account
+     */
+    public void invalidate(String host) {
+        Session session = sessions.remove(host);
+        if (null != session) {
+            logout(host, session);
+        }
+    }
+
+    /**
+     * Discards all store managers which have not been used within the idle
+     * timeout.
+     *
+     * @return number of store managers discarded
+     */
+    public int evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMillis;
+        int evicted = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (session.lastUsed < idleSince &&
+                sessions.remove(entry.getKey(), session)) {
+                log.debug("discarding idle store manager for host {}", entry.getKey());
+                logout(entry.getKey(), session);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    protected ContentStoreManager createStoreManager(String host) {
+        return new ContentStoreManagerImpl(host, PORT, CONTEXT);
+    }
+
+    private void logout(String host, Session session) {
+        try {
+            session.storeManager.logout();
+        } catch (RuntimeException e) {
+            log.warn("error logging out of host {}: {}", host, e.getMessage());
+        }
+    }
+
+    private static class Session {
+        private final ContentStoreManager storeManager;
+        private volatile long lastUsed;
+
+        Session(ContentStoreManager storeManager) {
+            this.storeManager = storeManager;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+}
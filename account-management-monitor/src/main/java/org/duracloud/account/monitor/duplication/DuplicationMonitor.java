@@ -7,23 +7,50 @@
  */
 package org.duracloud.account.monitor.duplication;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.duracloud.account.db.util.error.DBNotFoundException;
 import org.duracloud.account.monitor.common.BaseMonitor;
+import org.duracloud.account.monitor.common.HostThrottle;
+import org.duracloud.account.monitor.common.StoreManagerCache;
+import org.duracloud.account.monitor.duplication.domain.DuplicationConfig;
 import org.duracloud.account.monitor.duplication.domain.DuplicationInfo;
 import org.duracloud.account.monitor.duplication.domain.DuplicationReport;
+import org.duracloud.account.monitor.duplication.domain.DuplicationSnapshot;
+import org.duracloud.account.monitor.duplication.domain.SpaceSelection;
+import org.duracloud.account.monitor.duplication.util.DuplicationRecordWriter;
+import org.duracloud.account.monitor.duplication.util.DuplicationSnapshotStore;
 import org.duracloud.client.ContentStore;
 import org.duracloud.client.ContentStoreManager;
-import org.duracloud.client.ContentStoreManagerImpl;
 import org.duracloud.client.SpaceStatsDTOList;
+import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.model.Credential;
 import org.duracloud.error.ContentStoreException;
+import org.duracloud.error.UnauthorizedException;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -35,82 +62,346 @@ import org.slf4j.LoggerFactory;
  */
 public class DuplicationMonitor extends BaseMonitor {
 
-    public static final String ALL_SPACES = "ALL";
-    private static final String PORT = "443";
-    private static final String CONTEXT = "durastore";
+    public static final String ALL_SPACES = SpaceSelection.ALL_RULE;
     private static final List<String> ADMIN_SPACES =
         Arrays.asList("x-duracloud-admin", "x-service-out");
+    private static final long FULL_STATS_WINDOW_MILLIS = TimeUnit.DAYS.toMillis(1);
 
-    private Map<String, String> dupHosts;
+    private Map<String, SpaceSelection> dupHosts;
+    private DuplicationConfig config;
+    private StoreManagerCache storeManagers;
+    private Map<String, HostThrottle> throttles = new ConcurrentHashMap<>();
 
-    public DuplicationMonitor(Map<String, String> dupHosts) {
+    public DuplicationMonitor(Map<String, SpaceSelection> dupHosts) {
+        this(dupHosts, new DuplicationConfig());
+    }
+
+    public DuplicationMonitor(Map<String, SpaceSelection> dupHosts,
+                              DuplicationConfig config) {
+        this(dupHosts, config,
+             new StoreManagerCache(StoreManagerCache.DEFAULT_IDLE_TIMEOUT_MILLIS));
+    }
+
+    public DuplicationMonitor(Map<String, SpaceSelection> dupHosts,
+                              DuplicationConfig config,
+                              StoreManagerCache storeManagers) {
         this.log = LoggerFactory.getLogger(DuplicationMonitor.class);
         this.dupHosts = dupHosts;
+        this.config = config;
+        this.storeManagers = storeManagers;
     }
 
     /**
      * This method performs the duplication checks. These checks compare
      * the number of content items in identically named spaces.
      *
+     * Hosts are checked concurrently by a bounded pool of workers. A host
+     * check which runs longer than the configured host timeout, or which has
+     * not completed when the overall deadline is reached, is abandoned and
+     * reported as an issue for that host.
+     *
+     * When a snapshot file is configured, the space counts of the previous
+     * run are read from it so that changes in counts and the duration of
+     * mismatches can be reported, and so that recent counts of matching
+     * spaces can be reused. The counts of this run are then stored for the
+     * next run.
+     *
+     * When a report file is configured, the full results of each host check
+     * are written to it as the check completes, and the returned report holds
+     * only a summary of each host.
+     *
      * @return DuplicationReport report
      */
     public DuplicationReport monitorDuplication() {
         log.info("starting duplication monitor");
         DuplicationReport report = new DuplicationReport();
+        if (dupHosts.isEmpty()) {
+            return report;
+        }
 
-        for (String host : dupHosts.keySet()) {
-            DuplicationInfo info = new DuplicationInfo(host);
+        Credential credential = getRootCredential();
+        DuplicationSnapshotStore snapshotStore = null;
+        DuplicationSnapshot previous = new DuplicationSnapshot();
+        if (null != config.getSnapshotFile()) {
+            snapshotStore = new DuplicationSnapshotStore(config.getSnapshotFile());
+            previous = snapshotStore.read();
+        }
+        Run run = new Run(previous);
+
+        long hostTimeout = TimeUnit.MINUTES.toMillis(config.getHostTimeoutMinutes());
+        long deadline = System.currentTimeMillis() +
+                        TimeUnit.MINUTES.toMillis(config.getDeadlineMinutes());
+
+        int threads = Math.min(config.getHostThreads(), dupHosts.size());
+        ExecutorService workers = Executors.newFixedThreadPool(threads, threadFactory("dup-monitor-host"));
+        // Cancelled host timeouts are removed at once, rather than holding
+        // their host checks until they would have fired
+        ScheduledThreadPoolExecutor timer =
+            new ScheduledThreadPoolExecutor(1, threadFactory("dup-monitor-timer"));
+        timer.setRemoveOnCancelPolicy(true);
+        DuplicationRecordWriter recordWriter = openRecordWriter();
+        try {
+            // Checks which have not yet been recorded. A check is removed
+            // once it is recorded, so that the results of each host may be
+            // released rather than retained until the run ends.
+            Map<String, FutureTask<DuplicationInfo>> checks = new LinkedHashMap<>();
+            BlockingQueue<String> completed = new LinkedBlockingQueue<>();
+            for (String host : dupHosts.keySet()) {
+                FutureTask<DuplicationInfo> check =
+                    new FutureTask<DuplicationInfo>(() -> checkHost(host, credential, run)) {
+                        @Override
+                        protected void done() {
+                            completed.add(host);
+                        }
+                    };
+                checks.put(host, check);
+                workers.execute(() -> {
+                    // The host timeout starts when the check begins running
+                    ScheduledFuture<?> timeout =
+                        timer.schedule(() -> check.cancel(true), hostTimeout, TimeUnit.MILLISECONDS);
+                    try {
+                        check.run();
+                    } finally {
+                        timeout.cancel(false);
+                    }
+                });
+            }
+
+            // Collect results as host checks complete
             try {
-                // Connect to storage providers
-                ContentStoreManager storeManager = getStoreManager(host);
-                ContentStore primary = storeManager.getPrimaryContentStore();
-                String primaryStoreId = primary.getStoreId();
-                List<ContentStore> secondaryList =
-                    getSecondaryStores(storeManager, primaryStoreId);
-
-                // Get primary space listing and count
-                List<String> primarySpaces = getSpaces(host, primary);
-                countSpaces(host, info, primary, primarySpaces, true);
-
-                // Get space listing and space counts for secondary providers
-                for (ContentStore secondary : secondaryList) {
-                    List<String> secondarySpaces = getSpaces(host, secondary);
-                    if (primarySpaces.size() != secondarySpaces.size()) {
-                        info.addIssue("The spaces listings do not match " +
-                                      "between primary and secondary " +
-                                      "provider: " +
-                                      secondary.getStorageProviderType());
+                while (!checks.isEmpty()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    String host = remaining > 0 ?
+                                  completed.poll(remaining, TimeUnit.MILLISECONDS) : null;
+                    if (null == host) {
+                        break;
+                    }
+                    FutureTask<DuplicationInfo> check = checks.remove(host);
+                    if (null != check) {
+                        recordHost(report, recordWriter, host,
+                                   awaitHostCheck(host, check, deadline));
                     }
-                    // Determine item count for secondary provider spaces
-                    countSpaces(host, info, secondary, secondarySpaces, false);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
 
-                // Compare the space counts between providers
-                compareSpaces(primaryStoreId, info);
-            } catch (Exception e) {
-                String error = e.getClass() + " exception encountered while " +
-                               "running dup monitor for host " + host +
-                               ". Exception message: " + e.getMessage();
-                log.error(error);
-                info.addIssue(error);
-            } finally {
-                report.addDupInfo(host, info);
+            // Any checks still pending have missed the deadline
+            Iterator<Map.Entry<String, FutureTask<DuplicationInfo>>> pending =
+                checks.entrySet().iterator();
+            while (pending.hasNext()) {
+                Map.Entry<String, FutureTask<DuplicationInfo>> check = pending.next();
+                pending.remove();
+                recordHost(report, recordWriter, check.getKey(),
+                           awaitHostCheck(check.getKey(), check.getValue(), deadline));
             }
+        } finally {
+            workers.shutdownNow();
+            timer.shutdownNow();
+            closeRecordWriter(recordWriter);
         }
 
+        if (null != snapshotStore) {
+            saveSnapshot(snapshotStore, run);
+        }
         return report;
     }
 
     /*
-     * Create the store manager to connect to this DuraCloud account instance
+     * Opens the writer to which the results of each host check are streamed,
+     * if one is configured
+     */
+    private DuplicationRecordWriter openRecordWriter() {
+        if (null == config.getReportFile()) {
+            return null;
+        }
+        try {
+            return DuplicationRecordWriter.open(config.getReportFile(),
+                                                config.getReportFormat());
+        } catch (IOException e) {
+            throw new DuraCloudRuntimeException(
+                "Unable to open duplication report file " +
+                config.getReportFile() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void closeRecordWriter(DuplicationRecordWriter recordWriter) {
+        if (null != recordWriter) {
+            try {
+                recordWriter.close();
+            } catch (IOException e) {
+                log.error("Unable to close duplication report file " +
+                          config.getReportFile() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Adds the results of a host check to the report. When results are being
+     * streamed, the full results are written out and only a summary of the
+     * host is retained in the report.
      */
-    private ContentStoreManager getStoreManager(String host)
+    private void recordHost(DuplicationReport report,
+                            DuplicationRecordWriter recordWriter,
+                            String host,
+                            DuplicationInfo info) {
+        if (null == recordWriter) {
+            report.addDupInfo(host, info);
+            return;
+        }
+
+        try {
+            recordWriter.write(info);
+        } catch (IOException e) {
+            String error = "Unable to write duplication results for host " +
+                           host + ": " + e.getMessage();
+            log.error(error);
+            info.addIssue(error);
+        }
+        report.addDupSummary(host, info);
+    }
+
+    /*
+     * Stores the counts collected in this run. Hosts for which no counts
+     * were collected retain the counts of the previous run. Checks abandoned
+     * at the deadline may still be recording counts into the run; the store
+     * writes a copy of the counts taken when it is called.
+     */
+    private void saveSnapshot(DuplicationSnapshotStore snapshotStore, Run run) {
+        DuplicationSnapshot snapshot = new DuplicationSnapshot();
+        for (String host : dupHosts.keySet()) {
+            DuplicationSnapshot source = run.current.getHostEntries(host).isEmpty() ?
+                                         run.previous : run.current;
+            snapshot.copyHost(host, source);
+        }
+        try {
+            snapshotStore.write(snapshot);
+        } catch (IOException e) {
+            log.error("Unable to store duplication snapshot " +
+                      config.getSnapshotFile().getAbsolutePath() + ": " +
+                      e.getMessage());
+        }
+    }
+
+    /*
+     * Waits for the check of a single host to complete, converting any
+     * failure to complete into an issue for that host.
+     */
+    private DuplicationInfo awaitHostCheck(String host,
+                                           Future<DuplicationInfo> check,
+                                           long deadline) {
+        String error;
+        try {
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            return check.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            check.cancel(true);
+            error = "Duplication check of host " + host + " did not complete " +
+                    "before the monitor deadline of " + config.getDeadlineMinutes() +
+                    " minutes";
+        } catch (CancellationException e) {
+            error = "Duplication check of host " + host + " exceeded the host " +
+                    "timeout of " + config.getHostTimeoutMinutes() + " minutes";
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            error = cause.getClass() + " exception encountered while " +
+                    "running dup monitor for host " + host +
+                    ". Exception message: " + cause.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            check.cancel(true);
+            error = "Duplication check of host " + host + " was interrupted";
+        }
+
+        log.error(error);
+        DuplicationInfo info = new DuplicationInfo(host);
+        info.addIssue(error);
+        return info;
+    }
+
+    /*
+     * Performs the duplication check for a single host as part of a run
+     */
+    protected DuplicationInfo checkHost(String host, Credential credential, Run run) {
+        DuplicationInfo info = new DuplicationInfo(host);
+        try {
+            // Connect to storage providers
+            ContentStoreManager storeManager = getStoreManager(host, credential);
+            ContentStore primary;
+            try {
+                primary = storeManager.getPrimaryContentStore();
+            } catch (UnauthorizedException e) {
+                // The retained login may be stale, or the credentials may
+                // have been reset, so read the credentials and log in again
+                log.warn("Authorization failed for host " + host +
+                         ", logging in again: " + e.getMessage());
+                storeManagers.invalidate(host);
+                resetRootCredential();
+                storeManager = getStoreManager(host, getRootCredential());
+                primary = storeManager.getPrimaryContentStore();
+            }
+            String primaryStoreId = primary.getStoreId();
+            List<ContentStore> secondaryList =
+                getSecondaryStores(storeManager, primaryStoreId);
+
+            // Get primary space listing
+            List<String> primarySpaces = getSpaces(host, primary);
+            List<SpaceToCount> toCount =
+                new ArrayList<>(selectSpaces(host, primary, primarySpaces, true));
+
+            // Get space listings for secondary providers
+            for (ContentStore secondary : secondaryList) {
+                List<String> secondarySpaces = getSpaces(host, secondary);
+                if (primarySpaces.size() != secondarySpaces.size()) {
+                    info.addIssue("The spaces listings do not match " +
+                                  "between primary and secondary " +
+                                  "provider: " +
+                                  secondary.getStorageProviderType());
+                }
+                toCount.addAll(selectSpaces(host, secondary, secondarySpaces, false));
+            }
+
+            // Determine item count for all spaces in all providers
+            countSpaces(host, info, toCount, run);
+
+            // Compare the space counts between providers
+            compareSpaces(primaryStoreId, info, run);
+        } catch (HostThrottle.CircuitOpenException e) {
+            // Requests to the host are suspended, so the remaining spaces
+            // are not counted and the partial counts are not compared
+            String error = "Duplication check of host " + host + " was stopped " +
+                           "before all spaces were counted: " + e.getMessage();
+            log.error(error);
+            info.addIssue(error);
+        } catch (Exception e) {
+            // Connect again on the next run in case the connection is at fault
+            storeManagers.invalidate(host);
+            String error = e.getClass() + " exception encountered while " +
+                           "running dup monitor for host " + host +
+                           ". Exception message: " + e.getMessage();
+            log.error(error);
+            info.addIssue(error);
+        }
+        return info;
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /*
+     * Get the store manager to connect to this DuraCloud account instance.
+     * Store managers are retained so that later runs of a long-running
+     * monitor are able to reuse them.
+     */
+    protected ContentStoreManager getStoreManager(String host, Credential credential)
         throws DBNotFoundException {
-        ContentStoreManager storeManager =
-            new ContentStoreManagerImpl(host, PORT, CONTEXT);
-        Credential credential = getRootCredential();
-        storeManager.login(credential);
-        return storeManager;
+        return storeManagers.getStoreManager(host, credential);
     }
 
     /*
@@ -139,59 +430,160 @@ public class DuplicationMonitor extends BaseMonitor {
     protected List<String> getSpaces(String host, ContentStore store)
         throws ContentStoreException {
         List<String> spaceList;
-        String spaces = dupHosts.get(host);
-        if (spaces.equals(ALL_SPACES)) { // Need to compare all spaces
+        SpaceSelection selection = getSelection(host);
+        if (selection.isAll()) { // Need to compare all spaces
             spaceList = new ArrayList<>(store.getSpaces());
             spaceList.removeAll(ADMIN_SPACES);
         } else { // Only compare specific set of spaces
-            String[] spacesToCompare = spaces.split(",");
-            spaceList = Arrays.asList(spacesToCompare);
+            spaceList = selection.getSpaceIds();
         }
         return spaceList;
     }
 
+    private SpaceSelection getSelection(String host) {
+        SpaceSelection selection = dupHosts.get(host);
+        return null == selection ? SpaceSelection.ALL : selection;
+    }
+
     /*
-     * Perform a content count for all spaces in the list for the given account
+     * Perform a content count for all spaces in the list for the given account,
+     * outside of any run
      */
     protected void countSpaces(String host,
                                DuplicationInfo info,
                                ContentStore store,
                                List<String> spaces,
-                               boolean primary) {
+                               boolean primary)
+        throws HostThrottle.CircuitOpenException, InterruptedException {
+        countSpaces(host, info, selectSpaces(host, store, spaces, primary),
+                    new Run(new DuplicationSnapshot()));
+    }
+
+    /*
+     * Determine which of the listed spaces are to be counted in the given
+     * store, according to the space selection of the host.
+     */
+    private List<SpaceToCount> selectSpaces(String host,
+                                            ContentStore store,
+                                            List<String> spaces,
+                                            boolean primary) {
+        SpaceSelection selection = getSelection(host);
         String storeId = store.getStoreId();
         String storeType = store.getStorageProviderType();
+        List<SpaceToCount> toCount = new ArrayList<>();
         for (String spaceId : spaces) {
-            boolean doCount = false;
-            // Handle spaces which include space ID, formatted like: spaceId:storeId
-            if (spaceId.indexOf(":") > -1) {
-                String[] spaceAndStoreId = spaceId.split(":");
-                spaceId = spaceAndStoreId[0];
-                if (primary || storeId.equals(spaceAndStoreId[1])) {
-                    doCount = true;
-                }
-            } else {
-                doCount = true;
+            if (selection.isCounted(spaceId, storeId, primary)) {
+                toCount.add(new SpaceToCount(store, storeId, storeType, spaceId));
             }
+        }
+        return toCount;
+    }
 
-            if (doCount) {
-                countSpace(host, spaceId, storeId, storeType, info, store);
+    /*
+     * Count each of the given spaces. When space threads are configured, up
+     * to that many counts are requested from the host at the same time,
+     * otherwise spaces are counted one after another. If the circuit to the
+     * host opens, the spaces not yet counted are skipped.
+     */
+    private void countSpaces(String host,
+                             DuplicationInfo info,
+                             List<SpaceToCount> toCount,
+                             Run run)
+        throws HostThrottle.CircuitOpenException, InterruptedException {
+        int threads = Math.min(config.getSpaceThreads(), toCount.size());
+        if (threads <= 1) {
+            for (SpaceToCount space : toCount) {
+                countSpace(host, space, info, run);
+            }
+            return;
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads, threadFactory("dup-monitor-space"));
+        try {
+            Map<SpaceToCount, Future<?>> counts = new LinkedHashMap<>();
+            for (SpaceToCount space : toCount) {
+                counts.put(space, workers.submit(() -> {
+                    countSpace(host, space, info, run);
+                    return null;
+                }));
+            }
+
+            HostThrottle.CircuitOpenException circuitOpen = null;
+            for (Map.Entry<SpaceToCount, Future<?>> count : counts.entrySet()) {
+                try {
+                    count.getValue().get();
+                } catch (CancellationException e) {
+                    // Skipped after the circuit to the host opened
+                } catch (ExecutionException e) {
+                    SpaceToCount space = count.getKey();
+                    Throwable cause = e.getCause();
+                    if (cause instanceof HostThrottle.CircuitOpenException) {
+                        if (null == circuitOpen) {
+                            circuitOpen = (HostThrottle.CircuitOpenException) cause;
+                            for (Future<?> pending : counts.values()) {
+                                pending.cancel(false);
+                            }
+                        }
+                        continue;
+                    }
+                    String error = cause.getClass() + " exception encountered " +
+                                   "attempting to get count of space " + space.spaceId +
+                                   " for duplication check of host " + host +
+                                   ". Exception message: " + cause.getMessage();
+                    log.error(error);
+                    info.addIssue(error);
+                    info.addSpaceCount(space.storeId, space.spaceId, -1);
+                }
             }
+            if (null != circuitOpen) {
+                throw circuitOpen;
+            }
+        } finally {
+            workers.shutdownNow();
         }
     }
 
     private void countSpace(String host,
-                            String spaceId,
-                            String storeId,
-                            String storeType,
+                            SpaceToCount space,
                             DuplicationInfo info,
-                            ContentStore store) {
+                            Run run) throws HostThrottle.CircuitOpenException {
+        String spaceId = space.spaceId;
+        String storeId = space.storeId;
+        String storeType = space.storeType;
+
+        DuplicationSnapshot.Entry reusable = getReusableEntry(host, space, run);
+        if (null != reusable) {
+            log.info("Reusing count for space '" + spaceId + "' in store " +
+                     storeType + " for host " + host + " taken at " +
+                     new Date(reusable.getCheckedAt()) + ": " + reusable.getCount());
+            info.addSpaceCount(storeId, spaceId, reusable.getCount());
+            run.current.putEntry(host, spaceId, storeId, reusable);
+            return;
+        }
+
+        // A space listed more than once is only counted once in a run
+        String countKey = host + "/" + storeId + "/" + spaceId;
+        Long counted = run.counts.get(countKey);
+        if (null != counted) {
+            info.addSpaceCount(storeId, spaceId, counted);
+            return;
+        }
+
         try {
             log.info("Counting space '" + spaceId + "' in store " +
                      storeType + " for host " + host + " ...");
-            long count = getSpaceCount(store, spaceId);
+            long checkedAt = System.currentTimeMillis();
+            long count = getThrottle(host).execute(
+                () -> getSpaceCount(space.store, spaceId));
             log.info("Count for space '" + spaceId + "' in store " +
                      storeType + " for host " + host + ": " + count);
             info.addSpaceCount(storeId, spaceId, count);
+            run.counts.put(countKey, count);
+            run.current.putEntry(host, spaceId, storeId,
+                             new DuplicationSnapshot.Entry(count, checkedAt, 0));
+        } catch (HostThrottle.CircuitOpenException e) {
+            // Reported once for the host rather than for each space
+            throw e;
         } catch (ContentStoreException e) {
             String error = "ContentStoreException encountered " +
                            "attempting to get count of space " + spaceId +
@@ -200,7 +592,51 @@ public class DuplicationMonitor extends BaseMonitor {
             log.error(error);
             info.addIssue(error);
             info.addSpaceCount(storeId, spaceId, -1);
+        } catch (InterruptedException e) {
+            // The host check has been abandoned, stop counting
+            Thread.currentThread().interrupt();
+            info.addIssue("Count of space " + spaceId + " for duplication " +
+                          "check of host " + host + " was interrupted");
+            info.addSpaceCount(storeId, spaceId, -1);
+        }
+    }
+
+    /*
+     * Gets the throttle which governs count requests to a host. Throttles
+     * are retained so that a long-running monitor keeps the request rate
+     * and circuit state learned for each host in earlier runs.
+     */
+    private HostThrottle getThrottle(String host) {
+        return throttles.computeIfAbsent(host, h -> new HostThrottle(
+            h, config.getRequestsPerSecond(), config.getMaxRetries(),
+            config.getRetryDelayMillis(), config.getMaxRetryDelayMillis(),
+            config.getCircuitFailures(),
+            TimeUnit.SECONDS.toMillis(config.getCircuitCooldownSeconds())));
+    }
+
+    /*
+     * Determines if the count of a space taken in the previous run can be
+     * used in place of requesting it again. This is only the case when the
+     * counts of the space in all stores are recent and matched.
+     */
+    private DuplicationSnapshot.Entry getReusableEntry(String host,
+                                                       SpaceToCount space,
+                                                       Run run) {
+        long maxAge = TimeUnit.MINUTES.toMillis(config.getSnapshotMaxAgeMinutes());
+        if (maxAge <= 0) {
+            return null;
+        }
+
+        Map<String, DuplicationSnapshot.Entry> entries =
+            run.previous.getSpaceEntries(host, space.spaceId);
+        long now = System.currentTimeMillis();
+        for (DuplicationSnapshot.Entry entry : entries.values()) {
+            if (entry.isMismatched() || entry.getCount() < 0 ||
+                now - entry.getCheckedAt() > maxAge) {
+                return null;
+            }
         }
+        return entries.get(space.storeId);
     }
 
     /*
@@ -208,8 +644,50 @@ public class DuplicationMonitor extends BaseMonitor {
      */
     private long getSpaceCount(ContentStore store, String spaceId)
         throws ContentStoreException {
+        if (DuplicationConfig.CountSource.PROPERTIES.equals(config.getCountSource())) {
+            Long count = getPropertiesCount(store, spaceId);
+            if (null != count) {
+                return count;
+            }
+        }
+        return getStatsCount(store, spaceId);
+    }
+
+    /*
+     * Reads the count of a space from its properties. Returns null if the
+     * properties do not hold an exact count; large spaces may report an
+     * estimate such as "1000+".
+     */
+    private Long getPropertiesCount(ContentStore store, String spaceId)
+        throws ContentStoreException {
+        Map<String, String> properties = store.getSpaceProperties(spaceId);
+        String count = null == properties ? null : properties.get(ContentStore.SPACE_COUNT);
+        if (null != count) {
+            try {
+                return Long.valueOf(count.trim());
+            } catch (NumberFormatException e) {
+                log.debug("Space count of space {} is not exact: {}", spaceId, count);
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Reads the count of a space from the most recent point of its storage
+     * statistics. Only the configured window of statistics is requested,
+     * widening to a full day if no statistics fall within the window.
+     */
+    private long getStatsCount(ContentStore store, String spaceId)
+        throws ContentStoreException {
+        long now = System.currentTimeMillis();
+        long window = TimeUnit.MINUTES.toMillis(config.getStatsWindowMinutes());
         SpaceStatsDTOList stats =
-            store.getSpaceStats(spaceId, new Date(System.currentTimeMillis() - (24 * 60 * 60 * 1000)), new Date());
+            store.getSpaceStats(spaceId, new Date(now - window), new Date(now));
+        if (window < FULL_STATS_WINDOW_MILLIS && (stats == null || stats.size() == 0)) {
+            stats = store.getSpaceStats(spaceId,
+                                        new Date(now - FULL_STATS_WINDOW_MILLIS),
+                                        new Date(now));
+        }
 
         long count = 0;
 
@@ -221,37 +699,25 @@ public class DuplicationMonitor extends BaseMonitor {
     }
 
     /*
-     * Compare the counted number of space items between storage providers
+     * Compare the counted number of space items between storage providers,
+     * outside of any run
      */
     protected void compareSpaces(String primaryStoreId, DuplicationInfo info) {
-        String spaces = dupHosts.get(info.getHost());
+        compareSpaces(primaryStoreId, info, new Run(new DuplicationSnapshot()));
+    }
+
+    /*
+     * Compare the counted number of space items between storage providers
+     */
+    private void compareSpaces(String primaryStoreId, DuplicationInfo info, Run run) {
+        SpaceSelection selection = getSelection(info.getHost());
         Map<String, Long> primarySpaces = info.getSpaceCounts(primaryStoreId);
         for (String storeId : info.getStoreIds()) {
             Map<String, Long> secondarySpaces = info.getSpaceCounts(storeId);
 
             for (String spaceId : primarySpaces.keySet()) {
-                // Determine if a space comparison should occur
-                boolean doCompare = false;
-                if (null == spaces || spaces.equals(ALL_SPACES)) {
-                    doCompare = true;
-                } else {
-                    String[] spacesToCompare = spaces.split(",");
-                    List<String> spaceList = Arrays.asList(spacesToCompare);
-                    if (spaceList.contains(spaceId)) {
-                        doCompare = true;
-                    } else { // Check space and store IDs
-                        for (String spacesSpaceId : spaceList) {
-                            String[] spaceAndStoreId = spacesSpaceId.split(":");
-                            if (spaceId.equals(spaceAndStoreId[0]) &&
-                                storeId.equals(spaceAndStoreId[1])) {
-                                doCompare = true;
-                            }
-                        }
-                    }
-                }
-
-                // Do the comparison
-                if (doCompare) {
+                // Compare if the space is selected in this store
+                if (selection.isSelected(spaceId, storeId)) {
                     Long primaryCount = primarySpaces.get(spaceId);
                     Long secondaryCount = secondarySpaces.get(spaceId);
 
@@ -259,15 +725,103 @@ public class DuplicationMonitor extends BaseMonitor {
                         info.addIssue("The secondary provider (ID=" + storeId +
                                       ") is missing space: " + spaceId);
                     } else if (!primaryCount.equals(secondaryCount)) {
+                        String host = info.getHost();
                         info.addIssue("The content item counts for the space " +
                                       spaceId + " do not match between primary and secondary " +
                                       "providers. Primary count: " + primaryCount +
+                                      describeChange(host, primaryStoreId, spaceId, run) +
                                       ". Secondary (ID=" + storeId + ") " +
-                                      "count: " + secondaryCount + ".");
+                                      "count: " + secondaryCount +
+                                      describeChange(host, storeId, spaceId, run) + "." +
+                                      trackMismatch(host, spaceId, primaryStoreId, storeId, run));
                     }
                 }
             }
         }
     }
 
-}
\ No newline at end of file
+    /*
+     * Describes how the count of a space has changed since it was last
+     * counted in a previous run.
+     */
+    private String describeChange(String host, String storeId, String spaceId, Run run) {
+        DuplicationSnapshot.Entry now = run.current.getEntry(host, spaceId, storeId);
+        DuplicationSnapshot.Entry before = run.previous.getEntry(host, spaceId, storeId);
+        if (null == now || null == before || before.getCount() < 0 ||
+            now.getCheckedAt() == before.getCheckedAt()) {
+            return "";
+        }
+
+        long delta = now.getCount() - before.getCount();
+        return " (" + (delta >= 0 ? "+" : "") + delta + " since " +
+               new Date(before.getCheckedAt()) + ")";
+    }
+
+    /*
+     * Records that the counts of a space do not match between two stores and
+     * describes how long the mismatch has persisted across runs.
+     */
+    private String trackMismatch(String host,
+                                 String spaceId,
+                                 String primaryStoreId,
+                                 String storeId,
+                                 Run run) {
+        DuplicationSnapshot.Entry primaryEntry =
+            run.current.getEntry(host, spaceId, primaryStoreId);
+        DuplicationSnapshot.Entry secondaryEntry = run.current.getEntry(host, spaceId, storeId);
+        if (null == config.getSnapshotFile() ||
+            null == primaryEntry || null == secondaryEntry) {
+            return "";
+        }
+
+        long now = System.currentTimeMillis();
+        long since = now;
+        DuplicationSnapshot.Entry before = run.previous.getEntry(host, spaceId, storeId);
+        if (null != before && before.isMismatched()) {
+            since = before.getMismatchSince();
+        }
+        run.current.putEntry(host, spaceId, primaryStoreId, primaryEntry.withMismatchSince(since));
+        run.current.putEntry(host, spaceId, storeId, secondaryEntry.withMismatchSince(since));
+
+        if (since == now) {
+            return " This mismatch was first found in this run.";
+        }
+        return " This mismatch has persisted for " +
+               DurationFormatUtils.formatDurationWords(now - since, true, true) +
+               ", since " + new Date(since) + ".";
+    }
+
+    /*
+     * The state of a single run of the monitor: the snapshot read at the
+     * start of the run, and the counts collected by the run. Each run has its
+     * own state, so host checks abandoned by one run cannot alter the results
+     * or the stored snapshot of a later run.
+     */
+    protected static class Run {
+        private final DuplicationSnapshot previous;
+        private final DuplicationSnapshot current = new DuplicationSnapshot();
+        private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+        protected Run(DuplicationSnapshot previous) {
+            this.previous = previous;
+        }
+    }
+
+    /*
+     * A space in a given store for which a content count is needed
+     */
+    private static class SpaceToCount {
+        private final ContentStore store;
+        private final String storeId;
+        private final String storeType;
+        private final String spaceId;
+
+        SpaceToCount(ContentStore store, String storeId, String storeType, String spaceId) {
+            this.store = store;
+            this.storeId = storeId;
+            this.storeType = storeType;
+            this.spaceId = spaceId;
+        }
+    }
+
+}
@@ -7,14 +7,13 @@
  */
 package org.duracloud.account.monitor.duplication;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
 import java.util.Map;
 import java.util.Properties;
 
-import org.apache.commons.io.IOUtils;
-import org.duracloud.account.monitor.MonitorsDriver;
+import org.duracloud.account.monitor.common.MonitorContext;
+import org.duracloud.account.monitor.duplication.domain.DuplicationConfig;
 import org.duracloud.account.monitor.duplication.domain.DuplicationReport;
+import org.duracloud.account.monitor.duplication.domain.SpaceSelection;
 import org.duracloud.account.monitor.duplication.util.DuplicationPropReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,20 +25,26 @@ import org.slf4j.LoggerFactory;
  * @author Bill Branan
  * Date: 4/17/13
  */
-public class DuplicationMonitorDriver extends MonitorsDriver implements Runnable {
+public class DuplicationMonitorDriver implements Runnable {
 
     private Logger log =
         LoggerFactory.getLogger(DuplicationMonitorDriver.class);
 
+    private MonitorContext context;
     private DuplicationMonitor duplicationMonitor;
+    private DuplicationConfig config;
 
-    public DuplicationMonitorDriver(Properties props) {
-        super(props);
+    public DuplicationMonitorDriver(MonitorContext context) {
+        this.context = context;
+        Properties props = context.getProperties();
 
         DuplicationPropReader propReader = new DuplicationPropReader();
-        Map<String, String> dupHosts = propReader.readDupProps(props);
+        Map<String, SpaceSelection> dupHosts = propReader.readDupProps(props);
 
-        duplicationMonitor = new DuplicationMonitor(dupHosts);
+        config = propReader.readDupConfig(props);
+
+        duplicationMonitor = new DuplicationMonitor(dupHosts, config,
+                                                    context.getStoreManagers());
     }
 
     @Override
@@ -49,22 +54,15 @@ public class DuplicationMonitorDriver extends MonitorsDriver implements Runnable
         try {
             report = duplicationMonitor.monitorDuplication();
             if (report.hasIssues()) {
-                sendEmail("DuraCloud Duplication Monitor discovered issues!",
-                          report.toString());
+                String body = report.toString();
+                if (null != config.getReportFile()) {
+                    body = "Full results: " + config.getReportFile() + "\n\n" + body;
+                }
+                context.sendEmail("DuraCloud Duplication Monitor discovered issues!", body);
             }
         } catch (Exception e) {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            PrintStream error = new PrintStream(out);
-
-            error.println("Error in DuplicationMonitor: " + e.getMessage());
-            e.printStackTrace(error);
-
-            error.flush();
-            IOUtils.closeQuietly(out);
-
-            String msg = new String(out.toByteArray());
-            log.error(msg);
-            sendEmail("Duplication Monitor Error", msg);
+            context.sendError("Duplication Monitor Error",
+                              "Error in DuplicationMonitor: " + e.getMessage(), e);
         }
     }
 
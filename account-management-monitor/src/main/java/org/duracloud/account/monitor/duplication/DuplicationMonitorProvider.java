@@ -0,0 +1,34 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication;
+
+import org.duracloud.account.monitor.common.MonitorContext;
+import org.duracloud.account.monitor.common.MonitorProvider;
+
+/**
+ * Provides the monitor which checks content duplication across the storage
+ * providers of DuraCloud accounts.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class DuplicationMonitorProvider implements MonitorProvider {
+
+    public static final String NAME = "duplication";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Runnable createMonitor(MonitorContext context) {
+        return new DuplicationMonitorDriver(context);
+    }
+
+}
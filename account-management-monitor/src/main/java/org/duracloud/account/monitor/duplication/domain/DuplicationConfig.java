@@ -0,0 +1,261 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import java.io.File;
+
+import org.duracloud.account.monitor.duplication.util.DuplicationRecordWriter;
+import org.duracloud.common.error.DuraCloudRuntimeException;
+
+/**
+ * This class holds the tuning settings which control how the duplication
+ * monitor executes its checks.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class DuplicationConfig {
+
+    /**
+     * The sources from which the content item count of a space may be read
+     */
+    public enum CountSource {
+        /**
+         * The most recent point of the space's storage statistics
+         */
+        STATS,
+        /**
+         * The space count property of the space. Spaces for which the
+         * property is not an exact count fall back to storage statistics.
+         */
+        PROPERTIES;
+
+        public static CountSource fromString(String source) {
+            try {
+                return valueOf(source.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new DuraCloudRuntimeException("Unknown count source: " + source);
+            }
+        }
+    }
+
+    public static final int DEFAULT_HOST_THREADS = 4;
+    public static final long DEFAULT_HOST_TIMEOUT_MINUTES = 60;
+    public static final long DEFAULT_DEADLINE_MINUTES = 6 * 60;
+    public static final int DEFAULT_SPACE_THREADS = 1;
+    public static final long DEFAULT_SNAPSHOT_MAX_AGE_MINUTES = 0;
+    public static final long DEFAULT_STATS_WINDOW_MINUTES = 24 * 60;
+    public static final int DEFAULT_REQUESTS_PER_SECOND = 10;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 500;
+    public static final long DEFAULT_MAX_RETRY_DELAY_MILLIS = 30 * 1000;
+    public static final int DEFAULT_CIRCUIT_FAILURES = 5;
+    public static final long DEFAULT_CIRCUIT_COOLDOWN_SECONDS = 5 * 60;
+
+    private int hostThreads = DEFAULT_HOST_THREADS;
+    private long hostTimeoutMinutes = DEFAULT_HOST_TIMEOUT_MINUTES;
+    private long deadlineMinutes = DEFAULT_DEADLINE_MINUTES;
+    private int spaceThreads = DEFAULT_SPACE_THREADS;
+    private File snapshotFile;
+    private long snapshotMaxAgeMinutes = DEFAULT_SNAPSHOT_MAX_AGE_MINUTES;
+    private CountSource countSource = CountSource.STATS;
+    private long statsWindowMinutes = DEFAULT_STATS_WINDOW_MINUTES;
+    private int requestsPerSecond = DEFAULT_REQUESTS_PER_SECOND;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long retryDelayMillis = DEFAULT_RETRY_DELAY_MILLIS;
+    private long maxRetryDelayMillis = DEFAULT_MAX_RETRY_DELAY_MILLIS;
+    private int circuitFailures = DEFAULT_CIRCUIT_FAILURES;
+    private long circuitCooldownSeconds = DEFAULT_CIRCUIT_COOLDOWN_SECONDS;
+    private String reportFile;
+    private DuplicationRecordWriter.Format reportFormat = DuplicationRecordWriter.Format.JSONL;
+
+    /**
+     * @return the number of hosts which may be checked concurrently
+     */
+    public int getHostThreads() {
+        return hostThreads;
+    }
+
+    public void setHostThreads(int hostThreads) {
+        this.hostThreads = hostThreads;
+    }
+
+    /**
+     * @return the maximum number of minutes the check of a single host may
+     * run before it is abandoned
+     */
+    public long getHostTimeoutMinutes() {
+        return hostTimeoutMinutes;
+    }
+
+    public void setHostTimeoutMinutes(long hostTimeoutMinutes) {
+        this.hostTimeoutMinutes = hostTimeoutMinutes;
+    }
+
+    /**
+     * @return the maximum number of minutes the full monitor run may take
+     * before all outstanding host checks are abandoned
+     */
+    public long getDeadlineMinutes() {
+        return deadlineMinutes;
+    }
+
+    public void setDeadlineMinutes(long deadlineMinutes) {
+        this.deadlineMinutes = deadlineMinutes;
+    }
+
+    /**
+     * @return the maximum number of space count requests which may be made
+     * to a single host at the same time. A value of 1 counts spaces serially.
+     */
+    public int getSpaceThreads() {
+        return spaceThreads;
+    }
+
+    public void setSpaceThreads(int spaceThreads) {
+        this.spaceThreads = spaceThreads;
+    }
+
+    /**
+     * @return the file in which space counts are retained between runs, or
+     * null if counts are not to be retained
+     */
+    public File getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public void setSnapshotFile(File snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * @return the number of minutes for which retained counts of a space with
+     * matching counts may be reused rather than requested again. A value of
+     * 0 requests every count on every run.
+     */
+    public long getSnapshotMaxAgeMinutes() {
+        return snapshotMaxAgeMinutes;
+    }
+
+    public void setSnapshotMaxAgeMinutes(long snapshotMaxAgeMinutes) {
+        this.snapshotMaxAgeMinutes = snapshotMaxAgeMinutes;
+    }
+
+    public CountSource getCountSource() {
+        return countSource;
+    }
+
+    public void setCountSource(CountSource countSource) {
+        this.countSource = countSource;
+    }
+
+    /**
+     * @return the number of minutes of storage statistics requested when
+     * reading the count of a space. If no statistics are recorded within
+     * this window, a full day of statistics is requested.
+     */
+    public long getStatsWindowMinutes() {
+        return statsWindowMinutes;
+    }
+
+    public void setStatsWindowMinutes(long statsWindowMinutes) {
+        this.statsWindowMinutes = statsWindowMinutes;
+    }
+
+    /**
+     * @return the maximum number of space count requests per second made to
+     * a single host. A value of 0 does not limit the rate of requests.
+     */
+    public int getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(int requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * @return the number of times a failed space count request is retried
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * @return the base delay before retrying a failed request, doubled for
+     * each further retry
+     */
+    public long getRetryDelayMillis() {
+        return retryDelayMillis;
+    }
+
+    public void setRetryDelayMillis(long retryDelayMillis) {
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    /**
+     * @return the maximum delay before retrying a failed request
+     */
+    public long getMaxRetryDelayMillis() {
+        return maxRetryDelayMillis;
+    }
+
+    public void setMaxRetryDelayMillis(long maxRetryDelayMillis) {
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+    }
+
+    /**
+     * @return the number of consecutive failed requests to a host after which
+     * further requests to the host are suspended
+     */
+    public int getCircuitFailures() {
+        return circuitFailures;
+    }
+
+    public void setCircuitFailures(int circuitFailures) {
+        this.circuitFailures = circuitFailures;
+    }
+
+    /**
+     * @return the number of seconds for which requests to a host are
+     * suspended
+     */
+    public long getCircuitCooldownSeconds() {
+        return circuitCooldownSeconds;
+    }
+
+    public void setCircuitCooldownSeconds(long circuitCooldownSeconds) {
+        this.circuitCooldownSeconds = circuitCooldownSeconds;
+    }
+
+    /**
+     * @return the file, or "-" for standard out, to which the full results of
+     * each host check are written as they complete, or null if full results
+     * are not to be written
+     */
+    public String getReportFile() {
+        return reportFile;
+    }
+
+    public void setReportFile(String reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    public DuplicationRecordWriter.Format getReportFormat() {
+        return reportFormat;
+    }
+
+    public void setReportFormat(DuplicationRecordWriter.Format reportFormat) {
+        this.reportFormat = reportFormat;
+    }
+
+}
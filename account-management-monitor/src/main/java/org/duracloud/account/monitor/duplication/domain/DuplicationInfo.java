@@ -7,15 +7,16 @@
  */
 package org.duracloud.account.monitor.duplication.domain;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This class holds details about the duplication status of the spaces in a
- * DuraCloud instance
+ * DuraCloud instance. Space counts and issues may be safely added by
+ * concurrent writers.
  *
  * @author Bill Branan
  * Date: 4/16/13
@@ -28,8 +29,8 @@ public class DuplicationInfo {
 
     public DuplicationInfo(String host) {
         this.host = host;
-        this.stores = new HashMap<>();
-        this.issues = new ArrayList<>();
+        this.stores = new ConcurrentHashMap<>();
+        this.issues = new CopyOnWriteArrayList<>();
     }
 
     public void addIssue(String issue) {
@@ -45,14 +46,11 @@ public class DuplicationInfo {
     }
 
     public void addSpaceCount(String storeId, String spaceId, long count) {
-        checkStore(storeId);
-        stores.get(storeId).addSpace(spaceId, count);
+        checkStore(storeId).addSpace(spaceId, count);
     }
 
-    private void checkStore(String storeId) {
-        if (!stores.containsKey(storeId)) {
-            stores.put(storeId, new Store(storeId));
-        }
+    private Store checkStore(String storeId) {
+        return stores.computeIfAbsent(storeId, Store::new);
     }
 
     public String getHost() {
@@ -64,8 +62,28 @@ public class DuplicationInfo {
     }
 
     public Map<String, Long> getSpaceCounts(String storeId) {
-        checkStore(storeId);
-        return stores.get(storeId).getSpaceCounts();
+        return checkStore(storeId).getSpaceCounts();
+    }
+
+    /**
+     * @return the number of space counts held across all stores
+     */
+    public int getCountedSpaces() {
+        int counted = 0;
+        for (Store store : stores.values()) {
+            counted += store.getSpaceCounts().size();
+        }
+        return counted;
+    }
+
+    /**
+     * @return a copy of this info which holds the issues but not the space
+     * counts
+     */
+    public DuplicationInfo withoutSpaceCounts() {
+        DuplicationInfo info = new DuplicationInfo(host);
+        info.issues.addAll(issues);
+        return info;
     }
 
     @Override
@@ -75,7 +93,7 @@ public class DuplicationInfo {
         sb.append(host);
         sb.append(" status: ");
 
-        if (issues.size() == 0) {
+        if (issues.isEmpty()) {
             sb.append("OK");
 
         } else {
@@ -95,7 +113,7 @@ public class DuplicationInfo {
 
         public Store(String storeId) {
             this.storeId = storeId;
-            spaceCounts = new HashMap<>();
+            spaceCounts = new ConcurrentHashMap<>();
         }
 
         public String getStoreId() {
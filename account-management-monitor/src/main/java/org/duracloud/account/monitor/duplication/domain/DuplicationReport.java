@@ -7,14 +7,17 @@
  */
 package org.duracloud.account.monitor.duplication.domain;
 
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class contains a report detailing space duplication status for a
- * set of DuraCloud accounts.
+ * set of DuraCloud accounts. Host details may be safely added by concurrent
+ * writers.
  *
  * @author Bill Branan
  * Date: 4/16/13
@@ -22,9 +25,13 @@ import java.util.Map;
 public class DuplicationReport {
 
     private Map<String, DuplicationInfo> dupInfos;
+    private AtomicInteger hostsChecked;
+    private AtomicLong spacesCounted;
 
     public DuplicationReport() {
-        this.dupInfos = new HashMap<>();
+        this.dupInfos = new ConcurrentHashMap<>();
+        this.hostsChecked = new AtomicInteger();
+        this.spacesCounted = new AtomicLong();
     }
 
     /**
@@ -34,9 +41,46 @@ public class DuplicationReport {
      * @param info duplication information
      */
     public void addDupInfo(String host, DuplicationInfo info) {
+        count(info);
         dupInfos.put(host, info);
     }
 
+    /**
+     * This method adds a summary of the duplication status at a given host.
+     * Hosts without issues are only counted, and the space counts of hosts
+     * with issues are not retained, so the report does not grow with the
+     * number of spaces checked.
+     *
+     * @param host host of account
+     * @param info duplication information
+     */
+    public void addDupSummary(String host, DuplicationInfo info) {
+        count(info);
+        if (info.hasIssues()) {
+            dupInfos.put(host, info.withoutSpaceCounts());
+        }
+    }
+
+    private void count(DuplicationInfo info) {
+        hostsChecked.incrementAndGet();
+        spacesCounted.addAndGet(info.getCountedSpaces());
+    }
+
+    /**
+     * @return the number of hosts added to this report
+     */
+    public int getHostsChecked() {
+        return hostsChecked.get();
+    }
+
+    /**
+     * @return the number of space counts taken across all hosts added to
+     * this report
+     */
+    public long getSpacesCounted() {
+        return spacesCounted.get();
+    }
+
     /**
      * This method gets all duplication infos for all accounts.
      *
@@ -78,12 +122,17 @@ public class DuplicationReport {
 
     @Override
     public String toString() {
+        List<DuplicationInfo> dupIssues = getDupIssues();
         StringBuilder sb = new StringBuilder();
+        sb.append("Hosts checked: ").append(getHostsChecked()).append("\n");
+        sb.append("Hosts with issues: ").append(dupIssues.size()).append("\n");
+        sb.append("Space counts taken: ").append(getSpacesCounted()).append("\n");
+        sb.append("\n");
         sb.append("-------------------\n");
         sb.append("Duplication Issues:\n");
         sb.append("-------------------\n");
 
-        for (DuplicationInfo dupInfo : getDupIssues()) {
+        for (DuplicationInfo dupInfo : dupIssues) {
             sb.append(dupInfo.toString()).append("\n");
         }
         return sb.toString();
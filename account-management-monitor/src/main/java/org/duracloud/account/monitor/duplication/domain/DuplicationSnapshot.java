@@ -0,0 +1,149 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class holds the space counts recorded by a duplication monitor run,
+ * organized by host, then space ID, then store ID. The snapshot of one run
+ * is retained so that the next run is able to report how counts have changed
+ * and how long a mismatch has persisted. Entries may be safely added by
+ * concurrent writers.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class DuplicationSnapshot {
+
+    private Map<String, Map<String, Map<String, Entry>>> hosts;
+
+    public DuplicationSnapshot() {
+        this.hosts = new ConcurrentHashMap<>();
+    }
+
+    private DuplicationSnapshot(Map<String, Map<String, Map<String, Entry>>> hosts) {
+        this.hosts = hosts;
+    }
+
+    public Set<String> getHosts() {
+        return hosts.keySet();
+    }
+
+    /**
+     * @param host of account
+     * @return the entries for all spaces of the host, keyed by space ID and
+     * then store ID
+     */
+    public Map<String, Map<String, Entry>> getHostEntries(String host) {
+        Map<String, Map<String, Entry>> spaces = hosts.get(host);
+        return null == spaces ? Collections.emptyMap() : spaces;
+    }
+
+    /**
+     * @param host    of account
+     * @param spaceId of space
+     * @return the entries for the space in each store, keyed by store ID
+     */
+    public Map<String, Entry> getSpaceEntries(String host, String spaceId) {
+        Map<String, Entry> stores = getHostEntries(host).get(spaceId);
+        return null == stores ? Collections.emptyMap() : stores;
+    }
+
+    public Entry getEntry(String host, String spaceId, String storeId) {
+        return getSpaceEntries(host, spaceId).get(storeId);
+    }
+
+    public void putEntry(String host, String spaceId, String storeId, Entry entry) {
+        hosts.computeIfAbsent(host, h -> new ConcurrentHashMap<>())
+             .computeIfAbsent(spaceId, s -> new ConcurrentHashMap<>())
+             .put(storeId, entry);
+    }
+
+    /**
+     * Copies all entries recorded for a host in another snapshot into this one
+     *
+     * @param host  of account
+     * @param other snapshot from which to copy entries
+     */
+    public void copyHost(String host, DuplicationSnapshot other) {
+        for (Map.Entry<String, Map<String, Entry>> space :
+            other.getHostEntries(host).entrySet()) {
+            for (Map.Entry<String, Entry> store : space.getValue().entrySet()) {
+                putEntry(host, space.getKey(), store.getKey(), store.getValue());
+            }
+        }
+    }
+
+    /**
+     * Copies the entries of this snapshot as they are at the time of the
+     * call. Entries added to this snapshot later do not appear in the copy,
+     * and the copy cannot be modified.
+     *
+     * @return unmodifiable copy of this snapshot
+     */
+    public DuplicationSnapshot immutableCopy() {
+        Map<String, Map<String, Map<String, Entry>>> hostsCopy = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Map<String, Entry>>> host : hosts.entrySet()) {
+            Map<String, Map<String, Entry>> spacesCopy = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<String, Entry>> space : host.getValue().entrySet()) {
+                spacesCopy.put(space.getKey(),
+                               Collections.unmodifiableMap(new LinkedHashMap<>(space.getValue())));
+            }
+            hostsCopy.put(host.getKey(), Collections.unmodifiableMap(spacesCopy));
+        }
+        return new DuplicationSnapshot(Collections.unmodifiableMap(hostsCopy));
+    }
+
+    /**
+     * The recorded state of a single space in a single store
+     */
+    public static class Entry {
+        private final long count;
+        private final long checkedAt;
+        private final long mismatchSince;
+
+        /**
+         * @param count         content item count, -1 if the count failed
+         * @param checkedAt     time (in millis) at which the count was taken
+         * @param mismatchSince time (in millis) at which the count was first
+         *                      found not to match between stores, 0 if the
+         *                      counts matched
+         */
+        public Entry(long count, long checkedAt, long mismatchSince) {
+            this.count = count;
+            this.checkedAt = checkedAt;
+            this.mismatchSince = mismatchSince;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getCheckedAt() {
+            return checkedAt;
+        }
+
+        public long getMismatchSince() {
+            return mismatchSince;
+        }
+
+        public boolean isMismatched() {
+            return mismatchSince > 0;
+        }
+
+        public Entry withMismatchSince(long since) {
+            return new Entry(count, checkedAt, since);
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class holds the spaces of a host which are to be checked for
+ * duplication, compiled from the host's space rule so that each space can
+ * be looked up in constant time. Instances are immutable.
+ *
+ * A rule is either "ALL", which selects all user spaces, or a comma-separated
+ * list of entries. An entry of "spaceId" selects the space in all stores. An
+ * entry of "spaceId:storeId" selects the space in the primary store and the
+ * given secondary store only.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public final class SpaceSelection {
+
+    public static final String ALL_RULE = "ALL";
+
+    /**
+     * Selects all user spaces in all stores
+     */
+    public static final SpaceSelection ALL =
+        new SpaceSelection(ALL_RULE, Collections.emptyList(),
+                           Collections.emptySet(), Collections.emptyMap());
+
+    private final String rule;
+    private final List<String> spaceIds;
+    private final Set<String> allStoreSpaceIds;
+    private final Map<String, Set<String>> storeIdsBySpaceId;
+
+    private SpaceSelection(String rule,
+                           List<String> spaceIds,
+                           Set<String> allStoreSpaceIds,
+                           Map<String, Set<String>> storeIdsBySpaceId) {
+        this.rule = rule;
+        this.spaceIds = spaceIds;
+        this.allStoreSpaceIds = allStoreSpaceIds;
+        this.storeIdsBySpaceId = storeIdsBySpaceId;
+    }
+
+    /**
+     * Compiles a space rule
+     *
+     * @param rule "ALL" or a comma-separated list of spaceId or
+     *             spaceId:storeId entries
+     * @return compiled selection
+     */
+    public static SpaceSelection compile(String rule) {
+        if (null == rule || ALL_RULE.equals(rule.trim())) {
+            return ALL;
+        }
+
+        Set<String> spaceIds = new LinkedHashSet<>();
+        Set<String> allStoreSpaceIds = new HashSet<>();
+        Map<String, Set<String>> storeIdsBySpaceId = new HashMap<>();
+        for (String entry : rule.split(",")) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+
+            int separator = entry.indexOf(':');
+            if (separator > -1) {
+                String spaceId = entry.substring(0, separator);
+                String storeId = entry.substring(separator + 1);
+                spaceIds.add(spaceId);
+                storeIdsBySpaceId.computeIfAbsent(spaceId, s -> new HashSet<>())
+                                 .add(storeId);
+            } else {
+                spaceIds.add(entry);
+                allStoreSpaceIds.add(entry);
+            }
+        }
+
+        Map<String, Set<String>> storeIds = new HashMap<>();
+        for (Map.Entry<String, Set<String>> space : storeIdsBySpaceId.entrySet()) {
+            storeIds.put(space.getKey(), Collections.unmodifiableSet(space.getValue()));
+        }
+        return new SpaceSelection(rule,
+                                  Collections.unmodifiableList(new ArrayList<>(spaceIds)),
+                                  Collections.unmodifiableSet(allStoreSpaceIds),
+                                  Collections.unmodifiableMap(storeIds));
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * @return the IDs of the spaces named by the rule, in rule order, or an
+     * empty list if all spaces are selected
+     */
+    public List<String> getSpaceIds() {
+        return spaceIds;
+    }
+
+    /**
+     * Determines if the counts of a space in a secondary store are to be
+     * compared with those of the primary store.
+     *
+     * @param spaceId of space
+     * @param storeId of secondary store
+     * @return true if the space is selected in the store
+     */
+    public boolean isSelected(String spaceId, String storeId) {
+        if (isAll() || allStoreSpaceIds.contains(spaceId)) {
+            return true;
+        }
+        Set<String> storeIds = storeIdsBySpaceId.get(spaceId);
+        return null != storeIds && storeIds.contains(storeId);
+    }
+
+    /**
+     * Determines if a space is to be counted in a store. Every space named
+     * by the rule is counted in the primary store.
+     *
+     * @param spaceId of space
+     * @param storeId of store
+     * @param primary true if the store is the primary store
+     * @return true if the space is to be counted in the store
+     */
+    public boolean isCounted(String spaceId, String storeId, boolean primary) {
+        if (primary && !isAll()) {
+            return allStoreSpaceIds.contains(spaceId) ||
+                   storeIdsBySpaceId.containsKey(spaceId);
+        }
+        return isSelected(spaceId, storeId);
+    }
+
+    @Override
+    public String toString() {
+        return rule;
+    }
+
+}
@@ -7,12 +7,14 @@
  */
 package org.duracloud.account.monitor.duplication.util;
 
+import java.io.File;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
-import org.duracloud.account.monitor.duplication.DuplicationMonitor;
+import org.duracloud.account.monitor.duplication.domain.DuplicationConfig;
+import org.duracloud.account.monitor.duplication.domain.SpaceSelection;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 
 /**
@@ -24,10 +26,37 @@ public class DuplicationPropReader {
     private static final String PREFIX = "duplication.";
     private static final String HOST = ".host";
     private static final String SPACES = ".spaces";
-    protected static final String ALL_SPACES = DuplicationMonitor.ALL_SPACES;
 
-    public Map<String, String> readDupProps(Properties props) {
-        Map<String, String> dupHosts = new HashMap<>();
+    private static final String CONFIG_PREFIX = "monitor.duplication.";
+    protected static final String HOST_THREADS = CONFIG_PREFIX + "host-threads";
+    protected static final String HOST_TIMEOUT = CONFIG_PREFIX + "host-timeout-minutes";
+    protected static final String DEADLINE = CONFIG_PREFIX + "deadline-minutes";
+    protected static final String SPACE_THREADS = CONFIG_PREFIX + "space-threads";
+    protected static final String SNAPSHOT_FILE = CONFIG_PREFIX + "snapshot-file";
+    protected static final String SNAPSHOT_MAX_AGE = CONFIG_PREFIX + "snapshot-max-age-minutes";
+    protected static final String COUNT_SOURCE = CONFIG_PREFIX + "count-source";
+    protected static final String STATS_WINDOW = CONFIG_PREFIX + "stats-window-minutes";
+    protected static final String REQUESTS_PER_SECOND = CONFIG_PREFIX + "requests-per-second";
+    protected static final String MAX_RETRIES = CONFIG_PREFIX + "max-retries";
+    protected static final String RETRY_DELAY = CONFIG_PREFIX + "retry-delay-millis";
+    protected static final String MAX_RETRY_DELAY = CONFIG_PREFIX + "max-retry-delay-millis";
+    protected static final String CIRCUIT_FAILURES = CONFIG_PREFIX + "circuit-failures";
+    protected static final String CIRCUIT_COOLDOWN = CONFIG_PREFIX + "circuit-cooldown-seconds";
+    protected static final String REPORT_FILE = CONFIG_PREFIX + "report-file";
+    protected static final String REPORT_FORMAT = CONFIG_PREFIX + "report-format";
+    protected static final String SNAPSHOT_NONE = "none";
+    protected static final String DEFAULT_SNAPSHOT_FILE = ".monitor-duplication-snapshot";
+
+    /**
+     * Reads the hosts to be checked for duplication. The space rule of each
+     * host is compiled once here, so that the spaces to be counted and
+     * compared can be looked up directly during each check.
+     *
+     * @param props monitor properties
+     * @return space selection of each host, keyed by host
+     */
+    public Map<String, SpaceSelection> readDupProps(Properties props) {
+        Map<String, SpaceSelection> dupHosts = new HashMap<>();
         Enumeration propNames = props.propertyNames();
         while (propNames.hasMoreElements()) {
             String propName = (String) propNames.nextElement();
@@ -36,16 +65,97 @@ public class DuplicationPropReader {
                 if (propName.endsWith(HOST)) {
                     String spacesProp = propName.replace(HOST, SPACES);
                     String spacesVal = getProperty(props, spacesProp);
-                    dupHosts.put(propValue, spacesVal);
+                    dupHosts.put(propValue, SpaceSelection.compile(spacesVal));
                 } else if (propName.endsWith(SPACES)) {
                 } else {
-                    dupHosts.put(propValue, ALL_SPACES);
+                    dupHosts.put(propValue, SpaceSelection.ALL);
                 }
             }
         }
         return dupHosts;
     }
 
+    /**
+     * Reads the settings which control how the duplication checks are
+     * executed. Settings which are not included in the properties retain
+     * their default values.
+     *
+     * @param props monitor properties
+     * @return duplication monitor configuration
+     */
+    public DuplicationConfig readDupConfig(Properties props) {
+        DuplicationConfig config = new DuplicationConfig();
+        config.setHostThreads(
+            (int) getLong(props, HOST_THREADS, config.getHostThreads(), 1));
+        config.setHostTimeoutMinutes(
+            getLong(props, HOST_TIMEOUT, config.getHostTimeoutMinutes(), 1));
+        config.setDeadlineMinutes(
+            getLong(props, DEADLINE, config.getDeadlineMinutes(), 1));
+        config.setSpaceThreads(
+            (int) getLong(props, SPACE_THREADS, config.getSpaceThreads(), 1));
+
+        // Space counts are retained alongside the monitor credentials by default
+        String snapshotFile = props.getProperty(SNAPSHOT_FILE);
+        if (null == snapshotFile) {
+            config.setSnapshotFile(new File(System.getProperty("user.home"),
+                                            DEFAULT_SNAPSHOT_FILE));
+        } else if (!snapshotFile.trim().equalsIgnoreCase(SNAPSHOT_NONE)) {
+            config.setSnapshotFile(new File(snapshotFile.trim()));
+        }
+        config.setSnapshotMaxAgeMinutes(
+            getLong(props, SNAPSHOT_MAX_AGE, config.getSnapshotMaxAgeMinutes(), 0));
+
+        String countSource = props.getProperty(COUNT_SOURCE);
+        if (null != countSource) {
+            config.setCountSource(DuplicationConfig.CountSource.fromString(countSource));
+        }
+        config.setStatsWindowMinutes(
+            getLong(props, STATS_WINDOW, config.getStatsWindowMinutes(), 1));
+
+        config.setRequestsPerSecond(
+            (int) getLong(props, REQUESTS_PER_SECOND, config.getRequestsPerSecond(), 0));
+        config.setMaxRetries(
+            (int) getLong(props, MAX_RETRIES, config.getMaxRetries(), 0));
+        config.setRetryDelayMillis(
+            getLong(props, RETRY_DELAY, config.getRetryDelayMillis(), 1));
+        config.setMaxRetryDelayMillis(
+            getLong(props, MAX_RETRY_DELAY, config.getMaxRetryDelayMillis(), 1));
+        config.setCircuitFailures(
+            (int) getLong(props, CIRCUIT_FAILURES, config.getCircuitFailures(), 1));
+        config.setCircuitCooldownSeconds(
+            getLong(props, CIRCUIT_COOLDOWN, config.getCircuitCooldownSeconds(), 1));
+
+        String reportFile = props.getProperty(REPORT_FILE);
+        if (null != reportFile && !reportFile.trim().isEmpty()) {
+            config.setReportFile(reportFile.trim());
+        }
+        String reportFormat = props.getProperty(REPORT_FORMAT);
+        if (null != reportFormat) {
+            config.setReportFormat(DuplicationRecordWriter.Format.fromString(reportFormat));
+        }
+        return config;
+    }
+
+    private long getLong(Properties props, String key, long defaultValue, long min) {
+        String property = props.getProperty(key);
+        if (null == property) {
+            return defaultValue;
+        }
+
+        long value;
+        try {
+            value = Long.parseLong(property.trim());
+        } catch (NumberFormatException e) {
+            throw new DuraCloudRuntimeException("Property " + key +
+                                                " is not a number: " + property);
+        }
+        if (value < min) {
+            throw new DuraCloudRuntimeException("Property " + key + " must not be " +
+                                                "less than " + min + ": " + property);
+        }
+        return value;
+    }
+
     private String getProperty(Properties props, String key) {
         String property = props.getProperty(key);
         if (null == property) {
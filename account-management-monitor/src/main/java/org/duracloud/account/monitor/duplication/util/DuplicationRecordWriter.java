@@ -0,0 +1,197 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.duracloud.account.monitor.duplication.domain.DuplicationInfo;
+import org.duracloud.common.error.DuraCloudRuntimeException;
+
+/**
+ * Writes the results of duplication host checks as a stream of records, one
+ * record per line. Each host produces a record for the count of every space
+ * in every store, a record for every issue, and a final record giving the
+ * status of the host.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class DuplicationRecordWriter implements Closeable {
+
+    /**
+     * The destination which directs records to standard out
+     */
+    public static final String STDOUT = "-";
+
+    protected static final String TYPE_COUNT = "count";
+    protected static final String TYPE_ISSUE = "issue";
+    protected static final String TYPE_HOST = "host";
+
+    private static final String[] CSV_HEADER =
+        {"type", "host", "store_id", "space_id", "count", "status", "issue"};
+
+    /**
+     * The supported record formats
+     */
+    public enum Format {
+        JSONL, CSV;
+
+        public static Format fromString(String format) {
+            try {
+                return valueOf(format.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new DuraCloudRuntimeException("Unknown report format: " + format);
+            }
+        }
+    }
+
+    private Writer writer;
+    private Format format;
+    private JsonGenerator jsonGenerator;
+
+    public DuplicationRecordWriter(Writer writer, Format format) throws IOException {
+        this.writer = writer;
+        this.format = format;
+        if (Format.JSONL.equals(format)) {
+            jsonGenerator = new JsonFactory()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .createGenerator(writer);
+            jsonGenerator.setRootValueSeparator(null);
+        } else {
+            writeCsv(CSV_HEADER);
+        }
+    }
+
+    /**
+     * Opens a record writer for a file, or for standard out
+     *
+     * @param destination path of the file, or {@link #STDOUT}
+     * @param format      of records
+     * @return record writer
+     * @throws IOException on error opening the file
+     */
+    public static DuplicationRecordWriter open(String destination, Format format)
+        throws IOException {
+        Writer writer;
+        if (STDOUT.equals(destination)) {
+            // Standard out must remain open after the records are written
+            writer = new FilterWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        } else {
+            writer = Files.newBufferedWriter(Paths.get(destination), StandardCharsets.UTF_8);
+        }
+        return new DuplicationRecordWriter(new BufferedWriter(writer), format);
+    }
+
+    /**
+     * Writes all records for the results of a host check
+     *
+     * @param info results of the host check
+     * @throws IOException on error writing
+     */
+    public synchronized void write(DuplicationInfo info) throws IOException {
+        String host = info.getHost();
+        for (String storeId : new TreeSet<>(info.getStoreIds())) {
+            Map<String, Long> counts = new TreeMap<>(info.getSpaceCounts(storeId));
+            for (Map.Entry<String, Long> count : counts.entrySet()) {
+                writeRecord(TYPE_COUNT, host, storeId, count.getKey(),
+                            count.getValue(), null, null);
+            }
+        }
+        for (String issue : info.getIssues()) {
+            writeRecord(TYPE_ISSUE, host, null, null, null, null, issue);
+        }
+        String status = info.hasIssues() ? "ISSUES" : "OK";
+        writeRecord(TYPE_HOST, host, null, null, null, status, null);
+        writer.flush();
+    }
+
+    private void writeRecord(String type,
+                             String host,
+                             String storeId,
+                             String spaceId,
+                             Long count,
+                             String status,
+                             String issue) throws IOException {
+        if (null != jsonGenerator) {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeStringField("type", type);
+            jsonGenerator.writeStringField("host", host);
+            writeJsonField("store_id", storeId);
+            writeJsonField("space_id", spaceId);
+            if (null != count) {
+                jsonGenerator.writeNumberField("count", count);
+            }
+            writeJsonField("status", status);
+            writeJsonField("issue", issue);
+            jsonGenerator.writeEndObject();
+            jsonGenerator.flush();
+            writer.write('\n');
+        } else {
+            writeCsv(new String[] {type, host, storeId, spaceId,
+                                   null == count ? null : String.valueOf(count),
+                                   status, issue});
+        }
+    }
+
+    private void writeJsonField(String name, String value) throws IOException {
+        if (null != value) {
+            jsonGenerator.writeStringField(name, value);
+        }
+    }
+
+    private void writeCsv(String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /*
+     * Quotes a CSV value if it contains a delimiter, quote or line break
+     */
+    protected static String escapeCsv(String value) {
+        if (null == value) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 &&
+            value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (null != jsonGenerator) {
+            jsonGenerator.close();
+        }
+        writer.close();
+    }
+
+}
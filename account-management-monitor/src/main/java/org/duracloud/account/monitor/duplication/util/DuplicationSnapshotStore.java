@@ -0,0 +1,135 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import org.duracloud.account.monitor.duplication.domain.DuplicationSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads and writes duplication snapshots using a compact binary format.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class DuplicationSnapshotStore {
+
+    private static final int MAGIC = 0x44555053; // DUPS
+    private static final int VERSION = 1;
+
+    private Logger log = LoggerFactory.getLogger(DuplicationSnapshotStore.class);
+
+    private File snapshotFile;
+
+    public DuplicationSnapshotStore(File snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Reads the stored snapshot. An empty snapshot is returned if no snapshot
+     * has been stored or if the stored snapshot cannot be read.
+     *
+     * @return stored snapshot
+     */
+    public DuplicationSnapshot read() {
+        DuplicationSnapshot snapshot = new DuplicationSnapshot();
+        if (!snapshotFile.exists()) {
+            return snapshot;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(snapshotFile.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("unrecognized snapshot format");
+            }
+
+            int hostCount = in.readInt();
+            for (int h = 0; h < hostCount; h++) {
+                String host = in.readUTF();
+                int spaceCount = in.readInt();
+                for (int s = 0; s < spaceCount; s++) {
+                    String spaceId = in.readUTF();
+                    int storeCount = in.readInt();
+                    for (int t = 0; t < storeCount; t++) {
+                        String storeId = in.readUTF();
+                        DuplicationSnapshot.Entry entry =
+                            new DuplicationSnapshot.Entry(in.readLong(),
+                                                          in.readLong(),
+                                                          in.readLong());
+                        snapshot.putEntry(host, spaceId, storeId, entry);
+                    }
+                }
+            }
+            return snapshot;
+        } catch (IOException e) {
+            log.warn("Unable to read duplication snapshot {}, all spaces will " +
+                     "be counted: {}", snapshotFile.getAbsolutePath(), e.getMessage());
+            return new DuplicationSnapshot();
+        }
+    }
+
+    /**
+     * Stores the snapshot, replacing any previously stored snapshot. The
+     * snapshot is written to a temporary file which is then moved into place
+     * so that a failed write does not leave a partial snapshot behind. The
+     * entries are copied before they are written, so entries added to the
+     * snapshot while it is written are not stored.
+     *
+     * @param snapshot to store
+     * @throws IOException on error writing the snapshot
+     */
+    public void write(DuplicationSnapshot snapshot) throws IOException {
+        snapshot = snapshot.immutableCopy();
+        Path target = snapshotFile.getAbsoluteFile().toPath();
+        Path temp = Files.createTempFile(target.getParent(),
+                                         snapshotFile.getName(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(snapshot.getHosts().size());
+                for (String host : snapshot.getHosts()) {
+                    Map<String, Map<String, DuplicationSnapshot.Entry>> spaces =
+                        snapshot.getHostEntries(host);
+                    out.writeUTF(host);
+                    out.writeInt(spaces.size());
+                    for (Map.Entry<String, Map<String, DuplicationSnapshot.Entry>> space :
+                        spaces.entrySet()) {
+                        out.writeUTF(space.getKey());
+                        out.writeInt(space.getValue().size());
+                        for (Map.Entry<String, DuplicationSnapshot.Entry> store :
+                            space.getValue().entrySet()) {
+                            DuplicationSnapshot.Entry entry = store.getValue();
+                            out.writeUTF(store.getKey());
+                            out.writeLong(entry.getCount());
+                            out.writeLong(entry.getCheckedAt());
+                            out.writeLong(entry.getMismatchSince());
+                        }
+                    }
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+}
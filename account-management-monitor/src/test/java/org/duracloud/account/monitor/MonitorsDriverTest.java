@@ -0,0 +1,124 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.duracloud.account.email.EmailUtil;
+import org.duracloud.account.monitor.common.MonitorContext;
+import org.duracloud.account.monitor.common.MonitorProvider;
+import org.duracloud.account.monitor.duplication.DuplicationMonitorProvider;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class MonitorsDriverTest {
+
+    private static final AtomicInteger created = new AtomicInteger();
+    private static final AtomicInteger runs = new AtomicInteger();
+    private static MonitorContext lastContext;
+    private static boolean fail;
+
+    private EmailUtil emailUtil;
+
+    /**
+     * Registered in the test resources as a monitor provider
+     */
+    public static class TestMonitorProvider implements MonitorProvider {
+        @Override
+        public String getName() {
+            return "Test";
+        }
+
+        @Override
+        public Runnable createMonitor(MonitorContext context) {
+            created.incrementAndGet();
+            lastContext = context;
+            return () -> {
+                runs.incrementAndGet();
+                if (fail) {
+                    throw new RuntimeException("monitor failed");
+                }
+            };
+        }
+    }
+
+    @Before
+    public void setup() {
+        emailUtil = EasyMock.createMock(EmailUtil.class);
+        created.set(0);
+        runs.set(0);
+        lastContext = null;
+        fail = false;
+    }
+
+    @After
+    public void teardown() {
+        EasyMock.verify(emailUtil);
+    }
+
+    private void replayMocks() {
+        EasyMock.replay(emailUtil);
+    }
+
+    @Test
+    public void testLoadProviders() {
+        replayMocks();
+
+        Map<String, MonitorProvider> providers = MonitorsDriver.loadProviders();
+        assertEquals(2, providers.size());
+        assertTrue(providers.get(DuplicationMonitorProvider.NAME)
+                       instanceof DuplicationMonitorProvider);
+        assertTrue(providers.get("test") instanceof TestMonitorProvider);
+    }
+
+    @Test
+    public void testMonitor() {
+        replayMocks();
+
+        MonitorsDriver driver = new MonitorsDriver(new Properties(), emailUtil);
+        driver.monitor("test");
+        driver.monitor("test");
+
+        // The monitor is created once and shares the driver's resources
+        assertEquals(1, created.get());
+        assertEquals(2, runs.get());
+        assertSame(driver, lastContext);
+        assertSame(driver.getStoreManagers(), lastContext.getStoreManagers());
+    }
+
+    @Test
+    public void testMonitorError() {
+        emailUtil.sendEmail(EasyMock.eq("Management Console Monitors Error"),
+                            EasyMock.contains("monitor failed"));
+        EasyMock.expectLastCall().once();
+        emailUtil.sendEmail(EasyMock.eq("Management Console Monitors Error"),
+                            EasyMock.contains("Unknown monitor: unknown"));
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+
+        fail = true;
+        MonitorsDriver driver = new MonitorsDriver(new Properties(), emailUtil);
+        driver.monitor("test");
+        driver.monitor("unknown");
+        assertEquals(1, runs.get());
+    }
+
+}
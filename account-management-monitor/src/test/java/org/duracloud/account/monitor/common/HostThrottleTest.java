@@ -0,0 +1,138 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.error.NotFoundException;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class HostThrottleTest {
+
+    private static final double DELTA = 0.0001;
+
+    private HostThrottle createThrottle(double rate, int maxRetries, int circuitFailures) {
+        return new HostThrottle("host", rate, maxRetries, 1, 5, circuitFailures, 60000);
+    }
+
+    @Test
+    public void testRetrySucceeds() throws Exception {
+        HostThrottle throttle = createThrottle(0, 3, 10);
+        AtomicInteger calls = new AtomicInteger();
+        Long result = throttle.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ContentStoreException("busy");
+            }
+            return 42L;
+        });
+        assertEquals(Long.valueOf(42), result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testRetriesExhausted() throws Exception {
+        HostThrottle throttle = createThrottle(0, 2, 10);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            throttle.execute(() -> {
+                calls.incrementAndGet();
+                throw new ContentStoreException("busy");
+            });
+            fail("Exception expected");
+        } catch (ContentStoreException e) {
+            assertEquals("busy", e.getMessage());
+        }
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testNotFoundNotRetried() throws Exception {
+        HostThrottle throttle = createThrottle(0, 3, 1);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            throttle.execute(() -> {
+                calls.incrementAndGet();
+                throw new NotFoundException("missing");
+            });
+            fail("Exception expected");
+        } catch (NotFoundException e) {
+            assertEquals(1, calls.get());
+        }
+        assertFalse(throttle.isCircuitOpen());
+    }
+
+    @Test
+    public void testCircuitOpens() throws Exception {
+        HostThrottle throttle = createThrottle(0, 5, 2);
+        AtomicInteger calls = new AtomicInteger();
+        HostThrottle.Call<Long> failing = () -> {
+            calls.incrementAndGet();
+            throw new ContentStoreException("down");
+        };
+        try {
+            throttle.execute(failing);
+            fail("Exception expected");
+        } catch (HostThrottle.CircuitOpenException e) {
+            // Retries stop once the circuit opens
+            assertEquals(2, calls.get());
+        }
+        assertTrue(throttle.isCircuitOpen());
+
+        try {
+            throttle.execute(() -> 1L);
+            fail("Exception expected");
+        } catch (HostThrottle.CircuitOpenException e) {
+            assertEquals(2, calls.get());
+        }
+    }
+
+    @Test
+    public void testAdaptiveRate() throws Exception {
+        HostThrottle throttle = createThrottle(1000, 1, 10);
+        assertEquals(1000, throttle.getRate(), DELTA);
+
+        AtomicInteger calls = new AtomicInteger();
+        throttle.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ContentStoreException("busy");
+            }
+            return 1L;
+        });
+        // Halved by the failure, then raised by the success
+        assertEquals(550, throttle.getRate(), DELTA);
+
+        for (int i = 0; i < 20; i++) {
+            throttle.execute(() -> 1L);
+        }
+        assertEquals(1000, throttle.getRate(), DELTA);
+    }
+
+    @Test
+    public void testRateLimit() throws Exception {
+        HostThrottle throttle = createThrottle(20, 0, 10);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 30; i++) {
+            throttle.execute(() -> 1L);
+        }
+        // The first 20 requests use the initial burst, the remaining 10
+        // requests are limited to 20 per second
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("Elapsed: " + elapsed, elapsed >= 400);
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class MonitorSchedulerTest {
+
+    private MonitorScheduler scheduler;
+
+    @Before
+    public void setup() {
+        scheduler = new MonitorScheduler(3);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRepeatedRuns() throws Exception {
+        CountDownLatch runs = new CountDownLatch(3);
+        scheduler.schedule("test", runs::countDown, 10, 5);
+        assertTrue(runs.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedRunIsRescheduled() throws Exception {
+        CountDownLatch runs = new CountDownLatch(2);
+        scheduler.schedule("test", () -> {
+            runs.countDown();
+            throw new RuntimeException("failed");
+        }, 10, 0);
+        assertTrue(runs.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNoOverlappingRuns() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        AtomicInteger started = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        scheduler.schedule("test", () -> {
+            started.incrementAndGet();
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                // Run for many intervals
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+        }, 5, 0);
+
+        Thread.sleep(200);
+        assertEquals(1, started.get());
+        release.countDown();
+
+        long end = System.currentTimeMillis() + 5000;
+        while (started.get() < 2 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertTrue(started.get() >= 2);
+        assertEquals(1, maxActive.get());
+    }
+
+}
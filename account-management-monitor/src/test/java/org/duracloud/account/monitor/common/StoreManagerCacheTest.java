@@ -0,0 +1,115 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+import org.duracloud.client.ContentStoreManager;
+import org.duracloud.common.model.Credential;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class StoreManagerCacheTest {
+
+    private ContentStoreManager storeManager1;
+    private ContentStoreManager storeManager2;
+    private Queue<ContentStoreManager> created;
+    private Credential credential;
+
+    @Before
+    public void setup() {
+        storeManager1 = EasyMock.createMock(ContentStoreManager.class);
+        storeManager2 = EasyMock.createMock(ContentStoreManager.class);
+        created = new LinkedList<>();
+        created.add(storeManager1);
+        created.add(storeManager2);
+        credential = new Credential("user", "pass");
+    }
+
+    @After
+    public void teardown() {
+        EasyMock.verify(storeManager1, storeManager2);
+    }
+
+    private void replayMocks() {
+        EasyMock.replay(storeManager1, storeManager2);
+    }
+
+    private StoreManagerCache createCache(long idleTimeoutMillis) {
+        return new StoreManagerCache(idleTimeoutMillis) {
+            @Override
+            protected ContentStoreManager createStoreManager(String host) {
+                return created.remove();
+            }
+        };
+    }
+
+    @Test
+    public void testReuse() {
+        storeManager1.login(credential);
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+
+        StoreManagerCache cache = createCache(60000);
+        ContentStoreManager first = cache.getStoreManager("host", credential);
+        ContentStoreManager second = cache.getStoreManager("host", credential);
+        assertSame(storeManager1, first);
+        assertSame(first, second);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testInvalidate() {
+        storeManager1.login(credential);
+        EasyMock.expectLastCall().once();
+        storeManager1.logout();
+        EasyMock.expectLastCall().once();
+        storeManager2.login(credential);
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+
+        StoreManagerCache cache = createCache(60000);
+        ContentStoreManager first = cache.getStoreManager("host", credential);
+        cache.invalidate("host");
+        assertEquals(0, cache.size());
+        ContentStoreManager second = cache.getStoreManager("host", credential);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testEvictIdle() throws Exception {
+        storeManager1.login(credential);
+        EasyMock.expectLastCall().once();
+        storeManager1.logout();
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+
+        StoreManagerCache cache = createCache(10);
+        cache.getStoreManager("host", credential);
+        assertEquals(0, cache.evictIdle());
+
+        Thread.sleep(50);
+        assertEquals(1, cache.evictIdle());
+        assertEquals(0, cache.size());
+    }
+
+}
@@ -12,17 +12,37 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.duracloud.account.monitor.duplication.domain.DuplicationConfig;
 import org.duracloud.account.monitor.duplication.domain.DuplicationInfo;
+import org.duracloud.account.monitor.duplication.domain.DuplicationReport;
+import org.duracloud.account.monitor.duplication.domain.DuplicationSnapshot;
+import org.duracloud.account.monitor.duplication.domain.SpaceSelection;
 import org.duracloud.client.ContentStore;
 import org.duracloud.client.ContentStoreImpl;
 import org.duracloud.client.ContentStoreManager;
 import org.duracloud.client.SpaceStatsDTOList;
+import org.duracloud.common.model.Credential;
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.error.UnauthorizedException;
 import org.duracloud.reportdata.storage.SpaceStatsDTO;
 import org.easymock.EasyMock;
 import org.junit.After;
@@ -37,13 +57,14 @@ public class DuplicationMonitorTest {
 
     private ContentStoreManager storeManager;
     private ContentStore store;
-    private Map<String, String> dupHosts;
+    private Map<String, SpaceSelection> dupHosts;
     private DuplicationMonitor dupMonitor;
     private SpaceStatsDTOList spaceStatsList;
     private SpaceStatsDTO spaceStats;
+    private File tempDir;
 
     @Before
-    public void setup() {
+    public void setup() throws Exception {
         storeManager = EasyMock.createMock(ContentStoreManager.class);
         store = EasyMock.createMock(ContentStore.class);
         spaceStatsList = EasyMock.createMock(SpaceStatsDTOList.class);
@@ -51,6 +72,7 @@ public class DuplicationMonitorTest {
 
         dupHosts = new HashMap<>();
         dupMonitor = new DuplicationMonitor(dupHosts);
+        tempDir = Files.createTempDirectory("dup-monitor-test").toFile();
     }
 
     private void replayMocks() {
@@ -59,6 +81,7 @@ public class DuplicationMonitorTest {
 
     @After
     public void teardown() {
+        FileUtils.deleteQuietly(tempDir);
         EasyMock.verify(storeManager, store, spaceStats, spaceStatsList);
     }
 
@@ -86,7 +109,7 @@ public class DuplicationMonitorTest {
     @Test
     public void testGetSpacesAll() throws Exception {
         String host = "host";
-        dupHosts.put(host, DuplicationMonitor.ALL_SPACES);
+        dupHosts.put(host, SpaceSelection.ALL);
         List<String> allSpaces =
             Arrays.asList("space-1", "space-2", "x-duracloud-admin");
         EasyMock.expect(store.getSpaces()).andReturn(allSpaces);
@@ -104,7 +127,7 @@ public class DuplicationMonitorTest {
     @Test
     public void testGetSpacesLimited() throws Exception {
         String host = "host";
-        dupHosts.put(host, "space-A,space-B");
+        dupHosts.put(host, SpaceSelection.compile("space-A,space-B"));
 
         replayMocks();
 
@@ -150,7 +173,8 @@ public class DuplicationMonitorTest {
         String space1store = space1 + ":" + storeId;
         String space2store = "space-2:" + storeId + "-alt";
         DuplicationInfo dupInfo = new DuplicationInfo(host);
-        List<String> spaces = Arrays.asList(space1store, space2store);
+        dupHosts.put(host, SpaceSelection.compile(space1store + "," + space2store));
+        List<String> spaces = dupHosts.get(host).getSpaceIds();
 
         EasyMock.expect(store.getStorageProviderType())
                 .andReturn(storeType);
@@ -166,6 +190,78 @@ public class DuplicationMonitorTest {
         assertEquals(new Long(1), spaceCounts.get(space1));
     }
 
+    @Test
+    public void testCountSpacesFromProperties() throws Exception {
+        String host = "host";
+        String space1 = "space-1";
+        String space2 = "space-2";
+        String storeId = "store-id";
+        DuplicationInfo dupInfo = new DuplicationInfo(host);
+        // A space listed twice is counted once
+        List<String> spaces = Arrays.asList(space1, space2, space1);
+
+        EasyMock.expect(store.getStorageProviderType())
+                .andReturn("store-type");
+        EasyMock.expect(store.getStoreId())
+                .andReturn(storeId);
+
+        EasyMock.expect(store.getSpaceProperties(space1))
+                .andReturn(Collections.singletonMap(ContentStore.SPACE_COUNT, "10"));
+        // An estimated count falls back to the space stats
+        EasyMock.expect(store.getSpaceProperties(space2))
+                .andReturn(Collections.singletonMap(ContentStore.SPACE_COUNT, "1000+"));
+        setupSpaceStats(space2, 1234);
+
+        replayMocks();
+
+        DuplicationConfig config = new DuplicationConfig();
+        config.setCountSource(DuplicationConfig.CountSource.PROPERTIES);
+        new DuplicationMonitor(dupHosts, config)
+            .countSpaces(host, dupInfo, store, spaces, true);
+
+        Map<String, Long> spaceCounts = dupInfo.getSpaceCounts(storeId);
+        assertEquals(Long.valueOf(10), spaceCounts.get(space1));
+        assertEquals(Long.valueOf(1234), spaceCounts.get(space2));
+    }
+
+    @Test
+    public void testCountSpacesStatsWindow() throws Exception {
+        String host = "host";
+        String space1 = "space-1";
+        String storeId = "store-id";
+        DuplicationInfo dupInfo = new DuplicationInfo(host);
+
+        EasyMock.expect(store.getStorageProviderType())
+                .andReturn("store-type");
+        EasyMock.expect(store.getStoreId())
+                .andReturn(storeId);
+
+        // No stats fall within the narrow window, so a full day is requested
+        List<Long> windows = new ArrayList<>();
+        EasyMock.expect(store.getSpaceStats(EasyMock.eq(space1),
+                                            EasyMock.isA(Date.class),
+                                            EasyMock.isA(Date.class)))
+                .andAnswer(() -> {
+                    Object[] args = EasyMock.getCurrentArguments();
+                    windows.add(((Date) args[2]).getTime() - ((Date) args[1]).getTime());
+                    return windows.size() == 1 ? new SpaceStatsDTOList() : spaceStatsList;
+                }).times(2);
+        EasyMock.expect(spaceStatsList.size()).andReturn(1);
+        EasyMock.expect(spaceStatsList.getLast()).andReturn(spaceStats);
+        EasyMock.expect(spaceStats.getObjectCount()).andReturn(5L);
+
+        replayMocks();
+
+        DuplicationConfig config = new DuplicationConfig();
+        config.setStatsWindowMinutes(60);
+        new DuplicationMonitor(dupHosts, config)
+            .countSpaces(host, dupInfo, store, Arrays.asList(space1), true);
+
+        assertEquals(Long.valueOf(5), dupInfo.getSpaceCounts(storeId).get(space1));
+        assertEquals(Arrays.asList(TimeUnit.MINUTES.toMillis(60), TimeUnit.DAYS.toMillis(1)),
+                     windows);
+    }
+
     private void setupSpaceStats(String spaceId, long count) throws Exception {
         EasyMock.expect(store.getSpaceStats(EasyMock.eq(spaceId),
                                             EasyMock.isA(Date.class), EasyMock.isA(Date.class)))
@@ -176,6 +272,58 @@ public class DuplicationMonitorTest {
         EasyMock.expect(spaceStats.getObjectCount()).andReturn(count);
     }
 
+    @Test
+    public void testCountSpacesFanOut() throws Exception {
+        String host = "host";
+        String storeId = "store-id";
+        String storeType = "store-type";
+        String failedSpace = "space-failed";
+        DuplicationInfo dupInfo = new DuplicationInfo(host);
+        List<String> spaces = new ArrayList<>();
+
+        EasyMock.expect(store.getStorageProviderType())
+                .andReturn(storeType);
+        EasyMock.expect(store.getStoreId())
+                .andReturn(storeId);
+
+        for (int i = 0; i < 20; i++) {
+            String spaceId = "space-" + i;
+            spaces.add(spaceId);
+            SpaceStatsDTO stats = new SpaceStatsDTO();
+            stats.setObjectCount(i);
+            SpaceStatsDTOList statsList = new SpaceStatsDTOList();
+            statsList.add(stats);
+            EasyMock.expect(store.getSpaceStats(EasyMock.eq(spaceId),
+                                                EasyMock.isA(Date.class),
+                                                EasyMock.isA(Date.class)))
+                    .andReturn(statsList);
+        }
+        spaces.add(failedSpace);
+        EasyMock.expect(store.getSpaceStats(EasyMock.eq(failedSpace),
+                                            EasyMock.isA(Date.class),
+                                            EasyMock.isA(Date.class)))
+                .andThrow(new ContentStoreException("busy"))
+                .times(DuplicationConfig.DEFAULT_MAX_RETRIES + 1);
+
+        replayMocks();
+
+        DuplicationConfig config = new DuplicationConfig();
+        config.setSpaceThreads(4);
+        config.setRequestsPerSecond(0);
+        config.setRetryDelayMillis(1);
+        config.setMaxRetryDelayMillis(5);
+        new DuplicationMonitor(dupHosts, config)
+            .countSpaces(host, dupInfo, store, spaces, true);
+
+        Map<String, Long> spaceCounts = dupInfo.getSpaceCounts(storeId);
+        assertEquals(21, spaceCounts.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Long.valueOf(i), spaceCounts.get("space-" + i));
+        }
+        assertEquals(Long.valueOf(-1), spaceCounts.get(failedSpace));
+        assertEquals(1, dupInfo.getIssues().size());
+    }
+
     @Test
     public void testCompareSpaces() throws Exception {
         DuplicationInfo dupInfo = new DuplicationInfo("host");
@@ -196,4 +344,276 @@ public class DuplicationMonitorTest {
         replayMocks();
     }
 
+    @Test
+    public void testMonitorDuplicationParallel() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            dupHosts.put("host-" + i, SpaceSelection.ALL);
+        }
+        DuplicationConfig config = new DuplicationConfig();
+        config.setHostThreads(4);
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch started = new CountDownLatch(2);
+        DuplicationMonitor monitor = new TestDuplicationMonitor(dupHosts, config) {
+            @Override
+            protected DuplicationInfo checkHost(String host, Credential credential, Run run) {
+                threads.add(Thread.currentThread().getName());
+                started.countDown();
+                try {
+                    // Ensure at least two checks overlap
+                    started.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                DuplicationInfo info = new DuplicationInfo(host);
+                if (host.equals("host-3")) {
+                    info.addIssue("issue");
+                }
+                return info;
+            }
+        };
+
+        replayMocks();
+
+        DuplicationReport report = monitor.monitorDuplication();
+        assertEquals(10, report.getDupInfos().size());
+        assertEquals(1, report.getDupIssues().size());
+        assertEquals("host-3", report.getDupIssues().get(0).getHost());
+        assertTrue(threads.size() > 1);
+    }
+
+    @Test
+    public void testMonitorDuplicationStreamed() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            dupHosts.put("host-" + i, SpaceSelection.ALL);
+        }
+        File reportFile = new File(tempDir, "report.jsonl");
+        DuplicationConfig config = new DuplicationConfig();
+        config.setReportFile(reportFile.getAbsolutePath());
+
+        DuplicationMonitor monitor = new TestDuplicationMonitor(dupHosts, config) {
+            @Override
+            protected DuplicationInfo checkHost(String host, Credential credential, Run run) {
+                DuplicationInfo info = new DuplicationInfo(host);
+                info.addSpaceCount("primary", "space-1", 1);
+                info.addSpaceCount("secondary", "space-1", host.equals("host-2") ? 0 : 1);
+                if (host.equals("host-2")) {
+                    info.addIssue("issue");
+                }
+                return info;
+            }
+        };
+
+        replayMocks();
+
+        DuplicationReport report = monitor.monitorDuplication();
+        assertEquals(5, report.getHostsChecked());
+        assertEquals(10, report.getSpacesCounted());
+        assertEquals(1, report.getDupInfos().size());
+        assertEquals(1, report.getDupIssues().size());
+
+        // 2 counts and a status for each host, plus one issue
+        List<String> records = Files.readAllLines(reportFile.toPath());
+        assertEquals(16, records.size());
+    }
+
+    @Test
+    public void testMonitorDuplicationFailure() throws Exception {
+        dupHosts.put("host-1", SpaceSelection.ALL);
+        DuplicationMonitor monitor = new TestDuplicationMonitor(dupHosts, new DuplicationConfig()) {
+            @Override
+            protected DuplicationInfo checkHost(String host, Credential credential, Run run) {
+                throw new IllegalStateException("failed");
+            }
+        };
+
+        replayMocks();
+
+        DuplicationReport report = monitor.monitorDuplication();
+        DuplicationInfo info = report.getDupInfos().get("host-1");
+        assertNotNull(info);
+        assertEquals(1, info.getIssues().size());
+        assertTrue(info.getIssues().get(0).contains("failed"));
+    }
+
+    @Test
+    public void testMonitorDuplicationSnapshot() throws Exception {
+        String host = "host";
+        String spaceId = "space-1";
+        dupHosts.put(host, SpaceSelection.ALL);
+        ContentStore secondary = EasyMock.createMock(ContentStore.class);
+        AtomicLong primaryCount = new AtomicLong(10);
+        AtomicLong secondaryCount = new AtomicLong(10);
+        AtomicInteger statsCalls = new AtomicInteger();
+
+        Map<String, ContentStore> stores = new HashMap<>();
+        stores.put("primary", store);
+        stores.put("secondary", secondary);
+        EasyMock.expect(storeManager.getPrimaryContentStore())
+                .andReturn(store).anyTimes();
+        EasyMock.expect(storeManager.getContentStores())
+                .andReturn(stores).anyTimes();
+        setupSnapshotStore(store, "primary", spaceId, primaryCount, statsCalls);
+        setupSnapshotStore(secondary, "secondary", spaceId, secondaryCount, statsCalls);
+
+        replayMocks();
+        EasyMock.replay(secondary);
+
+        DuplicationConfig config = new DuplicationConfig();
+        config.setSnapshotFile(new File(tempDir, "snapshot"));
+
+        // First run, counts match
+        DuplicationReport report = runSnapshotMonitor(config);
+        assertFalse(report.hasIssues());
+        assertTrue(config.getSnapshotFile().exists());
+
+        // Second run, new mismatch
+        secondaryCount.set(8);
+        report = runSnapshotMonitor(config);
+        String issue = report.getDupIssues().get(0).getIssues().get(0);
+        assertTrue(issue, issue.contains("count: 8 (-2 since"));
+        assertTrue(issue, issue.contains("first found in this run"));
+
+        // Third run, mismatch persists
+        report = runSnapshotMonitor(config);
+        issue = report.getDupIssues().get(0).getIssues().get(0);
+        assertTrue(issue, issue.contains("persisted for"));
+        assertEquals(6, statsCalls.get());
+
+        // Fourth run, previously mismatched counts are always requested
+        config.setSnapshotMaxAgeMinutes(60);
+        secondaryCount.set(10);
+        report = runSnapshotMonitor(config);
+        assertFalse(report.hasIssues());
+        assertEquals(8, statsCalls.get());
+
+        // Fifth run, recent matching counts are reused
+        report = runSnapshotMonitor(config);
+        assertFalse(report.hasIssues());
+        assertEquals(8, statsCalls.get());
+
+        EasyMock.verify(secondary);
+    }
+
+    @Test
+    public void testCheckHostLoginAgain() throws Exception {
+        String host = "host";
+        dupHosts.put(host, SpaceSelection.compile("space-1"));
+        ContentStoreManager staleManager = EasyMock.createMock(ContentStoreManager.class);
+        EasyMock.expect(staleManager.getPrimaryContentStore())
+                .andThrow(new UnauthorizedException("expired"));
+
+        EasyMock.expect(storeManager.getPrimaryContentStore()).andReturn(store);
+        EasyMock.expect(storeManager.getContentStores())
+                .andReturn(Collections.singletonMap("store-id", store));
+        EasyMock.expect(store.getStoreId()).andReturn("store-id").anyTimes();
+        EasyMock.expect(store.getStorageProviderType()).andReturn("store-type");
+        setupSpaceStats("space-1", 1);
+
+        replayMocks();
+        EasyMock.replay(staleManager);
+
+        Queue<ContentStoreManager> managers = new LinkedList<>();
+        managers.add(staleManager);
+        managers.add(storeManager);
+        DuplicationInfo info = new TestDuplicationMonitor(dupHosts, new DuplicationConfig()) {
+            @Override
+            protected ContentStoreManager getStoreManager(String host,
+                                                          Credential credential) {
+                return managers.remove();
+            }
+        }.checkHost(host, new Credential("user", "pass"),
+                     new DuplicationMonitor.Run(new DuplicationSnapshot()));
+
+        assertFalse(info.getIssues().toString(), info.hasIssues());
+        assertEquals(Long.valueOf(1), info.getSpaceCounts("store-id").get("space-1"));
+        EasyMock.verify(staleManager);
+    }
+
+    @Test
+    public void testCheckHostCircuitOpen() throws Exception {
+        String host = "host";
+        dupHosts.put(host, SpaceSelection.ALL);
+        EasyMock.expect(storeManager.getPrimaryContentStore()).andReturn(store);
+        EasyMock.expect(storeManager.getContentStores())
+                .andReturn(Collections.singletonMap("store-id", store));
+        EasyMock.expect(store.getStoreId()).andReturn("store-id").anyTimes();
+        EasyMock.expect(store.getStorageProviderType()).andReturn("store-type");
+        EasyMock.expect(store.getSpaces())
+                .andReturn(Arrays.asList("space-1", "space-2", "space-3"));
+
+        // The first count opens the circuit, so no other space is requested
+        EasyMock.expect(store.getSpaceStats(EasyMock.eq("space-1"),
+                                            EasyMock.isA(Date.class),
+                                            EasyMock.isA(Date.class)))
+                .andThrow(new ContentStoreException("down"));
+
+        replayMocks();
+
+        DuplicationConfig config = new DuplicationConfig();
+        config.setMaxRetries(0);
+        config.setCircuitFailures(1);
+        DuplicationInfo info = new TestDuplicationMonitor(dupHosts, config) {
+            @Override
+            protected ContentStoreManager getStoreManager(String host,
+                                                          Credential credential) {
+                return storeManager;
+            }
+        }.checkHost(host, new Credential("user", "pass"),
+                    new DuplicationMonitor.Run(new DuplicationSnapshot()));
+
+        // One issue for the failed space, and one for the host
+        assertEquals(info.getIssues().toString(), 2, info.getIssues().size());
+        assertTrue(info.getIssues().get(1).contains("was stopped"));
+    }
+
+    private DuplicationReport runSnapshotMonitor(DuplicationConfig config) {
+        return new TestDuplicationMonitor(dupHosts, config) {
+            @Override
+            protected ContentStoreManager getStoreManager(String host,
+                                                          Credential credential) {
+                return storeManager;
+            }
+        }.monitorDuplication();
+    }
+
+    private void setupSnapshotStore(ContentStore contentStore,
+                                    String storeId,
+                                    String spaceId,
+                                    AtomicLong count,
+                                    AtomicInteger statsCalls) throws Exception {
+        EasyMock.expect(contentStore.getStoreId())
+                .andReturn(storeId).anyTimes();
+        EasyMock.expect(contentStore.getStorageProviderType())
+                .andReturn(storeId + "-type").anyTimes();
+        EasyMock.expect(contentStore.getSpaces())
+                .andReturn(Arrays.asList(spaceId)).anyTimes();
+        EasyMock.expect(contentStore.getSpaceStats(EasyMock.eq(spaceId),
+                                                   EasyMock.isA(Date.class),
+                                                   EasyMock.isA(Date.class)))
+                .andAnswer(() -> {
+                    statsCalls.incrementAndGet();
+                    SpaceStatsDTO stats = new SpaceStatsDTO();
+                    stats.setObjectCount(count.get());
+                    SpaceStatsDTOList statsList = new SpaceStatsDTOList();
+                    statsList.add(stats);
+                    return statsList;
+                }).anyTimes();
+    }
+
+    /*
+     * Avoids reading the credentials file from the user home directory
+     */
+    private static class TestDuplicationMonitor extends DuplicationMonitor {
+        public TestDuplicationMonitor(Map<String, SpaceSelection> dupHosts,
+                                      DuplicationConfig config) {
+            super(dupHosts, config);
+        }
+
+        @Override
+        protected Credential getRootCredential() {
+            return new Credential("user", "pass");
+        }
+    }
+
 }
@@ -47,4 +47,31 @@ public class DuplicationReportTest {
         assertEquals(dupInfo2, dupIssues.get(0));
     }
 
+    @Test
+    public void testDuplicationSummary() {
+        DuplicationReport dupReport = new DuplicationReport();
+
+        DuplicationInfo dupInfo1 = new DuplicationInfo("host-1");
+        dupInfo1.addSpaceCount("store-1", "space-1", 10);
+        dupInfo1.addSpaceCount("store-2", "space-1", 10);
+        dupReport.addDupSummary("host-1", dupInfo1);
+
+        DuplicationInfo dupInfo2 = new DuplicationInfo("host-2");
+        dupInfo2.addSpaceCount("store-1", "space-1", 10);
+        dupInfo2.addIssue("This is an issue");
+        dupReport.addDupSummary("host-2", dupInfo2);
+
+        // Only hosts with issues are retained, without their counts
+        assertEquals(1, dupReport.getDupInfos().size());
+        DuplicationInfo retained = dupReport.getDupInfos().get("host-2");
+        assertEquals(1, retained.getIssues().size());
+        assertEquals(0, retained.getCountedSpaces());
+        assertTrue(dupReport.hasIssues());
+
+        assertEquals(2, dupReport.getHostsChecked());
+        assertEquals(3, dupReport.getSpacesCounted());
+        assertTrue(dupReport.toString().contains("Hosts checked: 2"));
+        assertTrue(dupReport.toString().contains("This is an issue"));
+    }
+
 }
@@ -0,0 +1,108 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time taken to decide which spaces to compare using a
+ * compiled space selection against splitting the space rule for each
+ * lookup, as the duplication monitor did previously. This is not run as
+ * part of the build; run it with:
+ *
+ * java -cp [test classpath] \
+ *   org.duracloud.account.monitor.duplication.domain.SpaceSelectionBenchmark [spaces]
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class SpaceSelectionBenchmark {
+
+    private static final String[] STORE_IDS = {"primary", "secondary-1", "secondary-2"};
+    private static final int ROUNDS = 5;
+
+    private SpaceSelectionBenchmark() {
+        // Run through main
+    }
+
+    public static void main(String[] args) {
+        int spaces = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        // Half of the spaces are selected in a single secondary store
+        List<String> spaceIds = new ArrayList<>();
+        StringBuilder rule = new StringBuilder();
+        for (int i = 0; i < spaces; i++) {
+            String spaceId = "space-" + i;
+            spaceIds.add(spaceId);
+            rule.append(rule.length() > 0 ? "," : "");
+            rule.append(i % 2 == 0 ? spaceId : spaceId + ":" + STORE_IDS[1]);
+        }
+        String rules = rule.toString();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            int splitMatches = 0;
+            for (String storeId : STORE_IDS) {
+                for (String spaceId : spaceIds) {
+                    if (isSelectedBySplit(rules, spaceId, storeId)) {
+                        splitMatches++;
+                    }
+                }
+            }
+            long splitNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int compiledMatches = 0;
+            SpaceSelection selection = SpaceSelection.compile(rules);
+            for (String storeId : STORE_IDS) {
+                for (String spaceId : spaceIds) {
+                    if (selection.isSelected(spaceId, storeId)) {
+                        compiledMatches++;
+                    }
+                }
+            }
+            long compiledNanos = System.nanoTime() - start;
+
+            if (splitMatches != compiledMatches) {
+                throw new IllegalStateException("Selections differ: " + splitMatches +
+                                                " vs " + compiledMatches);
+            }
+            System.out.println(String.format(
+                "round %d, %d spaces x %d stores: split %d ms, compiled %d ms (%d matches)",
+                round, spaces, STORE_IDS.length,
+                TimeUnit.NANOSECONDS.toMillis(splitNanos),
+                TimeUnit.NANOSECONDS.toMillis(compiledNanos),
+                compiledMatches));
+        }
+    }
+
+    /*
+     * The space selection logic previously used by
+     * DuplicationMonitor.compareSpaces
+     */
+    private static boolean isSelectedBySplit(String spaces, String spaceId, String storeId) {
+        String[] spacesToCompare = spaces.split(",");
+        List<String> spaceList = Arrays.asList(spacesToCompare);
+        if (spaceList.contains(spaceId)) {
+            return true;
+        }
+        boolean selected = false;
+        for (String spacesSpaceId : spaceList) {
+            String[] spaceAndStoreId = spacesSpaceId.split(":");
+            if (spaceId.equals(spaceAndStoreId[0]) &&
+                storeId.equals(spaceAndStoreId[1])) {
+                selected = true;
+            }
+        }
+        return selected;
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class SpaceSelectionTest {
+
+    @Test
+    public void testAll() {
+        assertSame(SpaceSelection.ALL, SpaceSelection.compile("ALL"));
+        assertSame(SpaceSelection.ALL, SpaceSelection.compile(null));
+
+        SpaceSelection selection = SpaceSelection.ALL;
+        assertTrue(selection.isAll());
+        assertTrue(selection.getSpaceIds().isEmpty());
+        assertTrue(selection.isSelected("any-space", "any-store"));
+        assertTrue(selection.isCounted("any-space", "any-store", true));
+        assertTrue(selection.isCounted("any-space", "any-store", false));
+    }
+
+    @Test
+    public void testCompile() {
+        SpaceSelection selection =
+            SpaceSelection.compile("space-1, space-2:store-2,space-3:store-3,space-1,");
+        assertFalse(selection.isAll());
+        assertEquals(Arrays.asList("space-1", "space-2", "space-3"),
+                     selection.getSpaceIds());
+
+        // Space without a store is selected in all stores
+        assertTrue(selection.isSelected("space-1", "store-2"));
+        assertTrue(selection.isSelected("space-1", "store-3"));
+        assertTrue(selection.isCounted("space-1", "store-1", true));
+
+        // Space with a store is selected in that store only
+        assertTrue(selection.isSelected("space-2", "store-2"));
+        assertFalse(selection.isSelected("space-2", "store-3"));
+        assertTrue(selection.isCounted("space-2", "store-1", true));
+        assertTrue(selection.isCounted("space-2", "store-2", false));
+        assertFalse(selection.isCounted("space-2", "store-3", false));
+
+        // Unlisted spaces are not selected
+        assertFalse(selection.isSelected("space-4", "store-2"));
+        assertFalse(selection.isCounted("space-4", "store-1", true));
+    }
+
+}
@@ -9,11 +9,18 @@ package org.duracloud.account.monitor.duplication.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import java.io.File;
 import java.io.StringReader;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Properties;
 
+import org.duracloud.account.monitor.duplication.domain.DuplicationConfig;
+import org.duracloud.account.monitor.duplication.domain.SpaceSelection;
+import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.junit.Test;
 
 /**
@@ -49,15 +56,75 @@ public class DuplicationPropReaderTest {
 
         DuplicationPropReader propReader = new DuplicationPropReader();
 
-        Map<String, String> dupHosts = propReader.readDupProps(props);
+        Map<String, SpaceSelection> dupHosts = propReader.readDupProps(props);
         assertNotNull(dupHosts);
         assertEquals(3, dupHosts.size());
-        assertEquals(DuplicationPropReader.ALL_SPACES,
-                     dupHosts.get("abc.duracloud.org"));
-        assertEquals(DuplicationPropReader.ALL_SPACES,
-                     dupHosts.get("def.duracloud.org"));
-        assertEquals("space-1,space-2,space-3",
-                     dupHosts.get("xyz.duracloud.org"));
+        assertSame(SpaceSelection.ALL, dupHosts.get("abc.duracloud.org"));
+        assertSame(SpaceSelection.ALL, dupHosts.get("def.duracloud.org"));
+        assertEquals(Arrays.asList("space-1", "space-2", "space-3"),
+                     dupHosts.get("xyz.duracloud.org").getSpaceIds());
+    }
+
+    @Test
+    public void testReadDupConfig() throws Exception {
+        DuplicationPropReader propReader = new DuplicationPropReader();
+
+        // Defaults
+        DuplicationConfig config = propReader.readDupConfig(new Properties());
+        assertEquals(DuplicationConfig.DEFAULT_HOST_THREADS,
+                     config.getHostThreads());
+        assertEquals(DuplicationConfig.DEFAULT_HOST_TIMEOUT_MINUTES,
+                     config.getHostTimeoutMinutes());
+        assertEquals(DuplicationConfig.DEFAULT_DEADLINE_MINUTES,
+                     config.getDeadlineMinutes());
+        assertEquals(DuplicationConfig.DEFAULT_SPACE_THREADS,
+                     config.getSpaceThreads());
+        assertEquals(new File(System.getProperty("user.home"),
+                              DuplicationPropReader.DEFAULT_SNAPSHOT_FILE),
+                     config.getSnapshotFile());
+        assertEquals(DuplicationConfig.DEFAULT_SNAPSHOT_MAX_AGE_MINUTES,
+                     config.getSnapshotMaxAgeMinutes());
+        assertNull(config.getReportFile());
+        assertEquals(DuplicationRecordWriter.Format.JSONL, config.getReportFormat());
+
+        // Provided values
+        Properties props = new Properties();
+        props.setProperty(DuplicationPropReader.HOST_THREADS, "12");
+        props.setProperty(DuplicationPropReader.HOST_TIMEOUT, "5");
+        props.setProperty(DuplicationPropReader.DEADLINE, "90");
+        props.setProperty(DuplicationPropReader.SPACE_THREADS, "8");
+        props.setProperty(DuplicationPropReader.SNAPSHOT_FILE,
+                          DuplicationPropReader.SNAPSHOT_NONE);
+        props.setProperty(DuplicationPropReader.SNAPSHOT_MAX_AGE, "120");
+        props.setProperty(DuplicationPropReader.COUNT_SOURCE, "properties");
+        props.setProperty(DuplicationPropReader.STATS_WINDOW, "120");
+        props.setProperty(DuplicationPropReader.REQUESTS_PER_SECOND, "0");
+        props.setProperty(DuplicationPropReader.MAX_RETRIES, "1");
+        props.setProperty(DuplicationPropReader.REPORT_FILE, "-");
+        props.setProperty(DuplicationPropReader.REPORT_FORMAT, "csv");
+        config = propReader.readDupConfig(props);
+        assertEquals(12, config.getHostThreads());
+        assertEquals(5, config.getHostTimeoutMinutes());
+        assertEquals(90, config.getDeadlineMinutes());
+        assertEquals(8, config.getSpaceThreads());
+        assertNull(config.getSnapshotFile());
+        assertEquals(120, config.getSnapshotMaxAgeMinutes());
+        assertEquals(DuplicationConfig.CountSource.PROPERTIES, config.getCountSource());
+        assertEquals(120, config.getStatsWindowMinutes());
+        assertEquals(0, config.getRequestsPerSecond());
+        assertEquals(1, config.getMaxRetries());
+        assertEquals(DuplicationRecordWriter.STDOUT, config.getReportFile());
+        assertEquals(DuplicationRecordWriter.Format.CSV, config.getReportFormat());
+
+        // Config properties are not treated as hosts
+        assertEquals(0, propReader.readDupProps(props).size());
+    }
+
+    @Test(expected = DuraCloudRuntimeException.class)
+    public void testReadDupConfigInvalid() throws Exception {
+        Properties props = new Properties();
+        props.setProperty(DuplicationPropReader.HOST_THREADS, "0");
+        new DuplicationPropReader().readDupConfig(props);
     }
 
 }
@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.duracloud.account.monitor.duplication.domain.DuplicationInfo;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class DuplicationRecordWriterTest {
+
+    private DuplicationInfo createInfo() {
+        DuplicationInfo info = new DuplicationInfo("host-1");
+        info.addSpaceCount("store-1", "space-b", 2);
+        info.addSpaceCount("store-1", "space-a", 1);
+        info.addIssue("counts differ, \"space-a\"");
+        return info;
+    }
+
+    @Test
+    public void testWriteJsonLines() throws Exception {
+        StringWriter out = new StringWriter();
+        DuplicationRecordWriter writer =
+            new DuplicationRecordWriter(out, DuplicationRecordWriter.Format.JSONL);
+        writer.write(createInfo());
+        writer.write(new DuplicationInfo("host-2"));
+        writer.close();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(5, lines.length);
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode count = mapper.readTree(lines[0]);
+        assertEquals(DuplicationRecordWriter.TYPE_COUNT, count.get("type").asText());
+        assertEquals("host-1", count.get("host").asText());
+        assertEquals("store-1", count.get("store_id").asText());
+        assertEquals("space-a", count.get("space_id").asText());
+        assertEquals(1, count.get("count").asLong());
+
+        JsonNode issue = mapper.readTree(lines[2]);
+        assertEquals(DuplicationRecordWriter.TYPE_ISSUE, issue.get("type").asText());
+        assertEquals("counts differ, \"space-a\"", issue.get("issue").asText());
+
+        JsonNode host = mapper.readTree(lines[3]);
+        assertEquals(DuplicationRecordWriter.TYPE_HOST, host.get("type").asText());
+        assertEquals("ISSUES", host.get("status").asText());
+
+        host = mapper.readTree(lines[4]);
+        assertEquals("host-2", host.get("host").asText());
+        assertEquals("OK", host.get("status").asText());
+    }
+
+    @Test
+    public void testWriteCsv() throws Exception {
+        StringWriter out = new StringWriter();
+        DuplicationRecordWriter writer =
+            new DuplicationRecordWriter(out, DuplicationRecordWriter.Format.CSV);
+        writer.write(createInfo());
+        writer.close();
+
+        String[] lines = out.toString().split("\r\n");
+        assertEquals(5, lines.length);
+        assertEquals("type,host,store_id,space_id,count,status,issue", lines[0]);
+        assertEquals("count,host-1,store-1,space-a,1,,", lines[1]);
+        assertEquals("count,host-1,store-1,space-b,2,,", lines[2]);
+        assertEquals("issue,host-1,,,,,\"counts differ, \"\"space-a\"\"\"", lines[3]);
+        assertEquals("host,host-1,,,,ISSUES,", lines[4]);
+    }
+
+    @Test
+    public void testEscapeCsv() {
+        assertEquals("", DuplicationRecordWriter.escapeCsv(null));
+        assertEquals("plain", DuplicationRecordWriter.escapeCsv("plain"));
+        assertEquals("\"a\nb\"", DuplicationRecordWriter.escapeCsv("a\nb"));
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.monitor.duplication.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.duracloud.account.monitor.duplication.domain.DuplicationSnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class DuplicationSnapshotStoreTest {
+
+    private File tempDir;
+
+    @Before
+    public void setup() throws Exception {
+        tempDir = Files.createTempDirectory("dup-snapshot-test").toFile();
+    }
+
+    @After
+    public void teardown() {
+        FileUtils.deleteQuietly(tempDir);
+    }
+
+    @Test
+    public void testReadWrite() throws Exception {
+        File file = new File(tempDir, "snapshot");
+        DuplicationSnapshotStore snapshotStore = new DuplicationSnapshotStore(file);
+
+        // Nothing stored yet
+        assertTrue(snapshotStore.read().getHosts().isEmpty());
+
+        DuplicationSnapshot snapshot = new DuplicationSnapshot();
+        snapshot.putEntry("host-1", "space-1", "store-1",
+                          new DuplicationSnapshot.Entry(10, 1000, 0));
+        snapshot.putEntry("host-1", "space-1", "store-2",
+                          new DuplicationSnapshot.Entry(8, 2000, 500));
+        snapshot.putEntry("host-2", "space-2", "store-1",
+                          new DuplicationSnapshot.Entry(-1, 3000, 0));
+        snapshotStore.write(snapshot);
+
+        DuplicationSnapshot read = snapshotStore.read();
+        assertEquals(2, read.getHosts().size());
+        assertEquals(2, read.getSpaceEntries("host-1", "space-1").size());
+
+        DuplicationSnapshot.Entry entry = read.getEntry("host-1", "space-1", "store-2");
+        assertEquals(8, entry.getCount());
+        assertEquals(2000, entry.getCheckedAt());
+        assertEquals(500, entry.getMismatchSince());
+        assertTrue(entry.isMismatched());
+
+        entry = read.getEntry("host-2", "space-2", "store-1");
+        assertEquals(-1, entry.getCount());
+        assertFalse(entry.isMismatched());
+        assertNull(read.getEntry("host-2", "space-1", "store-1"));
+
+        // Only the snapshot file remains
+        assertEquals(1, tempDir.list().length);
+    }
+
+    @Test
+    public void testImmutableCopy() throws Exception {
+        DuplicationSnapshot snapshot = new DuplicationSnapshot();
+        snapshot.putEntry("host-1", "space-1", "store-1",
+                          new DuplicationSnapshot.Entry(10, 1000, 0));
+        DuplicationSnapshot copy = snapshot.immutableCopy();
+
+        // Entries added after the copy is taken are not in the copy
+        snapshot.putEntry("host-1", "space-1", "store-2",
+                          new DuplicationSnapshot.Entry(8, 2000, 0));
+        snapshot.putEntry("host-2", "space-2", "store-1",
+                          new DuplicationSnapshot.Entry(5, 3000, 0));
+        assertEquals(1, copy.getHosts().size());
+        assertEquals(1, copy.getSpaceEntries("host-1", "space-1").size());
+
+        try {
+            copy.putEntry("host-1", "space-1", "store-3",
+                          new DuplicationSnapshot.Entry(1, 4000, 0));
+            fail("Exception expected");
+        } catch (UnsupportedOperationException e) {
+            assertNull(copy.getEntry("host-1", "space-1", "store-3"));
+        }
+    }
+
+    @Test
+    public void testReadInvalid() throws Exception {
+        File file = new File(tempDir, "snapshot");
+        Files.write(file.toPath(), "not a snapshot".getBytes());
+
+        DuplicationSnapshot read = new DuplicationSnapshotStore(file).read();
+        assertTrue(read.getHosts().isEmpty());
+    }
+
+}
@@ -7,17 +7,23 @@
  */
 package org.duracloud.account.security.auth;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.util.security.AuthenticatedUserCache;
+import org.duracloud.account.db.util.security.PasswordUpgrader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
-import org.springframework.security.web.util.matcher.IpAddressMatcher;
 
 /**
  * Authentication provider which allows default authentication behavior
@@ -25,17 +31,120 @@ import org.springframework.security.web.util.matcher.IpAddressMatcher;
  * user's request originated from an IP address which is within the defined
  * valid IP ranges. If a user has no defined valid IP ranges, any IP is accepted.
  *
+ * The IP ranges of each user are compiled once and retained, keyed by the
+ * range text, so that logins do not parse them again.
+ *
+ * When a PasswordUpgrader is provided, each successful login gives it the
+ * chance to re-hash the user's stored password in the current format.
+ *
+ * When an AuthenticatedUserCache is provided, a user who repeats credentials
+ * which recently succeeded, as http-basic clients do on every request, is
+ * authenticated from the cache without loading the user or checking the
+ * password hash. The IP range check is still made for every request.
+ *
+ * When a LoginThrottle is provided, logins with bad credentials are
+ * recorded, and logins for a username or from an address which the throttle
+ * has locked are rejected before the user is loaded.
+ *
  * @author Bill Branan
  * Date: 5/20/2015
  */
 public class AuthProvider extends DaoAuthenticationProvider {
 
+    protected static final int MAX_CACHED_RANGES = 1000;
+
     private final Logger log = LoggerFactory.getLogger(AuthProvider.class);
 
+    private Map<String, IpRangeMatcher> rangeMatchers = new ConcurrentHashMap<>();
+
+    private PasswordUpgrader passwordUpgrader;
+    private AuthenticatedUserCache authenticatedUserCache;
+    private LoginThrottle loginThrottle;
+
     public AuthProvider(UserDetailsService userDetailsService,
                         Object passwordEncoder) {
+        this(userDetailsService, passwordEncoder, null);
+    }
+
+    public AuthProvider(UserDetailsService userDetailsService,
+                        Object passwordEncoder,
+                        PasswordUpgrader passwordUpgrader) {
+        this(userDetailsService, passwordEncoder, passwordUpgrader, null);
+    }
+
+    public AuthProvider(UserDetailsService userDetailsService,
+                        Object passwordEncoder,
+                        PasswordUpgrader passwordUpgrader,
+                        AuthenticatedUserCache authenticatedUserCache) {
+        this(userDetailsService, passwordEncoder, passwordUpgrader,
+             authenticatedUserCache, null);
+    }
+
+    public AuthProvider(UserDetailsService userDetailsService,
+                        Object passwordEncoder,
+                        PasswordUpgrader passwordUpgrader,
+                        AuthenticatedUserCache authenticatedUserCache,
+                        LoginThrottle loginThrottle) {
         super.setUserDetailsService(userDetailsService);
         super.setPasswordEncoder(passwordEncoder);
+        this.passwordUpgrader = passwordUpgrader;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication)
+        throws AuthenticationException {
+        if (null == loginThrottle || null == authentication.getPrincipal()) {
+            return authenticateUser(authentication);
+        }
+
+        String username = authentication.getName();
+        String address = getRemoteAddress(authentication);
+        loginThrottle.checkAllowed(username, address);
+        try {
+            Authentication result = authenticateUser(authentication);
+            loginThrottle.recordSuccess(username);
+            return result;
+        } catch (BadCredentialsException e) {
+            loginThrottle.recordFailure(username, address);
+            throw e;
+        }
+    }
+
+    private Authentication authenticateUser(Authentication authentication)
+        throws AuthenticationException {
+        if (null == authenticatedUserCache || null == authentication.getPrincipal() ||
+            null == authentication.getCredentials()) {
+            return super.authenticate(authentication);
+        }
+
+        String username = authentication.getName();
+        String password = authentication.getCredentials().toString();
+        DuracloudUser cachedUser = authenticatedUserCache.get(username, password);
+        if (null != cachedUser) {
+            getPreAuthenticationChecks().check(cachedUser);
+            checkIpRange(cachedUser, authentication);
+            getPostAuthenticationChecks().check(cachedUser);
+            return super.createSuccessAuthentication(cachedUser, authentication, cachedUser);
+        }
+
+        // Read before the user is loaded, so a change made to the user
+        // during authentication keeps the loaded user out of the cache
+        long generation = authenticatedUserCache.getGeneration(username);
+        Authentication result = super.authenticate(authentication);
+        if (result.getPrincipal() instanceof DuracloudUser) {
+            authenticatedUserCache.put(username, password,
+                                       (DuracloudUser) result.getPrincipal(), generation);
+        }
+        return result;
+    }
+
+    private String getRemoteAddress(Authentication authentication) {
+        if (authentication.getDetails() instanceof WebAuthenticationDetails) {
+            return ((WebAuthenticationDetails) authentication.getDetails()).getRemoteAddress();
+        }
+        return null;
     }
 
     @Override
@@ -43,8 +152,20 @@ public class AuthProvider extends DaoAuthenticationProvider {
                                                   UsernamePasswordAuthenticationToken authentication)
         throws AuthenticationException {
         super.additionalAuthenticationChecks(userDetails, authentication);
+        checkIpRange((DuracloudUser) userDetails, authentication);
+    }
 
-        DuracloudUser dcUser = (DuracloudUser) userDetails;
+    /**
+     * Checks that the request originated from an IP address which is within
+     * the valid IP ranges of the user, if the user has any.
+     *
+     * @param dcUser         being authenticated
+     * @param authentication request, with WebAuthenticationDetails
+     * @throws InsufficientAuthenticationException if the IP is not in range,
+     *                                             or the ranges are not valid
+     */
+    protected void checkIpRange(DuracloudUser dcUser, Authentication authentication)
+        throws AuthenticationException {
         String userIpLimits = dcUser.getAllowableIPAddressRange();
 
         // if user IP limits are set, check request IP
@@ -53,15 +174,24 @@ public class AuthProvider extends DaoAuthenticationProvider {
                 (WebAuthenticationDetails) authentication.getDetails();
             String requestIp = details.getRemoteAddress();
 
-            String[] ipLimits = userIpLimits.split(";");
-            for (String ipLimit : ipLimits) {
-                if (ipInRange(requestIp, ipLimit)) {
-                    // User's IP is within this range, grant access
-                    log.debug("Allowing authentication check to continue for user " +
-                              dcUser.getUsername() + " because their IP " +
-                              requestIp + " exists in a valid range " + ipLimit);
-                    return;
-                }
+            IpRangeMatcher rangeMatcher;
+            try {
+                rangeMatcher = getRangeMatcher(userIpLimits);
+            } catch (IllegalArgumentException e) {
+                // The ranges cannot be checked, deny
+                log.warn("Denying authentication request for user " +
+                         dcUser.getUsername() + " because their valid IP ranges " +
+                         userIpLimits + " cannot be read: " + e.getMessage());
+                throw new InsufficientAuthenticationException(
+                    "The accepted IP ranges of the user are not valid.");
+            }
+
+            if (rangeMatcher.matches(requestIp)) {
+                // User's IP is within a range, grant access
+                log.debug("Allowing authentication check to continue for user " +
+                          dcUser.getUsername() + " because their IP " +
+                          requestIp + " exists in a valid range " + userIpLimits);
+                return;
             }
 
             // There are IP limits, and none of them match the user's IP, deny
@@ -78,6 +208,23 @@ public class AuthProvider extends DaoAuthenticationProvider {
         }
     }
 
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal,
+                                                         Authentication authentication,
+                                                         UserDetails user) {
+        if (null != passwordUpgrader && null != authentication.getCredentials()) {
+            try {
+                passwordUpgrader.upgradePassword((DuracloudUser) user,
+                                                 authentication.getCredentials().toString());
+            } catch (RuntimeException e) {
+                // The stored hash still works, so the login can proceed
+                log.warn("Unable to upgrade password hash for user " +
+                         user.getUsername() + ": " + e.getMessage(), e);
+            }
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+
     /**
      * Determines if a given IP address is in the given IP range.
      *
@@ -86,8 +233,26 @@ public class AuthProvider extends DaoAuthenticationProvider {
      * @return true if the address is in the range, false otherwise
      */
     protected boolean ipInRange(String ipAddress, String range) {
-        IpAddressMatcher addressMatcher = new IpAddressMatcher(range);
-        return addressMatcher.matches(ipAddress);
+        return getRangeMatcher(range).matches(ipAddress);
+    }
+
+    /**
+     * Gets the compiled matcher for a list of IP ranges. Matchers are
+     * discarded once more than MAX_CACHED_RANGES distinct lists are held.
+     *
+     * @param ranges IP address ranges using CIDR notation, separated by ';'
+     * @return matcher of the ranges
+     */
+    protected IpRangeMatcher getRangeMatcher(String ranges) {
+        IpRangeMatcher matcher = rangeMatchers.get(ranges);
+        if (null == matcher) {
+            matcher = IpRangeMatcher.compile(ranges);
+            if (rangeMatchers.size() >= MAX_CACHED_RANGES) {
+                rangeMatchers.clear();
+            }
+            rangeMatchers.put(ranges, matcher);
+        }
+        return matcher;
     }
 
 }
@@ -0,0 +1,238 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.security.auth;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * This class matches IP addresses against a list of IP address ranges. The
+ * ranges are compiled once into sorted, merged intervals of addresses, so
+ * that matching an address is a binary search however many ranges there are.
+ * Instances are immutable.
+ *
+ * Ranges are separated by ';'. Each range is an IPv4 or IPv6 address, which
+ * matches only that address, or an address and prefix length in CIDR
+ * notation. As with Spring's IpAddressMatcher, an IPv4 range does not match
+ * an IPv6 address, nor the reverse. Addresses must be literal; host names
+ * are not resolved.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public final class IpRangeMatcher {
+
+    public static final String RANGE_DELIM = ";";
+
+    private static final Pattern IPV4 =
+        Pattern.compile("\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+    private static final Pattern PREFIX = Pattern.compile("\\d{1,3}");
+
+    private final String ranges;
+    private final Intervals ipv4;
+    private final Intervals ipv6;
+
+    private IpRangeMatcher(String ranges, Intervals ipv4, Intervals ipv6) {
+        this.ranges = ranges;
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+    }
+
+    /**
+     * Compiles a list of IP address ranges
+     *
+     * @param ranges ';' separated IP addresses or CIDR ranges
+     * @return compiled matcher
+     * @throws IllegalArgumentException if a range is not valid
+     */
+    public static IpRangeMatcher compile(String ranges) {
+        if (null == ranges) {
+            throw new IllegalArgumentException("IP ranges may not be null");
+        }
+
+        List<long[]> ipv4Ranges = new ArrayList<>();
+        List<long[]> ipv6Ranges = new ArrayList<>();
+        for (String range : ranges.split(RANGE_DELIM)) {
+            String address = range;
+            int prefix = -1;
+            int separator = range.indexOf('/');
+            if (separator > -1) {
+                address = range.substring(0, separator);
+                String prefixLength = range.substring(separator + 1);
+                if (!PREFIX.matcher(prefixLength).matches()) {
+                    throw new IllegalArgumentException("Invalid prefix length: " + range);
+                }
+                prefix = Integer.parseInt(prefixLength);
+            }
+
+            byte[] bytes = parseAddress(address);
+            if (null == bytes) {
+                throw new IllegalArgumentException("Invalid IP address range: " + range);
+            }
+            int bits = bytes.length * 8;
+            if (prefix < 0) {
+                prefix = bits;
+            } else if (prefix > bits) {
+                throw new IllegalArgumentException("Invalid prefix length: " + range);
+            }
+            (bytes.length == 4 ? ipv4Ranges : ipv6Ranges).add(toInterval(bytes, prefix));
+        }
+        return new IpRangeMatcher(ranges, new Intervals(ipv4Ranges), new Intervals(ipv6Ranges));
+    }
+
+    /**
+     * @param ipAddress literal IPv4 or IPv6 address
+     * @return true if the address is in one of the ranges, false otherwise or
+     * if the address is not valid
+     */
+    public boolean matches(String ipAddress) {
+        byte[] bytes = parseAddress(ipAddress);
+        if (null == bytes) {
+            return false;
+        }
+        if (bytes.length == 4) {
+            return ipv4.contains(0, toLong(bytes, 0, 4));
+        }
+        return ipv6.contains(toLong(bytes, 0, 8), toLong(bytes, 8, 16));
+    }
+
+    @Override
+    public String toString() {
+        return ranges;
+    }
+
+    /*
+     * Parses a literal IP address, returning null if it is not one. IPv4
+     * addresses are parsed here. IPv6 addresses are bracketed, so that
+     * InetAddress parses them as literals and never resolves them as host
+     * names.
+     */
+    private static byte[] parseAddress(String address) {
+        if (null == address) {
+            return null;
+        }
+        if (IPV4.matcher(address).matches()) {
+            String[] octets = address.split("\\.");
+            byte[] bytes = new byte[octets.length];
+            for (int i = 0; i < octets.length; i++) {
+                int octet = Integer.parseInt(octets[i]);
+                if (octet > 255) {
+                    return null;
+                }
+                bytes[i] = (byte) octet;
+            }
+            return bytes;
+        }
+        if (!IPV6.matcher(address).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName("[" + address + "]").getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Gets the first and last addresses of a range, as {startHigh, startLow,
+     * endHigh, endLow}. IPv4 addresses use only the low value.
+     */
+    private static long[] toInterval(byte[] bytes, int prefix) {
+        byte[] start = bytes.clone();
+        byte[] end = bytes.clone();
+        for (int bit = prefix; bit < bytes.length * 8; bit++) {
+            int mask = 0x80 >>> (bit % 8);
+            start[bit / 8] &= ~mask;
+            end[bit / 8] |= mask;
+        }
+        if (bytes.length == 4) {
+            return new long[] {0, toLong(start, 0, 4), 0, toLong(end, 0, 4)};
+        }
+        return new long[] {toLong(start, 0, 8), toLong(start, 8, 16),
+                           toLong(end, 0, 8), toLong(end, 8, 16)};
+    }
+
+    private static long toLong(byte[] bytes, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int compare(long high, long low, long otherHigh, long otherLow) {
+        int result = Long.compareUnsigned(high, otherHigh);
+        return result != 0 ? result : Long.compareUnsigned(low, otherLow);
+    }
+
+    /**
+     * Disjoint address intervals, sorted by start address. Addresses are
+     * unsigned 128 bit values held as high and low longs.
+     */
+    private static final class Intervals {
+        private final long[] startHigh;
+        private final long[] startLow;
+        private final long[] endHigh;
+        private final long[] endLow;
+
+        Intervals(List<long[]> ranges) {
+            Comparator<long[]> byStart = (a, b) -> compare(a[0], a[1], b[0], b[1]);
+            ranges.sort(byStart);
+
+            // Merge overlapping ranges
+            List<long[]> merged = new ArrayList<>();
+            for (long[] range : ranges) {
+                long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (null != last && compare(range[0], range[1], last[2], last[3]) <= 0) {
+                    if (compare(range[2], range[3], last[2], last[3]) > 0) {
+                        last[2] = range[2];
+                        last[3] = range[3];
+                    }
+                } else {
+                    merged.add(range.clone());
+                }
+            }
+
+            int size = merged.size();
+            startHigh = new long[size];
+            startLow = new long[size];
+            endHigh = new long[size];
+            endLow = new long[size];
+            for (int i = 0; i < size; i++) {
+                long[] range = merged.get(i);
+                startHigh[i] = range[0];
+                startLow[i] = range[1];
+                endHigh[i] = range[2];
+                endLow[i] = range[3];
+            }
+        }
+
+        boolean contains(long high, long low) {
+            // Find the last interval starting at or before the address
+            int lowIndex = 0;
+            int highIndex = startHigh.length - 1;
+            int found = -1;
+            while (lowIndex <= highIndex) {
+                int mid = (lowIndex + highIndex) >>> 1;
+                if (compare(startHigh[mid], startLow[mid], high, low) <= 0) {
+                    found = mid;
+                    lowIndex = mid + 1;
+                } else {
+                    highIndex = mid - 1;
+                }
+            }
+            return found > -1 && compare(high, low, endHigh[found], endLow[found]) <= 0;
+        }
+    }
+
+}
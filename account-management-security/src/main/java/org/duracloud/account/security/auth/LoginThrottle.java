@@ -0,0 +1,276 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.security.auth;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.LockedException;
+
+/**
+ * Tracks failed logins by username and by source IP address, and locks out
+ * a username or address which fails too often. Failures are counted within
+ * a sliding window. Once a username or address reaches its limit of
+ * failures within the window, it is locked for a period which doubles with
+ * each further failure, up to a maximum. A successful login clears the
+ * failures of the username.
+ *
+ * A locked login is rejected at once, before the user is loaded or the
+ * password hashed, and without delaying the request thread, so an attack
+ * costs the console little and does not slow the logins of other users.
+ *
+ * Records are kept in memory, and updates to a record are made under one of
+ * a fixed set of locks chosen by the record key. When the records are full,
+ * records which are not locked are discarded to make room; locks are never
+ * discarded early. If every record is locked, failures of usernames which
+ * are not already tracked are not recorded, while failures of addresses
+ * still are.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class LoginThrottle {
+
+    public static final int DEFAULT_USER_LIMIT = 5;
+    public static final int DEFAULT_ADDRESS_LIMIT = 50;
+    public static final long DEFAULT_WINDOW_MILLIS = 15 * 60 * 1000;
+    public static final long DEFAULT_LOCK_MILLIS = 60 * 1000;
+    public static final long DEFAULT_MAX_LOCK_MILLIS = 15 * 60 * 1000;
+
+    protected static final int MAX_RECORDS = 100000;
+    protected static final long PRUNE_INTERVAL_MILLIS = 1000;
+
+    private static final int STRIPES = 64;
+    private static final String USER_PREFIX = "user:";
+    private static final String ADDRESS_PREFIX = "ip:";
+
+    private final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private final int userLimit;
+    private final int addressLimit;
+    private final long windowMillis;
+    private final long lockMillis;
+    private final long maxLockMillis;
+
+    private final Object[] locks = new Object[STRIPES];
+    private Map<String, FailureRecord> records = new ConcurrentHashMap<>();
+    private volatile long nextPrune;
+
+    private AtomicLong failures = new AtomicLong();
+    private AtomicLong lockouts = new AtomicLong();
+    private AtomicLong rejected = new AtomicLong();
+
+    public LoginThrottle() {
+        this(DEFAULT_USER_LIMIT, DEFAULT_ADDRESS_LIMIT, DEFAULT_WINDOW_MILLIS,
+             DEFAULT_LOCK_MILLIS, DEFAULT_MAX_LOCK_MILLIS);
+    }
+
+    /**
+     * @param userLimit     failures of a username within the window which
+     *                      lock the username
+     * @param addressLimit  failures from an IP address within the window
+     *                      which lock the address
+     * @param windowMillis  length of the sliding window
+     * @param lockMillis    length of the first lock, which doubles with each
+     *                      further failure
+     * @param maxLockMillis maximum length of a lock
+     */
+    public LoginThrottle(int userLimit,
+                         int addressLimit,
+                         long windowMillis,
+                         long lockMillis,
+                         long maxLockMillis) {
+        this.userLimit = userLimit;
+        this.addressLimit = addressLimit;
+        this.windowMillis = windowMillis;
+        this.lockMillis = lockMillis;
+        this.maxLockMillis = maxLockMillis;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Rejects a login if its username or source address is locked.
+     *
+     * @param username of login
+     * @param address  source IP address of login, may be null
+     * @throws LockedException if the username or address is locked
+     */
+    public void checkAllowed(String username, String address) throws LockedException {
+        long now = currentTimeMillis();
+        if (isLocked(USER_PREFIX + username, now) ||
+            (null != address && isLocked(ADDRESS_PREFIX + address, now))) {
+            rejected.incrementAndGet();
+            throw new LockedException(
+                "Too many failed logins, please try again later");
+        }
+    }
+
+    /**
+     * @param username of failed login
+     * @param address  source IP address of failed login, may be null
+     */
+    public void recordFailure(String username, String address) {
+        failures.incrementAndGet();
+        long now = currentTimeMillis();
+        recordFailure(USER_PREFIX + username, userLimit, now);
+        if (null != address) {
+            recordFailure(ADDRESS_PREFIX + address, addressLimit, now);
+        }
+    }
+
+    /**
+     * Clears the failures of a username once it logs in successfully.
+     *
+     * @param username of successful login
+     */
+    public void recordSuccess(String username) {
+        if (!records.isEmpty()) {
+            String key = USER_PREFIX + username;
+            synchronized (getLock(key)) {
+                records.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return the number of failed logins recorded
+     */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * @return the number of times a username or address has been locked
+     */
+    public long getLockoutCount() {
+        return lockouts.get();
+    }
+
+    /**
+     * @return the number of logins rejected because of a lock
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the number of usernames and addresses with recent failures
+     */
+    public int getTrackedCount() {
+        return records.size();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    protected int getMaxRecords() {
+        return MAX_RECORDS;
+    }
+
+    private boolean isLocked(String key, long now) {
+        FailureRecord record = records.get(key);
+        return null != record && record.lockedUntil > now;
+    }
+
+    private void recordFailure(String key, int limit, long now) {
+        boolean full = records.size() >= getMaxRecords() && !prune(now);
+
+        synchronized (getLock(key)) {
+            FailureRecord record = records.get(key);
+            if (null == record) {
+                if (full && key.startsWith(USER_PREFIX)) {
+                    log.debug("Login failure records are full, not tracking {}", key);
+                    return;
+                }
+                record = new FailureRecord();
+                records.put(key, record);
+            }
+            record.expire(now - windowMillis);
+            record.failures.addLast(now);
+
+            int excess = record.failures.size() - limit;
+            if (excess >= 0) {
+                long lock = lockMillis << Math.min(excess, 30);
+                record.lockedUntil = now + Math.min(lock, maxLockMillis);
+                lockouts.incrementAndGet();
+                log.warn("Locking logins for {} for {} ms after {} failures",
+                         new Object[] {key, record.lockedUntil - now,
+                                       record.failures.size()});
+            }
+        }
+    }
+
+    /*
+     * Makes room for new records by removing records which are not locked,
+     * first those with no failures in the window, then any others. Records
+     * are pruned at most once per interval, so that a full set of locked
+     * records is not scanned on every failure.
+     *
+     * Returns true if there is room for new records.
+     */
+    private boolean prune(long now) {
+        if (now < nextPrune) {
+            return false;
+        }
+        nextPrune = now + PRUNE_INTERVAL_MILLIS;
+
+        removeUnlocked(now, true);
+        if (records.size() >= getMaxRecords()) {
+            removeUnlocked(now, false);
+        }
+
+        if (records.size() >= getMaxRecords()) {
+            log.warn("Login failure records are full of locks, new usernames " +
+                     "will not be tracked");
+            return false;
+        }
+        log.debug("Pruned login failure records, {} remain", records.size());
+        return true;
+    }
+
+    private void removeUnlocked(long now, boolean expiredOnly) {
+        Iterator<Map.Entry<String, FailureRecord>> entries =
+            records.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, FailureRecord> entry = entries.next();
+            synchronized (getLock(entry.getKey())) {
+                FailureRecord record = entry.getValue();
+                record.expire(now - windowMillis);
+                if (record.lockedUntil <= now &&
+                    (!expiredOnly || record.failures.isEmpty())) {
+                    entries.remove();
+                }
+            }
+        }
+    }
+
+    private Object getLock(String key) {
+        return locks[(key.hashCode() & Integer.MAX_VALUE) % STRIPES];
+    }
+
+    private static class FailureRecord {
+        private final Deque<Long> failures = new ArrayDeque<>();
+        private volatile long lockedUntil;
+
+        void expire(long windowStart) {
+            while (!failures.isEmpty() && failures.peekFirst() <= windowStart) {
+                failures.removeFirst();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.security.domain;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.duracloud.account.db.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * This class represents sets of roles as bitmasks, with one bit per role, so
+ * that role checks made while voting are bit operations rather than set
+ * lookups. The highest role of each possible set of roles is computed once,
+ * from the Role definitions.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public final class RoleMask {
+
+    public static final int NONE = 0;
+
+    private static final Role[] ROLES = Role.values();
+    private static final Role[] HIGHEST = new Role[1 << ROLES.length];
+    private static final Map<String, Role> AUTHORITIES = new HashMap<>();
+
+    static {
+        for (Role role : ROLES) {
+            AUTHORITIES.put(role.authority().getAuthority(), role);
+        }
+        for (int mask = 0; mask < HIGHEST.length; mask++) {
+            HIGHEST[mask] = Role.highestRole(toSet(mask));
+        }
+    }
+
+    private RoleMask() {
+        // Ensures no instances are made of this class, as there are only static members.
+    }
+
+    /**
+     * @param role to represent
+     * @return mask with the bit of the role set
+     */
+    public static int of(Role role) {
+        return 1 << role.ordinal();
+    }
+
+    /**
+     * @param roles to represent, may be null
+     * @return mask with the bit of each role set
+     */
+    public static int of(Collection<Role> roles) {
+        int mask = NONE;
+        if (null != roles) {
+            for (Role role : roles) {
+                mask |= of(role);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param authorities granted to a user, may be null
+     * @return mask with the bit of each role named by an authority set.
+     * Authorities which do not name a role are ignored.
+     */
+    public static int ofAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        int mask = NONE;
+        if (null != authorities) {
+            for (GrantedAuthority authority : authorities) {
+                Role role = AUTHORITIES.get(authority.getAuthority());
+                if (null != role) {
+                    mask |= of(role);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask of roles
+     * @param role to check
+     * @return true if the role is in the mask
+     */
+    public static boolean contains(int mask, Role role) {
+        return (mask & of(role)) != 0;
+    }
+
+    /**
+     * @param mask of roles
+     * @return the highest role in the mask, as defined by
+     * Role.highestRole(), or null if there is none
+     */
+    public static Role highest(int mask) {
+        return HIGHEST[mask];
+    }
+
+    private static Set<Role> toSet(int mask) {
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : ROLES) {
+            if (contains(mask, role)) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+}
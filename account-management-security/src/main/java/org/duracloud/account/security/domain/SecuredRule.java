@@ -7,7 +7,9 @@
  */
 package org.duracloud.account.security.domain;
 
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.duracloud.account.db.model.Role;
 
@@ -15,13 +17,19 @@ import org.duracloud.account.db.model.Role;
  * This class defines a bean used to constrain the access rules over secured
  * method calls.
  *
+ * Rules are immutable. Those obtained through valueOf() are parsed once per
+ * rule text and shared, so that votes on secured methods do not parse them
+ * again.
+ *
  * @author Andrew Woods
  * Date: 4/1/11
  */
 public class SecuredRule {
 
-    private Role role;
-    private Scope scope;
+    private static final Map<String, SecuredRule> RULES = new ConcurrentHashMap<>();
+
+    private final Role role;
+    private final Scope scope;
 
     private static final String delim = ",";
     private static final String prefixRole = "role:";
@@ -52,6 +60,25 @@ public class SecuredRule {
         this.scope = Scope.valueOf(fullScope.substring(prefixScope.length()));
     }
 
+    /**
+     * Gets the rule for the given text, parsing it only on first use.
+     *
+     * @param rule text of the form "role:ROLE_X,scope:SCOPE"
+     * @return parsed rule
+     * @throws IllegalArgumentException if the rule is not valid
+     */
+    public static SecuredRule valueOf(String rule) {
+        if (null == rule) {
+            throw new IllegalArgumentException("Invalid rule: arg Rule may not be null.");
+        }
+        SecuredRule securedRule = RULES.get(rule);
+        if (null == securedRule) {
+            securedRule = new SecuredRule(rule);
+            RULES.putIfAbsent(rule, securedRule);
+        }
+        return securedRule;
+    }
+
     public Role getRole() {
         return role;
     }
@@ -11,8 +11,10 @@ import java.util.Collection;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.util.AccountService;
+import org.duracloud.account.db.util.security.AccountRightsCache;
 import org.duracloud.account.security.domain.SecuredRule;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.slf4j.Logger;
@@ -34,6 +36,11 @@ public class AccountAccessDecisionVoter extends BaseAccessDecisionVoter {
         super(repoMgr);
     }
 
+    public AccountAccessDecisionVoter(DuracloudRepoMgr repoMgr,
+                                      AccountRightsCache rightsCache) {
+        super(repoMgr, rightsCache);
+    }
+
     @Override
     protected Class<?> getTargetService() {
         return AccountService.class;
@@ -46,12 +53,12 @@ public class AccountAccessDecisionVoter extends BaseAccessDecisionVoter {
                            Object[] methodArgs,
                            DuracloudUser user,
                            SecuredRule securedRule,
-                           String role,
+                           Role role,
                            SecuredRule.Scope scope) {
         int decision = ACCESS_DENIED;
 
         if (scope.equals(SecuredRule.Scope.ANY)) {
-            Collection<String> userRoles = getUserRoles(authentication);
+            int userRoles = getUserRoles(authentication);
             decision = super.voteHasRole(role, userRoles);
 
         } else if (scope.equals(SecuredRule.Scope.SELF_ACCT)) {
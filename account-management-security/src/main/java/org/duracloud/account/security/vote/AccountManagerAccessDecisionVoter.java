@@ -11,8 +11,10 @@ import java.util.Collection;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.util.AccountManagerService;
+import org.duracloud.account.db.util.security.AccountRightsCache;
 import org.duracloud.account.security.domain.SecuredRule;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.slf4j.Logger;
@@ -35,6 +37,11 @@ public class AccountManagerAccessDecisionVoter extends BaseAccessDecisionVoter {
         super(repoMgr);
     }
 
+    public AccountManagerAccessDecisionVoter(DuracloudRepoMgr repoMgr,
+                                             AccountRightsCache rightsCache) {
+        super(repoMgr, rightsCache);
+    }
+
     @Override
     protected Class<?> getTargetService() {
         return AccountManagerService.class;
@@ -47,10 +54,10 @@ public class AccountManagerAccessDecisionVoter extends BaseAccessDecisionVoter {
                            Object[] methodArgs,
                            DuracloudUser user,
                            SecuredRule securedRule,
-                           String role,
+                           Role role,
                            SecuredRule.Scope scope) {
         int decision = ACCESS_DENIED;
-        Collection<String> userRoles = getUserRoles(authentication);
+        int userRoles = getUserRoles(authentication);
 
         if (scope.equals(SecuredRule.Scope.ANY)) {
             decision = voteHasRole(role, userRoles);
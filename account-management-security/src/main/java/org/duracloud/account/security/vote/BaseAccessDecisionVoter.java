@@ -17,6 +17,9 @@ import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.repo.DuracloudRightsRepo;
+import org.duracloud.account.db.util.security.AccountMemberCounter;
+import org.duracloud.account.db.util.security.AccountRightsCache;
+import org.duracloud.account.security.domain.RoleMask;
 import org.duracloud.account.security.domain.SecuredRule;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.slf4j.Logger;
@@ -24,7 +27,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDecisionVoter;
 import org.springframework.security.access.ConfigAttribute;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 
 /**
  * @author Andrew Woods
@@ -35,9 +37,37 @@ public abstract class BaseAccessDecisionVoter implements AccessDecisionVoter<Met
     protected Logger log = LoggerFactory.getLogger(BaseAccessDecisionVoter.class);
 
     private DuracloudRepoMgr repoMgr;
+    private AccountRightsCache rightsCache;
+    private AccountMemberCounter memberCounter;
 
     public BaseAccessDecisionVoter(DuracloudRepoMgr repoMgr) {
+        this(repoMgr, new AccountRightsCache(repoMgr));
+    }
+
+    /**
+     * @param repoMgr     repository manager
+     * @param rightsCache resolves account rights, retaining them for the
+     *                    length of a request so that each vote made while
+     *                    handling the request does not query them again
+     */
+    public BaseAccessDecisionVoter(DuracloudRepoMgr repoMgr,
+                                   AccountRightsCache rightsCache) {
+        this(repoMgr, rightsCache, null);
+    }
+
+    /**
+     * @param repoMgr       repository manager
+     * @param rightsCache   resolves account rights for the length of a request
+     * @param memberCounter counts the users on each account without loading
+     *                      their rights, required by voters which check the
+     *                      number of users on an account
+     */
+    public BaseAccessDecisionVoter(DuracloudRepoMgr repoMgr,
+                                   AccountRightsCache rightsCache,
+                                   AccountMemberCounter memberCounter) {
         this.repoMgr = repoMgr;
+        this.rightsCache = rightsCache;
+        this.memberCounter = memberCounter;
     }
 
     /**
@@ -78,23 +108,23 @@ public abstract class BaseAccessDecisionVoter implements AccessDecisionVoter<Met
             throw new DuraCloudRuntimeException("Invalid security att " + atts);
         }
 
-        return new SecuredRule(atts.iterator().next().getAttribute());
+        return SecuredRule.valueOf(atts.iterator().next().getAttribute());
     }
 
-    protected Collection<String> getUserRoles(Authentication authentication) {
-        Set<String> roles = new HashSet<String>();
-        for (GrantedAuthority authority : authentication.getAuthorities()) {
-            roles.add(authority.getAuthority());
-        }
-        return roles;
+    /**
+     * @param authentication of calling user
+     * @return mask of the roles granted to the user, see RoleMask
+     */
+    protected int getUserRoles(Authentication authentication) {
+        return RoleMask.ofAuthorities(authentication.getAuthorities());
     }
 
-    protected int voteHasRole(String role, Collection<String> userRoles) {
-        return userRoles.contains(role) ? ACCESS_GRANTED : ACCESS_DENIED;
+    protected int voteHasRole(Role role, int userRoles) {
+        return RoleMask.contains(userRoles, role) ? ACCESS_GRANTED : ACCESS_DENIED;
     }
 
     protected int voteUserHasRoleOnAccount(DuracloudUser user,
-                                           String role,
+                                           Role role,
                                            Long acctId) {
         log.trace("Does user {} have role {} on acct {}?",
                   new Object[] {user.getId(), role, acctId});
@@ -107,14 +137,7 @@ public abstract class BaseAccessDecisionVoter implements AccessDecisionVoter<Met
         Set<Role> acctRoles = rights.getRoles();
         log.trace("Roles found: {}", acctRoles);
 
-        if (acctRoles != null && acctRoles.size() > 0) {
-            for (Role acctRole : acctRoles) {
-                if (role.equals(acctRole.authority().getAuthority())) {
-                    return ACCESS_GRANTED;
-                }
-            }
-        }
-        return ACCESS_DENIED;
+        return RoleMask.contains(RoleMask.of(acctRoles), role) ? ACCESS_GRANTED : ACCESS_DENIED;
     }
 
     protected int voteUserHasRoleOnAcctToUpdateOthersRoles(Long userId,
@@ -152,13 +175,13 @@ public abstract class BaseAccessDecisionVoter implements AccessDecisionVoter<Met
             return ACCESS_DENIED;
         }
 
-        Role otherHighestRole = Role.highestRole(other);
+        Role otherHighestRole = RoleMask.highest(RoleMask.of(other));
         if (null == otherHighestRole) {
             log.warn("No highest role found for {}", other);
             return ACCESS_DENIED;
         }
 
-        boolean userHasRole = roles.contains(otherHighestRole);
+        boolean userHasRole = RoleMask.contains(RoleMask.of(roles), otherHighestRole);
         log.trace("Roles {} has permission to manage other {}", roles, otherHighestRole);
 
         return userHasRole ? ACCESS_GRANTED : ACCESS_DENIED;
@@ -169,15 +192,15 @@ public abstract class BaseAccessDecisionVoter implements AccessDecisionVoter<Met
     }
 
     protected int numUsersForAccount(Long acctId) {
-        Set<AccountRights> rights =
-            new HashSet<>(repoMgr.getRightsRepo().findByAccountId(acctId));
-        return (null != rights) ? rights.size() : 0;
+        return memberCounter.getMemberCount(acctId);
+    }
+
+    protected boolean accountIsEmpty(Long acctId) {
+        return memberCounter.isEmpty(acctId);
     }
 
     protected AccountRights getUserRightsForAcct(Long userId, Long acctId) {
-        DuracloudRightsRepo rightsRepo = repoMgr.getRightsRepo();
-        AccountRights rights = rightsRepo.findByAccountIdAndUserId(acctId, userId);
-        return rights;
+        return rightsCache.getRights(acctId, userId);
     }
 
     protected Set<AccountRights> getAllUserRightsForAcct(Long acctId) {
@@ -241,7 +264,7 @@ public abstract class BaseAccessDecisionVoter implements AccessDecisionVoter<Met
 
         // Collect security constraints on method.
         SecuredRule securedRule = getRule(attributes);
-        String role = securedRule.getRole().name();
+        Role role = securedRule.getRole();
         SecuredRule.Scope scope = securedRule.getScope();
         return voteImpl(authentication, invocation, attributes, methodArgs, user, securedRule, role, scope);
     }
@@ -257,7 +280,7 @@ public abstract class BaseAccessDecisionVoter implements AccessDecisionVoter<Met
     protected abstract int voteImpl(Authentication authentication,
                                     MethodInvocation invocation,
                                     Collection<ConfigAttribute> attributes, Object[] methodArgs,
-                                    DuracloudUser user, SecuredRule securedRule, String role,
+                                    DuracloudUser user, SecuredRule securedRule, Role role,
                                     SecuredRule.Scope scope);
 
 }
@@ -9,6 +9,7 @@ package org.duracloud.account.security.vote;
 
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.util.RootAccountManagerService;
+import org.duracloud.account.db.util.security.AccountRightsCache;
 
 /**
  * This class votes on calls to the RootAccountManagerService.
@@ -22,6 +23,11 @@ public class RootAccountManagerAccessDecisionVoter extends AccountManagerAccessD
         super(repoMgr);
     }
 
+    public RootAccountManagerAccessDecisionVoter(DuracloudRepoMgr repoMgr,
+                                                 AccountRightsCache rightsCache) {
+        super(repoMgr, rightsCache);
+    }
+
     @Override
     protected Class<?> getTargetService() {
         return RootAccountManagerService.class;
@@ -17,6 +17,8 @@ import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.security.AccountMemberCounter;
+import org.duracloud.account.db.util.security.AccountRightsCache;
 import org.duracloud.account.security.domain.SecuredRule;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.slf4j.Logger;
@@ -40,8 +42,10 @@ public class UserAccessDecisionVoter extends BaseAccessDecisionVoter {
     private final int OTHER_USER_ID_INDEX = 1;
     private final int NEW_ROLES_INDEX = 2;
 
-    public UserAccessDecisionVoter(DuracloudRepoMgr repoMgr) {
-        super(repoMgr);
+    public UserAccessDecisionVoter(DuracloudRepoMgr repoMgr,
+                                   AccountRightsCache rightsCache,
+                                   AccountMemberCounter memberCounter) {
+        super(repoMgr, rightsCache, memberCounter);
     }
 
     @Override
@@ -56,12 +60,12 @@ public class UserAccessDecisionVoter extends BaseAccessDecisionVoter {
                            Object[] methodArgs,
                            DuracloudUser user,
                            SecuredRule securedRule,
-                           String role,
+                           Role role,
                            SecuredRule.Scope scope) {
 
         int decision = ACCESS_DENIED;
 
-        Collection<String> userRoles = getUserRoles(authentication);
+        int userRoles = getUserRoles(authentication);
 
         if (scope.equals(SecuredRule.Scope.ANY)) {
             decision = voteHasRole(role, userRoles);
@@ -156,10 +160,6 @@ public class UserAccessDecisionVoter extends BaseAccessDecisionVoter {
                isOwner(otherRoles) ? ACCESS_GRANTED : ACCESS_DENIED;
     }
 
-    private boolean accountIsEmpty(Long acctId) {
-        return numUsersForAccount(acctId) == 0;
-    }
-
     private boolean isOwner(Set<Role> roles) {
         return roles.contains(Role.ROLE_OWNER);
     }
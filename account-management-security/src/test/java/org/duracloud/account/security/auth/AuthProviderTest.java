@@ -7,15 +7,29 @@
  */
 package org.duracloud.account.security.auth;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
 
 import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.util.security.AuthenticatedUserCache;
+import org.duracloud.account.db.util.security.PasswordUpgrader;
 import org.easymock.EasyMock;
 import org.junit.Test;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.encoding.ShaPasswordEncoder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
 
 /**
@@ -31,16 +45,23 @@ public class AuthProviderTest {
 
         assertFalse(testIpAuthChecks("1.2.3.5"));
         assertFalse(testIpAuthChecks("1.2.7.8"));
+
+        // Ranges which cannot be read deny the request
+        assertFalse(testIpAuthChecks("1.2.3.4", "1.2.3.4/32;;1.2.5.6/30"));
+        assertFalse(testIpAuthChecks("1.2.3.4", "1.2.3.4/-1"));
     }
 
     private boolean testIpAuthChecks(String remoteAddress) {
+        return testIpAuthChecks(remoteAddress, "1.2.3.4/32;1.2.5.6/30");
+    }
+
+    private boolean testIpAuthChecks(String remoteAddress, String ipLimits) {
         AuthProvider authProvider =
             new AuthProvider(null, new ShaPasswordEncoder(256));
 
         String username = "user";
         String password = "pass";
         String passwordHash = "d74ff0ee8da3b9806b18c877dbf29bbde50b5bd8e4dad7a3a725000feb82e8f1";
-        String ipLimits = "1.2.3.4/32;1.2.5.6/30";
 
         DuracloudUser userDetails =
             EasyMock.createMock(DuracloudUser.class);
@@ -95,5 +116,136 @@ public class AuthProviderTest {
 
         assertFalse(authProvider.ipInRange("1.2.2.2", "1.2.3.4/30"));
         assertFalse(authProvider.ipInRange("1.2.3.5", "1.2.3.4/32"));
+
+        assertTrue(authProvider.ipInRange("2001:db8::1", "2001:db8::/32"));
+        assertFalse(authProvider.ipInRange("2001:db8::1", "1.2.3.4/32"));
+    }
+
+    @Test
+    public void testRangeMatcherCache() {
+        AuthProvider authProvider =
+            new AuthProvider(null, new ShaPasswordEncoder(256));
+
+        String ranges = "1.2.3.4/32;1.2.5.6/30";
+        IpRangeMatcher matcher = authProvider.getRangeMatcher(ranges);
+        assertSame(matcher, authProvider.getRangeMatcher(ranges));
+
+        // The cache is bounded
+        for (int i = 0; i < AuthProvider.MAX_CACHED_RANGES; i++) {
+            authProvider.getRangeMatcher("10.0." + (i / 256) + "." + (i % 256));
+        }
+        assertNotSame(matcher, authProvider.getRangeMatcher(ranges));
+    }
+
+    @Test
+    public void testPasswordUpgradeOnSuccess() {
+        assertEquals("user", testPasswordUpgrade(false).getName());
+    }
+
+    @Test
+    public void testPasswordUpgradeFailureAllowsLogin() {
+        assertEquals("user", testPasswordUpgrade(true).getName());
+    }
+
+    private Authentication testPasswordUpgrade(boolean upgradeFails) {
+        DuracloudUser user = EasyMock.createMock(DuracloudUser.class);
+        PasswordUpgrader upgrader = EasyMock.createMock(PasswordUpgrader.class);
+        AuthProvider authProvider =
+            new AuthProvider(null, new ShaPasswordEncoder(256), upgrader);
+
+        EasyMock.expect(user.getAuthorities())
+                .andReturn(Collections.emptyList())
+                .anyTimes();
+        EasyMock.expect(user.getUsername()).andReturn("user").anyTimes();
+        if (upgradeFails) {
+            EasyMock.expect(upgrader.upgradePassword(user, "pass"))
+                    .andThrow(new RuntimeException("expected"));
+        } else {
+            EasyMock.expect(upgrader.upgradePassword(user, "pass"))
+                    .andReturn(true);
+        }
+        EasyMock.replay(user, upgrader);
+
+        UsernamePasswordAuthenticationToken authToken =
+            new UsernamePasswordAuthenticationToken("user", "pass");
+        Authentication result =
+            authProvider.createSuccessAuthentication("user", authToken, user);
+
+        EasyMock.verify(user, upgrader);
+        return result;
+    }
+
+    @Test
+    public void testAuthenticatedUserCache() {
+        String passwordHash = "d74ff0ee8da3b9806b18c877dbf29bbde50b5bd8e4dad7a3a725000feb82e8f1";
+        DuracloudUser user = EasyMock.createMock(DuracloudUser.class);
+        UserDetailsService userDetailsService =
+            EasyMock.createMock(UserDetailsService.class);
+        AuthenticatedUserCache cache = new AuthenticatedUserCache();
+        AuthProvider authProvider =
+            new AuthProvider(userDetailsService, new ShaPasswordEncoder(256), null, cache);
+
+        // The user is loaded only once
+        EasyMock.expect(userDetailsService.loadUserByUsername("user"))
+                .andReturn(user)
+                .times(1);
+        EasyMock.expect(user.getPassword()).andReturn(passwordHash).anyTimes();
+        EasyMock.expect(user.getUsername()).andReturn("user").anyTimes();
+        EasyMock.expect(user.getAllowableIPAddressRange()).andReturn(null).anyTimes();
+        EasyMock.expect(user.isAccountNonLocked()).andReturn(true).anyTimes();
+        EasyMock.expect(user.isEnabled()).andReturn(true).anyTimes();
+        EasyMock.expect(user.isAccountNonExpired()).andReturn(true).anyTimes();
+        EasyMock.expect(user.isCredentialsNonExpired()).andReturn(true).anyTimes();
+        EasyMock.expect(user.getAuthorities())
+                .andReturn(Collections.emptyList())
+                .anyTimes();
+        EasyMock.replay(user, userDetailsService);
+
+        Authentication first = authProvider.authenticate(
+            new UsernamePasswordAuthenticationToken("user", "pass"));
+        Authentication second = authProvider.authenticate(
+            new UsernamePasswordAuthenticationToken("user", "pass"));
+        assertSame(user, first.getPrincipal());
+        assertSame(user, second.getPrincipal());
+        assertEquals(1, cache.getHitCount());
+
+        EasyMock.verify(user, userDetailsService);
+    }
+
+    @Test
+    public void testLoginThrottle() {
+        UserDetailsService userDetailsService =
+            EasyMock.createMock(UserDetailsService.class);
+        LoginThrottle throttle = new LoginThrottle(2, 10, 60000, 60000, 60000);
+        AuthProvider authProvider =
+            new AuthProvider(userDetailsService, new ShaPasswordEncoder(256),
+                             null, null, throttle);
+
+        // Once the username is locked, the user is not loaded
+        EasyMock.expect(userDetailsService.loadUserByUsername("user"))
+                .andThrow(new UsernameNotFoundException("user"))
+                .times(2);
+        EasyMock.replay(userDetailsService);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                authProvider.authenticate(
+                    new UsernamePasswordAuthenticationToken("user", "pass"));
+                fail("Exception expected");
+            } catch (BadCredentialsException e) {
+                assertNotNull(e.getMessage());
+            }
+        }
+        try {
+            authProvider.authenticate(
+                new UsernamePasswordAuthenticationToken("user", "pass"));
+            fail("Exception expected");
+        } catch (LockedException e) {
+            assertNotNull(e.getMessage());
+        }
+
+        assertEquals(2, throttle.getFailureCount());
+        assertEquals(1, throttle.getRejectedCount());
+        EasyMock.verify(userDetailsService);
     }
 }
@@ -0,0 +1,100 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.security.auth;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+/**
+ * Compares the time taken by the login IP check for a user with many allowed
+ * IP ranges using compiled, cached range matchers against splitting the
+ * ranges and building an IpAddressMatcher for each range on every login, as
+ * AuthProvider did previously. This is not run as part of the build; run it
+ * with:
+ *
+ * java -cp [test classpath] \
+ *   org.duracloud.account.security.auth.IpRangeMatcherBenchmark [ranges] [logins]
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class IpRangeMatcherBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private IpRangeMatcherBenchmark() {
+        // Run through main
+    }
+
+    public static void main(String[] args) {
+        int rangeCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int logins = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+
+        StringBuilder rangeList = new StringBuilder();
+        for (int i = 0; i < rangeCount; i++) {
+            rangeList.append(i > 0 ? ";" : "");
+            rangeList.append("10.").append(i / 256).append(".").append(i % 256).append(".0/28");
+        }
+        String ranges = rangeList.toString();
+
+        // Half of the logins come from an allowed address
+        String[] addresses = new String[logins];
+        for (int i = 0; i < logins; i++) {
+            int range = i % rangeCount;
+            addresses[i] = "10." + (range / 256) + "." + (range % 256) + "." +
+                           (i % 2 == 0 ? 5 : 200);
+        }
+
+        AuthProvider authProvider = new AuthProvider(null, NoOpPasswordEncoder.getInstance());
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            int splitMatches = 0;
+            for (String address : addresses) {
+                if (isAllowedBySplit(ranges, address)) {
+                    splitMatches++;
+                }
+            }
+            long splitNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int compiledMatches = 0;
+            for (String address : addresses) {
+                if (authProvider.getRangeMatcher(ranges).matches(address)) {
+                    compiledMatches++;
+                }
+            }
+            long compiledNanos = System.nanoTime() - start;
+
+            if (splitMatches != compiledMatches) {
+                throw new IllegalStateException("Matches differ: " + splitMatches +
+                                                " vs " + compiledMatches);
+            }
+            System.out.println(String.format(
+                "round %d, %d ranges, %d logins: split %d us/login, compiled %.2f us/login",
+                round, rangeCount, logins,
+                TimeUnit.NANOSECONDS.toMicros(splitNanos) / logins,
+                compiledNanos / 1000.0 / logins));
+        }
+    }
+
+    /*
+     * The IP check previously made by
+     * AuthProvider.additionalAuthenticationChecks
+     */
+    private static boolean isAllowedBySplit(String ranges, String address) {
+        for (String range : ranges.split(";")) {
+            if (new IpAddressMatcher(range).matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
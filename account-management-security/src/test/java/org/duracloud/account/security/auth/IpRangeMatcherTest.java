@@ -0,0 +1,121 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.security.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class IpRangeMatcherTest {
+
+    @Test
+    public void testIpv4() {
+        IpRangeMatcher matcher = IpRangeMatcher.compile("1.2.3.4/32;1.2.5.6/30;10.0.0.0/8");
+        assertTrue(matcher.matches("1.2.3.4"));
+        assertTrue(matcher.matches("1.2.5.4"));
+        assertTrue(matcher.matches("1.2.5.7"));
+        assertTrue(matcher.matches("10.255.0.1"));
+
+        assertFalse(matcher.matches("1.2.3.5"));
+        assertFalse(matcher.matches("1.2.5.8"));
+        assertFalse(matcher.matches("11.0.0.0"));
+        assertFalse(matcher.matches("::1"));
+        assertFalse(matcher.matches("not-an-address"));
+        assertFalse(matcher.matches(null));
+
+        assertTrue(IpRangeMatcher.compile("1.2.3.4").matches("1.2.3.4"));
+        assertFalse(IpRangeMatcher.compile("1.2.3.4").matches("1.2.3.5"));
+        assertTrue(IpRangeMatcher.compile("1.1.1.1/0").matches("255.255.255.255"));
+    }
+
+    @Test
+    public void testIpv6() {
+        IpRangeMatcher matcher = IpRangeMatcher.compile("2001:db8::/32;fe80::1;1.2.3.4/32");
+        assertTrue(matcher.matches("2001:db8::1"));
+        assertTrue(matcher.matches("2001:0db8:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertTrue(matcher.matches("fe80::1"));
+        assertTrue(matcher.matches("1.2.3.4"));
+
+        assertFalse(matcher.matches("2001:db9::"));
+        assertFalse(matcher.matches("fe80::2"));
+
+        // IPv4-mapped addresses are IPv4 addresses
+        assertTrue(matcher.matches("::ffff:1.2.3.4"));
+
+        assertTrue(IpRangeMatcher.compile("::/0").matches("ffff::ffff"));
+        assertTrue(IpRangeMatcher.compile("8000::/1").matches("ffff::"));
+        assertFalse(IpRangeMatcher.compile("8000::/1").matches("7fff::"));
+    }
+
+    @Test
+    public void testInvalid() {
+        verifyInvalid("127.0.0.1/");
+        verifyInvalid("xxxx");
+        verifyInvalid("localhost");
+        verifyInvalid("256.0.0.1");
+        verifyInvalid("127.0.0.1/33");
+        verifyInvalid("::1/129");
+        verifyInvalid("10.0.0.0/-1");
+        verifyInvalid("10.0.0.0/+8");
+        verifyInvalid("10.0.0.1;;10.0.0.2");
+        verifyInvalid("gg::1");
+        verifyInvalid("127.0.0.1/32 198.164.1.1/32");
+        verifyInvalid("127.0.0.1/32,198.164.1.1/32");
+        verifyInvalid("127.0.0.1/32;198.164.1.1/");
+        verifyInvalid(null);
+    }
+
+    private void verifyInvalid(String ranges) {
+        try {
+            IpRangeMatcher.compile(ranges);
+            fail("Exception expected for " + ranges);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMatchesIpAddressMatcher() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            StringBuilder ranges = new StringBuilder();
+            int count = 1 + random.nextInt(20);
+            String[] rangeList = new String[count];
+            for (int r = 0; r < count; r++) {
+                rangeList[r] = randomAddress(random) + "/" + (8 + random.nextInt(25));
+                ranges.append(r > 0 ? ";" : "").append(rangeList[r]);
+            }
+            IpRangeMatcher matcher = IpRangeMatcher.compile(ranges.toString());
+
+            for (int a = 0; a < 50; a++) {
+                String address = randomAddress(random);
+                boolean expected = false;
+                for (String range : rangeList) {
+                    expected |= new IpAddressMatcher(range).matches(address);
+                }
+                assertEquals(ranges + " " + address, expected, matcher.matches(address));
+            }
+        }
+    }
+
+    private String randomAddress(Random random) {
+        // Keeps addresses close together so that ranges overlap
+        return "10." + random.nextInt(4) + "." + random.nextInt(256) + "." + random.nextInt(256);
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.security.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.springframework.security.authentication.LockedException;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class LoginThrottleTest {
+
+    private static final long WINDOW = 1000;
+    private static final long LOCK = 100;
+    private static final long MAX_LOCK = 350;
+
+    private long now = 10000;
+
+    private LoginThrottle throttle = new LoginThrottle(3, 5, WINDOW, LOCK, MAX_LOCK) {
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    };
+
+    @Test
+    public void testMaxRecords() {
+        // Locks outlast the interval between prunes
+        long lock = 10 * LoginThrottle.PRUNE_INTERVAL_MILLIS;
+        LoginThrottle limited = new LoginThrottle(3, 5, lock, lock, lock) {
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+
+            @Override
+            protected int getMaxRecords() {
+                return 4;
+            }
+        };
+        lock(limited, "user1");
+        lock(limited, "user2");
+        limited.recordFailure("user3", null);
+        limited.recordFailure("user4", null);
+
+        // Records which are not locked make room, locks are retained
+        limited.recordFailure("user5", null);
+        assertEquals(3, limited.getTrackedCount());
+        assertFalse(isAllowed(limited, "user1", null));
+        assertFalse(isAllowed(limited, "user2", null));
+
+        lock(limited, "user5");
+        lock(limited, "user6");
+        assertEquals(4, limited.getTrackedCount());
+
+        // Every record is locked, so only the address is tracked
+        now += LoginThrottle.PRUNE_INTERVAL_MILLIS;
+        limited.recordFailure("user7", "1.2.3.4");
+        assertEquals(5, limited.getTrackedCount());
+        for (String username : new String[] {"user1", "user2", "user5", "user6"}) {
+            assertFalse(isAllowed(limited, username, null));
+        }
+    }
+
+    private void lock(LoginThrottle loginThrottle, String username) {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.recordFailure(username, null);
+        }
+    }
+
+    @Test
+    public void testUserLockout() {
+        throttle.recordFailure("user", "1.2.3.4");
+        throttle.recordFailure("user", "1.2.3.4");
+        assertTrue(isAllowed("user", "1.2.3.4"));
+
+        throttle.recordFailure("user", "1.2.3.4");
+        assertFalse(isAllowed("user", "1.2.3.4"));
+        assertFalse(isAllowed("user", "5.6.7.8"));
+        assertTrue(isAllowed("other", "1.2.3.4"));
+
+        now += LOCK;
+        assertTrue(isAllowed("user", "1.2.3.4"));
+
+        assertEquals(3, throttle.getFailureCount());
+        assertEquals(1, throttle.getLockoutCount());
+        assertEquals(2, throttle.getRejectedCount());
+    }
+
+    @Test
+    public void testProgressiveLock() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("user", null);
+        }
+        now += LOCK;
+        throttle.recordFailure("user", null);
+
+        // Second lock is twice as long
+        now += LOCK;
+        assertFalse(isAllowed("user", null));
+        now += LOCK;
+        assertTrue(isAllowed("user", null));
+
+        // Locks are no longer than the maximum
+        throttle.recordFailure("user", null);
+        now += MAX_LOCK;
+        assertTrue(isAllowed("user", null));
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        throttle.recordFailure("user", null);
+        throttle.recordFailure("user", null);
+
+        now += WINDOW;
+        throttle.recordFailure("user", null);
+        assertTrue(isAllowed("user", null));
+    }
+
+    @Test
+    public void testAddressLockout() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("user" + i, "1.2.3.4");
+        }
+        assertFalse(isAllowed("user", "1.2.3.4"));
+        assertTrue(isAllowed("user", "5.6.7.8"));
+    }
+
+    @Test
+    public void testSuccess() {
+        throttle.recordFailure("user", null);
+        throttle.recordFailure("user", null);
+        throttle.recordSuccess("user");
+
+        throttle.recordFailure("user", null);
+        assertTrue(isAllowed("user", null));
+        assertEquals(1, throttle.getTrackedCount());
+    }
+
+    private boolean isAllowed(String username, String address) {
+        return isAllowed(throttle, username, address);
+    }
+
+    private boolean isAllowed(LoginThrottle loginThrottle, String username, String address) {
+        try {
+            loginThrottle.checkAllowed(username, address);
+            return true;
+        } catch (LockedException e) {
+            return false;
+        }
+    }
+
+}
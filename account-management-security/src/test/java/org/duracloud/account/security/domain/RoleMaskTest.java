@@ -0,0 +1,62 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.security.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.duracloud.account.db.model.Role;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class RoleMaskTest {
+
+    @Test
+    public void testOf() {
+        Set<Role> roles = Role.ROLE_ADMIN.getRoleHierarchy();
+        int mask = RoleMask.of(roles);
+        for (Role role : Role.values()) {
+            Assert.assertEquals(role.name(), roles.contains(role),
+                                RoleMask.contains(mask, role));
+        }
+        Assert.assertEquals(RoleMask.NONE, RoleMask.of((Collection<Role>) null));
+    }
+
+    @Test
+    public void testOfAuthorities() {
+        Collection<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority(Role.ROLE_USER.name()));
+        authorities.add(new SimpleGrantedAuthority("ROLE_UNKNOWN"));
+
+        int mask = RoleMask.ofAuthorities(authorities);
+        Assert.assertEquals(RoleMask.of(Role.ROLE_USER), mask);
+        Assert.assertEquals(RoleMask.NONE, RoleMask.ofAuthorities(null));
+    }
+
+    @Test
+    public void testHighest() {
+        Assert.assertNull(RoleMask.highest(RoleMask.NONE));
+        for (Role role : Role.values()) {
+            Set<Role> roles = role.getRoleHierarchy();
+            Assert.assertEquals(Role.highestRole(roles),
+                                RoleMask.highest(RoleMask.of(roles)));
+        }
+
+        Set<Role> roles = EnumSet.of(Role.ROLE_USER, Role.ROLE_OWNER);
+        Assert.assertEquals(Role.ROLE_OWNER, RoleMask.highest(RoleMask.of(roles)));
+    }
+
+}
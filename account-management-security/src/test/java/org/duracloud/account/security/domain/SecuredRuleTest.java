@@ -46,6 +46,24 @@ public class SecuredRuleTest {
         Assert.assertEquals(scope, rule.getScope());
     }
 
+    @Test
+    public void testValueOf() {
+        String text = "role:" + role + ", scope:" + scope;
+        SecuredRule rule = SecuredRule.valueOf(text);
+        Assert.assertEquals(role, rule.getRole());
+        Assert.assertEquals(scope, rule.getScope());
+
+        // Each rule is parsed once
+        Assert.assertSame(rule, SecuredRule.valueOf(text));
+
+        try {
+            SecuredRule.valueOf("x:" + role + ", scope:" + scope);
+            Assert.fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
     private SecuredRule verifyRule(String text, boolean isValid) {
         SecuredRule rule = null;
         boolean valid = true;
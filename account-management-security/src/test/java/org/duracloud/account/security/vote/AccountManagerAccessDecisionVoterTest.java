@@ -216,6 +216,7 @@ public class AccountManagerAccessDecisionVoterTest {
         EasyMock.expect(inv.getArguments()).andReturn(new Object[0]);
 
         AccountManagerServiceImpl serviceImpl = new AccountManagerServiceImpl(
+            null,
             null,
             null,
             null);
@@ -22,6 +22,8 @@ import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.repo.DuracloudRightsRepo;
 import org.duracloud.account.db.util.error.DBNotFoundException;
 import org.duracloud.account.db.util.impl.DuracloudUserServiceImpl;
+import org.duracloud.account.db.util.security.AccountMemberCounter;
+import org.duracloud.account.db.util.security.AccountRightsCache;
 import org.duracloud.account.security.domain.SecuredRule;
 import org.easymock.EasyMock;
 import org.junit.After;
@@ -44,6 +46,7 @@ public class UserAccessDecisionVoterTest {
     private UserAccessDecisionVoter voter;
 
     private DuracloudRepoMgr repoMgr;
+    private AccountMemberCounter memberCounter;
 
     private Authentication authentication;
     private MethodInvocation invocation;
@@ -56,11 +59,13 @@ public class UserAccessDecisionVoterTest {
     public void setUp() throws Exception {
         repoMgr = EasyMock.createMock("DuracloudRepoMgr",
                                       DuracloudRepoMgr.class);
+        memberCounter = EasyMock.createMock("AccountMemberCounter",
+                                            AccountMemberCounter.class);
     }
 
     @After
     public void tearDown() throws Exception {
-        EasyMock.verify(authentication, repoMgr, invocation);
+        EasyMock.verify(authentication, repoMgr, memberCounter, invocation);
     }
 
     @Test
@@ -89,7 +94,8 @@ public class UserAccessDecisionVoterTest {
 
     private void doTest(int expectedDecision) {
         replayMocks();
-        voter = new UserAccessDecisionVoter(repoMgr);
+        voter = new UserAccessDecisionVoter(repoMgr, new AccountRightsCache(repoMgr),
+                                            memberCounter);
 
         int decision = voter.vote(authentication, invocation, securityConfig);
         Assert.assertEquals(expectedDecision, decision);
@@ -434,6 +440,11 @@ public class UserAccessDecisionVoterTest {
                                                        .getMethods()[0]);
 
         DuracloudUserServiceImpl serviceImpl = new DuracloudUserServiceImpl(null,
+                                                                            null,
+                                                                            null,
+                                                                            null,
+                                                                            null,
+                                                                            null,
                                                                             null,
                                                                             null,
                                                                             null,
@@ -473,7 +484,7 @@ public class UserAccessDecisionVoterTest {
     }
 
     private void replayMocks() {
-        EasyMock.replay(authentication, repoMgr, invocation);
+        EasyMock.replay(authentication, repoMgr, memberCounter, invocation);
     }
 
 }
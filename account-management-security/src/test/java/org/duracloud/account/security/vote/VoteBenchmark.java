@@ -0,0 +1,158 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.security.vote;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.util.impl.AccountManagerServiceImpl;
+import org.duracloud.account.security.domain.SecuredRule;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.SecurityConfig;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Compares the time taken by vote() on a role check against parsing the
+ * secured rule and collecting the user's authorities into a set for each
+ * vote, as the voters did previously. This is not run as part of the build;
+ * run it with:
+ *
+ * java -cp [test classpath] \
+ *   org.duracloud.account.security.vote.VoteBenchmark [votes]
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class VoteBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private VoteBenchmark() {
+        // Run through main
+    }
+
+    public static void main(String[] args) throws Exception {
+        int votes = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+        DuracloudUser user = new DuracloudUser();
+        user.setId(5L);
+        user.setUsername("username");
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (Role role : Role.ROLE_USER.getRoleHierarchy()) {
+            authorities.add(new SimpleGrantedAuthority(role.name()));
+        }
+        Authentication authentication =
+            new UsernamePasswordAuthenticationToken(user, "password", authorities);
+
+        String rule = "role:" + Role.ROLE_USER.name() + ",scope:" + SecuredRule.Scope.ANY;
+        Collection<ConfigAttribute> attributes =
+            Collections.singletonList(new SecurityConfig(rule));
+        MethodInvocation invocation =
+            new BenchmarkInvocation(new AccountManagerServiceImpl(null, null, null, null));
+        AccountManagerAccessDecisionVoter voter = new AccountManagerAccessDecisionVoter(null);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            int parsedGrants = 0;
+            for (int i = 0; i < votes; i++) {
+                if (voteByParsing(authentication, attributes) ==
+                    AccessDecisionVoter.ACCESS_GRANTED) {
+                    parsedGrants++;
+                }
+            }
+            long parsedNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int maskGrants = 0;
+            for (int i = 0; i < votes; i++) {
+                if (voter.vote(authentication, invocation, attributes) ==
+                    AccessDecisionVoter.ACCESS_GRANTED) {
+                    maskGrants++;
+                }
+            }
+            long maskNanos = System.nanoTime() - start;
+
+            if (parsedGrants != maskGrants) {
+                throw new IllegalStateException("Votes differ: " + parsedGrants +
+                                                " vs " + maskGrants);
+            }
+            System.out.println(String.format(
+                "round %d, %d votes: parsed %d ms, vote() %d ms",
+                round, votes,
+                TimeUnit.NANOSECONDS.toMillis(parsedNanos),
+                TimeUnit.NANOSECONDS.toMillis(maskNanos)));
+        }
+    }
+
+    /*
+     * The role check previously made by BaseAccessDecisionVoter for a rule
+     * with scope ANY
+     */
+    private static int voteByParsing(Authentication authentication,
+                                     Collection<ConfigAttribute> attributes) {
+        SecuredRule rule = new SecuredRule(attributes.iterator().next().getAttribute());
+        String role = rule.getRole().name();
+
+        Set<String> roles = new HashSet<String>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        return roles.contains(role) ?
+               AccessDecisionVoter.ACCESS_GRANTED : AccessDecisionVoter.ACCESS_DENIED;
+    }
+
+    private static class BenchmarkInvocation implements MethodInvocation {
+        private final Object target;
+        private final Method method;
+
+        BenchmarkInvocation(Object target) throws NoSuchMethodException {
+            this.target = target;
+            this.method = Object.class.getMethod("toString");
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return new Object[0];
+        }
+
+        @Override
+        public Object proceed() {
+            return null;
+        }
+
+        @Override
+        public Object getThis() {
+            return target;
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return method;
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import org.duracloud.account.db.model.Role;
+
+/**
+ * A read-only view of a user of one account, with the highest role the user
+ * holds in that account. It is read by query rather than through the user
+ * entity, so reading members neither loads nor changes any user or rights.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class AccountMember {
+
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String allowableIPAddressRange;
+    private boolean root;
+    private Role role;
+
+    public AccountMember(Long id,
+                         String username,
+                         String firstName,
+                         String lastName,
+                         String email,
+                         String allowableIPAddressRange,
+                         boolean root,
+                         Role role) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.allowableIPAddressRange = allowableIPAddressRange;
+        this.root = root;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getAllowableIPAddressRange() {
+        return allowableIPAddressRange;
+    }
+
+    public boolean isRoot() {
+        return root;
+    }
+
+    /**
+     * @return the highest role of the user in the account
+     */
+    public Role getRole() {
+        return role;
+    }
+
+}
@@ -7,6 +7,7 @@
  */
 package org.duracloud.account.db.util;
 
+import java.util.List;
 import java.util.Set;
 
 import org.duracloud.account.db.model.AccountInfo;
@@ -100,6 +101,13 @@ public interface AccountService {
     @Secured({"role:ROLE_ANONYMOUS, scope:ANY"})
     public Set<DuracloudUser> getUsers();
 
+    /**
+     * @return the members of this account, each with their role in it,
+     *         ordered by username
+     */
+    @Secured({"role:ROLE_ANONYMOUS, scope:ANY"})
+    public List<AccountMember> getMembers();
+
     /**
      * Invites a user to join this account by sending a notification to the
      * provided email address. The invitation sent to the user is also
@@ -0,0 +1,166 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a sorted listing. Pages are addressed by key rather than by
+ * offset: the next page begins after the sort value and ID of the last item
+ * of this page, so it is found through the sort index however deep into the
+ * listing it lies, and is unaffected by items added, removed or renamed on
+ * earlier pages, including the last item itself. The previous page likewise
+ * ends before the sort value and ID of the first item of this page.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private List<T> content;
+    private long total;
+    private Key prevKey;
+    private Key nextKey;
+
+    /**
+     * @param content items on the page
+     * @param total   number of items in the listing, across all pages
+     * @param nextKey key of the last item on the page, or null if there are no
+     *                further pages
+     */
+    public KeysetPage(List<T> content, long total, Key nextKey) {
+        this(content, total, null, nextKey);
+    }
+
+    /**
+     * @param content items on the page
+     * @param total   number of items in the listing, across all pages
+     * @param prevKey key of the first item on the page, or null if this is
+     *                the first page
+     * @param nextKey key of the last item on the page, or null if there are no
+     *                further pages
+     */
+    public KeysetPage(List<T> content, long total, Key prevKey, Key nextKey) {
+        this.content = Collections.unmodifiableList(content);
+        this.total = total;
+        this.prevKey = prevKey;
+        this.nextKey = nextKey;
+    }
+
+    /**
+     * @param size requested page size
+     * @return the page size to use, within 1 and MAX_SIZE
+     */
+    public static int boundSize(int size) {
+        if (size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Key getPrevKey() {
+        return prevKey;
+    }
+
+    public Key getNextKey() {
+        return nextKey;
+    }
+
+    public boolean hasPrevious() {
+        return null != prevKey;
+    }
+
+    public boolean hasNext() {
+        return null != nextKey;
+    }
+
+    /**
+     * The position of an item in a listing: its sort value and its ID. The
+     * string form, "id:sortValue", is used as the page parameter of the root
+     * console, and is read back by valueOf.
+     */
+    public static class Key {
+
+        private static final char SEPARATOR = ':';
+
+        private final String sortValue;
+        private final Long id;
+
+        public Key(String sortValue, Long id) {
+            if (null == id) {
+                throw new IllegalArgumentException("A page key must have an ID");
+            }
+            this.sortValue = null == sortValue ? "" : sortValue;
+            this.id = id;
+        }
+
+        /**
+         * @param key string form of a key, as given by toString
+         * @return the key, or null if the string is null or empty
+         * @throws IllegalArgumentException if the string is not a key
+         */
+        public static Key valueOf(String key) {
+            if (null == key || key.isEmpty()) {
+                return null;
+            }
+            int separator = key.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Not a page key: " + key);
+            }
+            try {
+                return new Key(key.substring(separator + 1),
+                               Long.valueOf(key.substring(0, separator)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a page key: " + key, e);
+            }
+        }
+
+        public String getSortValue() {
+            return sortValue;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return id.equals(other.id) && sortValue.equals(other.sortValue);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id.hashCode() + sortValue.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return id + String.valueOf(SEPARATOR) + sortValue;
+        }
+    }
+
+}
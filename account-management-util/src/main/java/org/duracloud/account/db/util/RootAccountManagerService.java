@@ -10,6 +10,7 @@ package org.duracloud.account.db.util;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.duracloud.account.db.model.AccountInfo;
 import org.duracloud.account.db.model.DuracloudUser;
@@ -29,24 +30,98 @@ public interface RootAccountManagerService {
     /**
      * @param filter optional filter on org name
      * @return
+     * @deprecated loads every account; use listAccounts, which pages
      */
+    @Deprecated
     @Secured({"role:ROLE_ROOT, scope:ANY"})
     public Set<AccountInfo> listAllAccounts(String filter);
 
     /**
      * @param filter optional filter on username
      * @return
+     * @deprecated loads every user; use listUsers, which pages, or
+     *             exportUsers to read every user
      */
+    @Deprecated
     @Secured({"role:ROLE_ROOT, scope:ANY"})
     public Set<DuracloudUser> listAllUsers(String filter);
 
     /**
      * @param filter optional filter on username
      * @return
+     * @deprecated loads every user; use listRootUsers, which pages
      */
+    @Deprecated
     @Secured({"role:ROLE_ROOT, scope:ANY"})
     public Set<DuracloudUser> listAllRootUsers(String filter);
 
+    /**
+     * Lists one page of accounts, sorted by account name. Paging is applied
+     * by the query, and a filter is answered by the account search index.
+     *
+     * @param filter optional text to find, ignoring case, in the account name,
+     *               organization, department or subdomain
+     * @param after  key of the last account on the previous page, or null
+     *               for the first page
+     * @param before key of the first account on the following page, to page
+     *               backward when there is no after key. If there is not a
+     *               full page before the key, the first page is returned.
+     * @param size   maximum number of accounts on the page
+     * @return
+     */
+    @Secured({"role:ROLE_ROOT, scope:ANY"})
+    public KeysetPage<AccountInfo> listAccounts(String filter,
+                                                 KeysetPage.Key after,
+                                                 KeysetPage.Key before,
+                                                 int size);
+
+    /**
+     * Lists one page of users, sorted by username. Paging is applied by the
+     * query, and a filter is answered by the user search index.
+     *
+     * @param filter optional text to find, ignoring case, in the username,
+     *               first name, last name or email
+     * @param after  key of the last user on the previous page, or null for
+     *               the first page
+     * @param before key of the first user on the following page, to page
+     *               backward when there is no after key
+     * @param size   maximum number of users on the page
+     * @return
+     */
+    @Secured({"role:ROLE_ROOT, scope:ANY"})
+    public KeysetPage<DuracloudUser> listUsers(String filter,
+                                                KeysetPage.Key after,
+                                                KeysetPage.Key before,
+                                                int size);
+
+    /**
+     * Lists one page of root users, as listUsers does for all users.
+     *
+     * @param filter optional text to find, ignoring case, in the username,
+     *               first name, last name or email
+     * @param after  key of the last user on the previous page, or null for
+     *               the first page
+     * @param before key of the first user on the following page, to page
+     *               backward when there is no after key
+     * @param size   maximum number of users on the page
+     * @return
+     */
+    @Secured({"role:ROLE_ROOT, scope:ANY"})
+    public KeysetPage<DuracloudUser> listRootUsers(String filter,
+                                                    KeysetPage.Key after,
+                                                    KeysetPage.Key before,
+                                                    int size);
+
+    /**
+     * Passes every user, with the role held in each of their accounts, to
+     * the consumer in order of username. Users are read in batches, so the
+     * memory used does not grow with the number of users.
+     *
+     * @param consumer of each user in turn
+     */
+    @Secured({"role:ROLE_ROOT, scope:ANY"})
+    public void exportUsers(Consumer<UserAccountRoles> consumer);
+
     /**
      * Add root to a user
      *
@@ -0,0 +1,101 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.duracloud.account.db.model.Role;
+
+/**
+ * A read-only view of a user and the role the user holds in each of their
+ * accounts. It is read by query rather than through the user entity, so
+ * holding one keeps no entity, or its lazily loaded rights, in memory.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class UserAccountRoles {
+
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private List<AccountRole> accountRoles;
+
+    public UserAccountRoles(Long id,
+                            String username,
+                            String firstName,
+                            String lastName,
+                            String email,
+                            List<AccountRole> accountRoles) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.accountRoles = Collections.unmodifiableList(accountRoles);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * @return the user's accounts, ordered by account name
+     */
+    public List<AccountRole> getAccountRoles() {
+        return accountRoles;
+    }
+
+    /**
+     * The highest role a user holds in one account.
+     */
+    public static class AccountRole {
+
+        private Long accountId;
+        private String accountName;
+        private Role role;
+
+        public AccountRole(Long accountId, String accountName, Role role) {
+            this.accountId = accountId;
+            this.accountName = accountName;
+            this.role = role;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        public String getAccountName() {
+            return accountName;
+        }
+
+        public Role getRole() {
+            return role;
+        }
+    }
+
+}
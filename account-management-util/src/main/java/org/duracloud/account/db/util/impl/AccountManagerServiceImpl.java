@@ -23,6 +23,7 @@ import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.AccountServiceFactory;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.duracloud.account.db.util.error.SubdomainAlreadyExistsException;
+import org.duracloud.account.db.util.search.AccountSearchIndex;
 import org.duracloud.account.db.util.sys.EventMonitor;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.slf4j.Logger;
@@ -40,13 +41,16 @@ public class AccountManagerServiceImpl implements AccountManagerService {
     private DuracloudRepoMgr repoMgr;
     private AccountServiceFactory accountServiceFactory;
     private Set<EventMonitor> eventMonitors;
+    private AccountSearchIndex accountSearchIndex;
 
     public AccountManagerServiceImpl(DuracloudRepoMgr duracloudRepoMgr,
                                      AccountServiceFactory accountServiceFactory,
-                                     Set<EventMonitor> eventMonitors) {
+                                     Set<EventMonitor> eventMonitors,
+                                     AccountSearchIndex accountSearchIndex) {
         this.repoMgr = duracloudRepoMgr;
         this.accountServiceFactory = accountServiceFactory;
         this.eventMonitors = eventMonitors;
+        this.accountSearchIndex = accountSearchIndex;
     }
 
     @Override
@@ -107,6 +111,7 @@ public class AccountManagerServiceImpl implements AccountManagerService {
         accountInfo.setDepartment(accountCreationInfo.getDepartment());
         accountInfo.setStatus(status);
         accountInfo = repoMgr.getAccountRepo().save(accountInfo);
+        accountSearchIndex.accountChanged(accountInfo);
         return accountServiceFactory.getAccount(accountInfo);
     }
 
@@ -15,8 +15,10 @@ import org.duracloud.account.db.util.AccountServiceFactory;
 import org.duracloud.account.db.util.EmailTemplateService;
 import org.duracloud.account.db.util.error.AccountNotFoundException;
 import org.duracloud.account.db.util.notification.NotificationMgr;
+import org.duracloud.account.db.util.search.AccountSearchIndex;
 import org.duracloud.account.db.util.security.AnnotationParser;
 import org.duracloud.account.db.util.security.SecurityContextUtil;
+import org.duracloud.account.db.util.util.UserFinderUtil;
 import org.duracloud.common.changenotifier.AccountChangeNotifier;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.error.NoUserLoggedInException;
@@ -47,6 +49,8 @@ public class AccountServiceFactoryImpl implements AccountServiceFactory {
     private AccountChangeNotifier accountChangeNotifier;
     private NotificationMgr notificationMgr;
     private EmailTemplateService emailTemplateService;
+    private AccountSearchIndex accountSearchIndex;
+    private UserFinderUtil userFinderUtil;
 
     @Autowired
     public AccountServiceFactoryImpl(DuracloudRepoMgr repoMgr,
@@ -56,7 +60,9 @@ public class AccountServiceFactoryImpl implements AccountServiceFactory {
                                      AmaEndpoint amaEndpoint,
                                      AccountChangeNotifier accountChangeNotifier,
                                      NotificationMgr notificationMgr,
-                                     EmailTemplateService emailTemplateService) {
+                                     EmailTemplateService emailTemplateService,
+                                     AccountSearchIndex accountSearchIndex,
+                                     UserFinderUtil userFinderUtil) {
         this.repoMgr = repoMgr;
         this.voter = voter;
         this.securityContext = securityContext;
@@ -65,6 +71,8 @@ public class AccountServiceFactoryImpl implements AccountServiceFactory {
         this.accountChangeNotifier = accountChangeNotifier;
         this.notificationMgr = notificationMgr;
         this.emailTemplateService = emailTemplateService;
+        this.accountSearchIndex = accountSearchIndex;
+        this.userFinderUtil = userFinderUtil;
     }
 
     @Override
@@ -81,7 +89,9 @@ public class AccountServiceFactoryImpl implements AccountServiceFactory {
                                                             repoMgr,
                                                             accountChangeNotifier,
                                                             notificationMgr,
-                                                            emailTemplateService);
+                                                            emailTemplateService,
+                                                            accountSearchIndex,
+                                                            userFinderUtil);
 
         Authentication authentication = getAuthentication();
         return new AccountServiceSecuredImpl(acctService,
@@ -14,17 +14,18 @@ import java.util.Set;
 
 import org.duracloud.account.config.AmaEndpoint;
 import org.duracloud.account.db.model.AccountInfo;
-import org.duracloud.account.db.model.AccountRights;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.model.UserInvitation;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
-import org.duracloud.account.db.repo.DuracloudRightsRepo;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.EmailTemplateService;
 import org.duracloud.account.db.util.error.DuracloudProviderAccountNotAvailableException;
 import org.duracloud.account.db.util.notification.NotificationMgr;
 import org.duracloud.account.db.util.notification.Notifier;
+import org.duracloud.account.db.util.search.AccountSearchIndex;
+import org.duracloud.account.db.util.util.UserFinderUtil;
 import org.duracloud.common.changenotifier.AccountChangeNotifier;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.storage.domain.StorageProviderType;
@@ -42,6 +43,8 @@ public class AccountServiceImpl implements AccountService {
     private DuracloudRepoMgr repoMgr;
     private AccountChangeNotifier accountChangeNotifier;
     private Notifier notifier;
+    private AccountSearchIndex accountSearchIndex;
+    private UserFinderUtil userFinderUtil;
 
     /**
      * @param acct
@@ -51,28 +54,25 @@ public class AccountServiceImpl implements AccountService {
                               DuracloudRepoMgr repoMgr,
                               AccountChangeNotifier accountChangeNotifier,
                               NotificationMgr notificationMgr,
-                              EmailTemplateService emailTemplateService) {
+                              EmailTemplateService emailTemplateService,
+                              AccountSearchIndex accountSearchIndex,
+                              UserFinderUtil userFinderUtil) {
         this.account = acct;
         this.repoMgr = repoMgr;
         this.accountChangeNotifier = accountChangeNotifier;
+        this.accountSearchIndex = accountSearchIndex;
+        this.userFinderUtil = userFinderUtil;
         this.notifier = new Notifier(notificationMgr.getEmailer(), amaEndpoint, emailTemplateService);
     }
 
     @Override
     public Set<DuracloudUser> getUsers() {
-        DuracloudRightsRepo rightsRepo = repoMgr.getRightsRepo();
-
-        Set<DuracloudUser> users = new HashSet<DuracloudUser>();
-        List<AccountRights> rights =
-            rightsRepo.findByAccountId(account.getId());
-
-        for (AccountRights right : rights) {
-            DuracloudUser user = right.getUser();
-            user.getAccountRights().size();  // lazy load the user's accout rights
-            users.add(user);
-        }
+        return userFinderUtil.getAccountUsers(account.getId());
+    }
 
-        return users;
+    @Override
+    public List<AccountMember> getMembers() {
+        return userFinderUtil.getAccountMembers(account.getId());
     }
 
     @Override
@@ -183,6 +183,7 @@ public class AccountServiceImpl implements AccountService {
         account.setOrgName(orgName);
         account.setDepartment(department);
         repoMgr.getAccountRepo().save(account);
+        accountSearchIndex.accountChanged(account);
     }
 
     @Override
@@ -7,19 +7,27 @@
  */
 package org.duracloud.account.db.util.impl;
 
-import java.util.HashSet;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.duracloud.account.db.model.AccountInfo;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.model.UserInvitation;
+import org.duracloud.account.db.util.AccountMember;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.error.AccessDeniedException;
 import org.duracloud.account.db.util.security.AnnotationParser;
 import org.duracloud.account.db.util.security.impl.MethodInvocationImpl;
+import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,11 +41,17 @@ import org.springframework.security.core.Authentication;
  * This class wraps another AccountService implementation with
  * AccessDecisionVoter security checks based on the AccountService annotations.
  *
+ * Each secured method passes its own name to the access check, which finds
+ * the method in a table built once for this class, so that no stack walk or
+ * reflection is needed per call.
+ *
  * @author Andrew Woods
  * Date: 4/7/11
  */
 public class AccountServiceSecuredImpl implements AccountService {
 
+    private static final Map<String, Method> METHODS = findMethods();
+
     private Logger log = LoggerFactory.getLogger(AccountServiceSecuredImpl.class);
 
     private AccountService accountService;
@@ -45,6 +59,7 @@ public class AccountServiceSecuredImpl implements AccountService {
     private AccessDecisionVoter voter;
 
     private Map<String, Object[]> methodMap;
+    private Map<String, Collection<ConfigAttribute>> configAtts = new ConcurrentHashMap<>();
 
     public AccountServiceSecuredImpl(AccountService accountService,
                                      Authentication authentication,
@@ -54,39 +69,64 @@ public class AccountServiceSecuredImpl implements AccountService {
         this.authentication = authentication;
         this.voter = voter;
         this.methodMap = annotationParser.getMethodAnnotationsForClass(Secured.class,
-                                                                       this.getClass());
+                                                                       AccountService.class);
+    }
+
+    /*
+     * Maps the name of each AccountService method to its implementation in
+     * this class. AccountService does not overload method names.
+     */
+    private static Map<String, Method> findMethods() {
+        Map<String, Method> methods = new HashMap<>();
+        for (Method method : AccountService.class.getMethods()) {
+            try {
+                methods.put(method.getName(),
+                            AccountServiceSecuredImpl.class.getMethod(method.getName(),
+                                                                      method.getParameterTypes()));
+            } catch (NoSuchMethodException e) {
+                throw new DuraCloudRuntimeException(e);
+            }
+        }
+        return Collections.unmodifiableMap(methods);
     }
 
-    private void throwIfAccessDenied(Object... args) {
-        String methodName = getCurrentMethodName();
-
-        Set<ConfigAttribute> configAtts = new HashSet<ConfigAttribute>();
-        for (Object obj : methodMap.get(methodName)) {
-            configAtts.add(new SecurityConfig((String) obj));
+    private void throwIfAccessDenied(String methodName, Object... args) {
+        Method method = METHODS.get(methodName);
+        if (null == method) {
+            throw new DuraCloudRuntimeException("Unknown method: " + methodName);
         }
 
-        MethodInvocation invocation = new MethodInvocationImpl(this,
-                                                               methodName,
-                                                               args);
-        int decision = voter.vote(authentication, invocation, configAtts);
+        MethodInvocation invocation = new MethodInvocationImpl(this, method, args);
+        int decision = voter.vote(authentication,
+                                  invocation,
+                                  configAtts.computeIfAbsent(methodName, this::getConfigAtts));
         if (decision != AccessDecisionVoter.ACCESS_GRANTED) {
             throw new AccessDeniedException("Access denied");
         }
     }
 
-    private String getCurrentMethodName() {
-        return Thread.currentThread().getStackTrace()[3].getMethodName();
+    private Collection<ConfigAttribute> getConfigAtts(String methodName) {
+        Object[] rules = methodMap.get(methodName);
+        if (null == rules) {
+            throw new DuraCloudRuntimeException("No security rule for method: " + methodName);
+        }
+
+        List<ConfigAttribute> atts = new ArrayList<>();
+        for (Object rule : rules) {
+            atts.add(new SecurityConfig((String) rule));
+        }
+        return Collections.unmodifiableList(atts);
     }
 
     @Override
     public Long getAccountId() {
-        throwIfAccessDenied();
+        throwIfAccessDenied("getAccountId");
         return accountService.getAccountId();
     }
 
     @Override
     public AccountInfo retrieveAccountInfo() {
-        throwIfAccessDenied();
+        throwIfAccessDenied("retrieveAccountInfo");
         return accountService.retrieveAccountInfo();
     }
 
@@ -94,73 +134,79 @@ public class AccountServiceSecuredImpl implements AccountService {
     public void storeAccountInfo(String acctName,
                                  String orgName,
                                  String department) {
-        throwIfAccessDenied(acctName, orgName, department);
+        throwIfAccessDenied("storeAccountInfo", acctName, orgName, department);
         accountService.storeAccountInfo(acctName, orgName, department);
     }
 
     @Override
     public void storeAccountStatus(AccountInfo.AccountStatus status) {
-        throwIfAccessDenied(status);
+        throwIfAccessDenied("storeAccountStatus", status);
         accountService.storeAccountStatus(status);
     }
 
     @Override
     public String getSubdomain() {
-        throwIfAccessDenied();
+        throwIfAccessDenied("getSubdomain");
         return accountService.getSubdomain();
     }
 
     @Override
     public StorageProviderAccount getPrimaryStorageProvider() {
-        throwIfAccessDenied();
+        throwIfAccessDenied("getPrimaryStorageProvider");
         return accountService.getPrimaryStorageProvider();
     }
 
     @Override
     public Set<StorageProviderAccount> getSecondaryStorageProviders() {
-        throwIfAccessDenied();
+        throwIfAccessDenied("getSecondaryStorageProviders");
         return accountService.getSecondaryStorageProviders();
     }
 
     @Override
     public void addStorageProvider(StorageProviderType storageProviderType) {
-        throwIfAccessDenied(storageProviderType);
+        throwIfAccessDenied("addStorageProvider", storageProviderType);
         accountService.addStorageProvider(storageProviderType);
     }
 
     @Override
     public void removeStorageProvider(Long storageProviderId) {
-        throwIfAccessDenied(storageProviderId);
+        throwIfAccessDenied("removeStorageProvider", storageProviderId);
         accountService.removeStorageProvider(storageProviderId);
     }
 
     @Override
     public void changePrimaryStorageProvider(Long storageProviderId) {
-        throwIfAccessDenied(storageProviderId);
+        throwIfAccessDenied("changePrimaryStorageProvider", storageProviderId);
         accountService.changePrimaryStorageProvider(storageProviderId);
     }
 
     @Override
     public Set<DuracloudUser> getUsers() {
-        throwIfAccessDenied();
+        throwIfAccessDenied("getUsers");
         return accountService.getUsers();
     }
 
+    @Override
+    public List<AccountMember> getMembers() {
+        throwIfAccessDenied("getMembers");
+        return accountService.getMembers();
+    }
+
     @Override
     public UserInvitation inviteUser(String emailAddress, String adminUsername) {
-        throwIfAccessDenied(emailAddress, adminUsername);
+        throwIfAccessDenied("inviteUser", emailAddress, adminUsername);
         return accountService.inviteUser(emailAddress, adminUsername);
     }
 
     @Override
     public Set<UserInvitation> getPendingInvitations() {
-        throwIfAccessDenied();
+        throwIfAccessDenied("getPendingInvitations");
         return accountService.getPendingInvitations();
     }
 
     @Override
     public void deleteUserInvitation(Long invitationId) {
-        throwIfAccessDenied(invitationId);
+        throwIfAccessDenied("deleteUserInvitation", invitationId);
         accountService.deleteUserInvitation(invitationId);
     }
 
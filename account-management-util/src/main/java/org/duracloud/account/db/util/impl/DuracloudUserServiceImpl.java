@@ -19,7 +19,6 @@ import org.duracloud.account.db.model.DuracloudGroup;
 import org.duracloud.account.db.model.DuracloudUser;
 import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.model.UserInvitation;
-import org.duracloud.account.db.repo.DuracloudGroupRepo;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
 import org.duracloud.account.db.repo.DuracloudRightsRepo;
 import org.duracloud.account.db.repo.DuracloudUserInvitationRepo;
@@ -36,6 +35,12 @@ import org.duracloud.account.db.util.error.UnsentEmailException;
 import org.duracloud.account.db.util.error.UserAlreadyExistsException;
 import org.duracloud.account.db.util.notification.NotificationMgr;
 import org.duracloud.account.db.util.notification.Notifier;
+import org.duracloud.account.db.util.search.UserSearchIndex;
+import org.duracloud.account.db.util.security.AccountRightsCache;
+import org.duracloud.account.db.util.security.AdaptivePasswordEncoder;
+import org.duracloud.account.db.util.security.AuthenticatedUserCache;
+import org.duracloud.account.db.util.security.PasswordUpgrader;
+import org.duracloud.account.db.util.util.GroupMembershipUtil;
 import org.duracloud.common.changenotifier.AccountChangeNotifier;
 import org.duracloud.common.util.ChecksumUtil;
 import org.slf4j.Logger;
@@ -51,7 +56,7 @@ import org.springframework.stereotype.Component;
  * Date: Oct 9, 2010
  */
 @Component("duracloudUserService")
-public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetailsService {
+public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetailsService, PasswordUpgrader {
 
     private Logger log = LoggerFactory.getLogger(DuracloudUserServiceImpl.class);
 
@@ -61,18 +66,33 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
     private AmaEndpoint amaEndpoint;
     private EmailTemplateService emailTemplateService;
     private AccountChangeNotifier accountChangeNotifier;
+    private AccountRightsCache accountRightsCache;
+    private AdaptivePasswordEncoder passwordEncoder;
+    private AuthenticatedUserCache authenticatedUserCache;
+    private UserSearchIndex userSearchIndex;
+    private GroupMembershipUtil groupMembershipUtil;
 
     @Autowired
     public DuracloudUserServiceImpl(DuracloudRepoMgr duracloudRepoMgr,
                                     NotificationMgr notificationMgr,
                                     AmaEndpoint amaEndpoint,
                                     AccountChangeNotifier accountChangeNotifier,
-                                    EmailTemplateService emailTemplateService) {
+                                    EmailTemplateService emailTemplateService,
+                                    AccountRightsCache accountRightsCache,
+                                    AdaptivePasswordEncoder passwordEncoder,
+                                    AuthenticatedUserCache authenticatedUserCache,
+                                    UserSearchIndex userSearchIndex,
+                                    GroupMembershipUtil groupMembershipUtil) {
         this.repoMgr = duracloudRepoMgr;
         this.notificationMgr = notificationMgr;
         this.amaEndpoint = amaEndpoint;
         this.accountChangeNotifier = accountChangeNotifier;
         this.emailTemplateService = emailTemplateService;
+        this.accountRightsCache = accountRightsCache;
+        this.passwordEncoder = passwordEncoder;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.userSearchIndex = userSearchIndex;
+        this.groupMembershipUtil = groupMembershipUtil;
     }
 
     @Override
@@ -129,17 +149,16 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
 
         checkUsername(username);
 
-        ChecksumUtil util = new ChecksumUtil(ChecksumUtil.Algorithm.SHA_256);
-
         DuracloudUser user = new DuracloudUser();
         user.setUsername(username);
-        user.setPassword(util.generateChecksum(password));
+        user.setPassword(passwordEncoder.encode(password));
         user.setFirstName(firstName);
         user.setLastName(lastName);
         user.setEmail(email);
         user.setSecurityQuestion(securityQuestion);
         user.setSecurityAnswer(securityAnswer);
         repoMgr.getUserRepo().save(user);
+        userSearchIndex.userChanged(user);
 
         log.info("New user created with username {}", username);
         getNotifier().sendNotificationCreateNewUser(user);
@@ -237,6 +256,10 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
         }
 
         repoMgr.getRightsRepo().save(rights);
+        accountRightsCache.invalidate(acctId, userId);
+        if (null != rights.getUser()) {
+            authenticatedUserCache.invalidate(rights.getUser().getUsername());
+        }
     }
 
     @Override
@@ -244,7 +267,7 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
         log.info("Revoking rights for user {} on account {}", userId, acctId);
 
         doRevokeUserRights(acctId, userId);
-        removeUserFromAccountGroups(acctId, userId);
+        groupMembershipUtil.removeUserFromAccountGroups(acctId, userId);
         notifyAccountChanged(acctId);
     }
 
@@ -258,19 +281,8 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
             user.getAccountRights().remove(rights);
             userRepo.saveAndFlush(user);
             rightsRepo.delete(rights.getId());
-        }
-    }
-
-    private void removeUserFromAccountGroups(Long acctId, Long userId) {
-        DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
-        DuracloudGroupRepo groupRepo = repoMgr.getGroupRepo();
-        List<DuracloudGroup> acctGroups = groupRepo.findByAccountId(acctId);
-        for (DuracloudGroup group : acctGroups) {
-            Set<DuracloudUser> groupUsers = group.getUsers();
-            if (groupUsers.contains(user)) {
-                groupUsers.remove(user);
-                groupRepo.save(group);
-            }
+            accountRightsCache.invalidate(acctId, userId);
+            authenticatedUserCache.invalidate(user.getUsername());
         }
     }
 
@@ -283,21 +295,23 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
         if (null != newPassword && !newPassword.equals(oldPassword)) {
             log.info("Changing password for user with ID {}", userId);
 
-            ChecksumUtil util = new ChecksumUtil(ChecksumUtil.Algorithm.SHA_256);
-
             DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
             if (user == null) {
                 throw new DBNotFoundException("User with ID: " + userId + " does not exist.");
             }
-            if (!oldPasswordEncoded) {
-                oldPassword = util.generateChecksum(oldPassword);
+            boolean oldPasswordValid;
+            if (oldPasswordEncoded) {
+                oldPasswordValid = user.getPassword().equals(oldPassword);
+            } else {
+                oldPasswordValid = passwordEncoder.matches(oldPassword, user.getPassword());
             }
-            if (!user.getPassword().equals(oldPassword)) {
+            if (!oldPasswordValid) {
                 throw new InvalidPasswordException(userId);
             }
 
-            user.setPassword(util.generateChecksum(newPassword));
+            user.setPassword(passwordEncoder.encode(newPassword));
             repoMgr.getUserRepo().save(user);
+            authenticatedUserCache.invalidate(user.getUsername());
 
             propagateUserUpdate(userId);
         }
@@ -346,6 +360,28 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
         }
     }
 
+    @Override
+    public boolean upgradePassword(DuracloudUser user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return false;
+        }
+
+        DuracloudUser storedUser = repoMgr.getUserRepo().findOne(user.getId());
+        if (storedUser == null ||
+            !storedUser.getPassword().equals(user.getPassword())) {
+            // Password changed since this login began, leave it alone
+            return false;
+        }
+
+        log.info("Upgrading password hash for user {}", user.getUsername());
+        storedUser.setPassword(passwordEncoder.encode(password));
+        repoMgr.getUserRepo().save(storedUser);
+        authenticatedUserCache.invalidate(storedUser.getUsername());
+
+        propagateUserUpdate(storedUser.getId());
+        return true;
+    }
+
     @Override
     public void forgotPassword(String username,
                                String securityQuestion,
@@ -507,6 +543,8 @@ public class DuracloudUserServiceImpl implements DuracloudUserService, UserDetai
         user.setSecurityAnswer(securityAnswer);
         user.setAllowableIPAddressRange(allowableIPAddressRange);
         repoMgr.getUserRepo().save(user);
+        authenticatedUserCache.invalidate(user.getUsername());
+        userSearchIndex.userChanged(user);
 
         if (emailUpdate || ipAddressUpdate) {
             propagateUserUpdate(userId);
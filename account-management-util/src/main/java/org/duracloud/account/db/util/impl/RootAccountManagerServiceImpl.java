@@ -8,15 +8,27 @@
 package org.duracloud.account.db.util.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import org.apache.commons.lang.StringUtils;
 
 import org.duracloud.account.db.model.AccountInfo;
 import org.duracloud.account.db.model.AccountRights;
 import org.duracloud.account.db.model.DuracloudGroup;
 import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
 import org.duracloud.account.db.model.StorageProviderAccount;
 import org.duracloud.account.db.repo.DuracloudAccountRepo;
 import org.duracloud.account.db.repo.DuracloudGroupRepo;
@@ -26,10 +38,17 @@ import org.duracloud.account.db.repo.DuracloudStorageProviderAccountRepo;
 import org.duracloud.account.db.repo.DuracloudUserInvitationRepo;
 import org.duracloud.account.db.repo.DuracloudUserRepo;
 import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.KeysetPage;
 import org.duracloud.account.db.util.RootAccountManagerService;
+import org.duracloud.account.db.util.UserAccountRoles;
+import org.duracloud.account.db.util.UserAccountRoles.AccountRole;
 import org.duracloud.account.db.util.error.DBNotFoundException;
 import org.duracloud.account.db.util.error.InvalidPasswordException;
 import org.duracloud.account.db.util.error.UnsentEmailException;
+import org.duracloud.account.db.util.search.AccountSearchIndex;
+import org.duracloud.account.db.util.search.UserSearchIndex;
+import org.duracloud.account.db.util.security.AuthenticatedUserCache;
+import org.duracloud.account.db.util.util.GroupMembershipUtil;
 import org.duracloud.common.changenotifier.AccountChangeNotifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,17 +65,47 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
 
     private Logger log = LoggerFactory.getLogger(RootAccountManagerServiceImpl.class);
 
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    private static final String EXPORT_USERS_QUERY =
+        "SELECT u.id, u.username, u.firstName, u.lastName, u.email FROM DuracloudUser u";
+    private static final String EXPORT_USERS_AFTER =
+        " WHERE u.username > :afterKey OR (u.username = :afterKey AND u.id > :afterId)";
+    private static final String EXPORT_USERS_ORDER = " ORDER BY u.username, u.id";
+    private static final String EXPORT_ROLES_QUERY =
+        "SELECT r.user.id, a.id, a.acctName, role FROM AccountRights r " +
+        "JOIN r.account a JOIN r.roles role WHERE r.user.id IN :ids " +
+        "ORDER BY r.user.id, a.acctName, a.id";
+
     private DuracloudRepoMgr repoMgr;
     private DuracloudUserService userService;
     private AccountChangeNotifier accountChangeNotifier;
+    private AuthenticatedUserCache authenticatedUserCache;
+    private UserSearchIndex userSearchIndex;
+    private AccountSearchIndex accountSearchIndex;
+    private GroupMembershipUtil groupMembershipUtil;
+    private EntityManager entityManager;
 
     @Autowired
     public RootAccountManagerServiceImpl(DuracloudRepoMgr duracloudRepoMgr,
                                          DuracloudUserService userService,
-                                         AccountChangeNotifier accountChangeNotifier) {
+                                         AccountChangeNotifier accountChangeNotifier,
+                                         AuthenticatedUserCache authenticatedUserCache,
+                                         UserSearchIndex userSearchIndex,
+                                         AccountSearchIndex accountSearchIndex,
+                                         GroupMembershipUtil groupMembershipUtil) {
         this.repoMgr = duracloudRepoMgr;
         this.userService = userService;
         this.accountChangeNotifier = accountChangeNotifier;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.userSearchIndex = userSearchIndex;
+        this.accountSearchIndex = accountSearchIndex;
+        this.groupMembershipUtil = groupMembershipUtil;
+    }
+
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -86,25 +135,23 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
             this.userService.revokeUserRights(right.getAccount().getId(), userId);
         }
 
-        // Remove user from all groups
-        DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
-        DuracloudGroupRepo groupRepo = getGroupRepo();
-        List<DuracloudGroup> allGroups = groupRepo.findAll();
-        for (DuracloudGroup group : allGroups) {
-            Set<DuracloudUser> groupUsers = group.getUsers();
-            if (groupUsers.contains(user)) {
-                groupUsers.remove(user);
-                groupRepo.save(group);
-            }
-        }
+        // Remove user from all groups, including those of accounts on which
+        // the user held no rights
+        Set<String> subdomains = groupMembershipUtil.removeUserFromAllGroups(userId);
 
         // Remove the user
+        DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
         getUserRepo().delete(userId);
+        authenticatedUserCache.invalidate(user.getUsername());
+        userSearchIndex.userRemoved(userId);
 
         if (user.isRoot()) {
             notifyRootUsersChanged();
         } else {
-            notifyUserChange(accountRights);
+            for (AccountRights right : accountRights) {
+                subdomains.add(right.getAccount().getSubdomain());
+            }
+            notifyUserChange(subdomains);
         }
     }
 
@@ -115,6 +162,8 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
         // Adding root from the user
         DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
         user.setRoot(true);
+        authenticatedUserCache.invalidate(user.getUsername());
+        userSearchIndex.userChanged(user);
         notifyRootUsersChanged();
 
     }
@@ -126,13 +175,15 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
         // Remove root from the user
         DuracloudUser user = repoMgr.getUserRepo().findOne(userId);
         user.setRoot(false);
+        authenticatedUserCache.invalidate(user.getUsername());
+        userSearchIndex.userChanged(user);
         notifyRootUsersChanged();
     }
 
-    private void notifyUserChange(List<AccountRights> accountRights) {
-        for (AccountRights right : accountRights) {
+    private void notifyUserChange(Set<String> subdomains) {
+        for (String subdomain : subdomains) {
             try {
-                this.accountChangeNotifier.userStoreChanged(right.getAccount().getSubdomain());
+                this.accountChangeNotifier.userStoreChanged(subdomain);
             } catch (Exception ex) {
                 log.error("failed to notify of user change: " + ex.getMessage(), ex);
             }
@@ -183,6 +234,7 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
             user.getAccountRights().remove(rights);
             rights.getRoles().clear();
             getRightsRepo().save(rights);
+            authenticatedUserCache.invalidate(user.getUsername());
         }
 
         getRightsRepo().deleteInBatch(rightsList);
@@ -198,6 +250,7 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
 
         // Delete account
         getAccountRepo().delete(accountId);
+        accountSearchIndex.accountRemoved(accountId);
 
         notifyAccountChange(rightsList);
     }
@@ -241,11 +294,12 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
     }
 
     @Override
+    @Deprecated
     public Set<AccountInfo> listAllAccounts(String filter) {
         List<AccountInfo> accounts = getAccountRepo().findAll(new Sort("acctName"));
         Set<AccountInfo> accountInfos = new LinkedHashSet<AccountInfo>();
         for (AccountInfo acct : accounts) {
-            if (filter == null || acct.getOrgName().startsWith(filter)) {
+            if (accountMatches(acct, filter)) {
                 accountInfos.add(acct);
             }
         }
@@ -253,15 +307,12 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
     }
 
     @Override
+    @Deprecated
     public Set<DuracloudUser> listAllUsers(String filter) {
         List<DuracloudUser> usersList = getUserRepo().findAll(new Sort("username"));
         Set<DuracloudUser> users = new LinkedHashSet<DuracloudUser>();
         for (DuracloudUser user : usersList) {
-            if (filter == null ||
-                (user.getUsername().startsWith(filter)
-                 || user.getFirstName().startsWith(filter)
-                 || user.getLastName().startsWith(filter)
-                 || user.getEmail().startsWith(filter))) {
+            if (userMatches(user, filter)) {
                 users.add(user);
             }
         }
@@ -269,27 +320,266 @@ public class RootAccountManagerServiceImpl implements RootAccountManagerService
     }
 
     @Override
+    @Deprecated
     public Set<DuracloudUser> listAllRootUsers(String filter) {
         List<DuracloudUser> usersList = getUserRepo().findAll(new Sort("username"));
         Set<DuracloudUser> users = new LinkedHashSet<DuracloudUser>();
         for (DuracloudUser user : usersList) {
-            if (user.isRoot() && (filter == null ||
-                    (user.getUsername().startsWith(filter)
-                            || user.getFirstName().startsWith(filter)
-                            || user.getLastName().startsWith(filter)
-                            || user.getEmail().startsWith(filter)))) {
+            if (user.isRoot() && userMatches(user, filter)) {
                 users.add(user);
             }
         }
         return users;
     }
 
-    private DuracloudUserRepo getUserRepo() {
-        return repoMgr.getUserRepo();
+    @Override
+    public KeysetPage<AccountInfo> listAccounts(String filter,
+                                                KeysetPage.Key after,
+                                                KeysetPage.Key before,
+                                                int size) {
+        if (!StringUtils.isEmpty(filter)) {
+            KeysetPage<Long> ids = accountSearchIndex.search(filter, after, before, size);
+            return toEntityPage(ids, getAccountRepo().findAll(ids.getContent()),
+                                AccountInfo::getId);
+        }
+        return findPage(AccountInfo.class, "AccountInfo", "acctName", "",
+                        AccountInfo::getAcctName, AccountInfo::getId, after, before, size);
+    }
+
+    @Override
+    public KeysetPage<DuracloudUser> listUsers(String filter,
+                                               KeysetPage.Key after,
+                                               KeysetPage.Key before,
+                                               int size) {
+        return listUsers(false, filter, after, before, size);
+    }
+
+    @Override
+    public KeysetPage<DuracloudUser> listRootUsers(String filter,
+                                                   KeysetPage.Key after,
+                                                   KeysetPage.Key before,
+                                                   int size) {
+        return listUsers(true, filter, after, before, size);
+    }
+
+    private KeysetPage<DuracloudUser> listUsers(boolean rootOnly,
+                                                String filter,
+                                                KeysetPage.Key after,
+                                                KeysetPage.Key before,
+                                                int size) {
+        if (!StringUtils.isEmpty(filter)) {
+            KeysetPage<Long> ids = userSearchIndex.search(filter, rootOnly, after, before, size);
+            return toEntityPage(ids, getUserRepo().findAll(ids.getContent()),
+                                DuracloudUser::getId);
+        }
+        return findPage(DuracloudUser.class, "DuracloudUser", "username",
+                        rootOnly ? "e.root = true" : "",
+                        DuracloudUser::getUsername, DuracloudUser::getId, after, before, size);
+    }
+
+    @Override
+    public void exportUsers(Consumer<UserAccountRoles> consumer) {
+        // Users are read a batch at a time, each batch continuing after the
+        // last user of the one before, with the accounts and roles of the
+        // whole batch read by a second query. Only scalar values are read,
+        // so nothing is left in the persistence context between batches.
+        String lastUsername = null;
+        Long lastId = null;
+        int count = 0;
+        while (true) {
+            TypedQuery<Object[]> userQuery;
+            if (null == lastId) {
+                userQuery = entityManager.createQuery(EXPORT_USERS_QUERY +
+                                                      EXPORT_USERS_ORDER, Object[].class);
+            } else {
+                userQuery = entityManager.createQuery(EXPORT_USERS_QUERY +
+                                                      EXPORT_USERS_AFTER +
+                                                      EXPORT_USERS_ORDER, Object[].class)
+                                         .setParameter("afterKey", lastUsername)
+                                         .setParameter("afterId", lastId);
+            }
+            List<Object[]> users = userQuery.setMaxResults(EXPORT_BATCH_SIZE).getResultList();
+            if (users.isEmpty()) {
+                break;
+            }
+
+            List<Long> ids = users.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+            Map<Long, List<AccountRole>> accountRoles = toAccountRoles(
+                entityManager.createQuery(EXPORT_ROLES_QUERY, Object[].class)
+                             .setParameter("ids", ids)
+                             .getResultList());
+
+            for (Object[] row : users) {
+                Long id = (Long) row[0];
+                consumer.accept(new UserAccountRoles(
+                    id, (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                    accountRoles.getOrDefault(id, new ArrayList<AccountRole>())));
+            }
+            count += users.size();
+
+            if (users.size() < EXPORT_BATCH_SIZE) {
+                break;
+            }
+            Object[] last = users.get(users.size() - 1);
+            lastId = (Long) last[0];
+            lastUsername = (String) last[1];
+        }
+        log.debug("Exported {} users", count);
+    }
+
+    /*
+     * Collects rows of user ID, account ID, account name and role, ordered by
+     * user, account name and account, into the highest role of each user in
+     * each account
+     */
+    private Map<Long, List<AccountRole>> toAccountRoles(List<Object[]> rows) {
+        Map<Long, List<AccountRole>> accountRoles = new HashMap<>();
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            roles.add((Role) row[3]);
+
+            Object[] next = i + 1 < rows.size() ? rows.get(i + 1) : null;
+            if (null == next || !row[0].equals(next[0]) || !row[1].equals(next[1])) {
+                accountRoles.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                            .add(new AccountRole((Long) row[1], (String) row[2],
+                                                 Role.highestRole(roles)));
+                roles = new HashSet<>();
+            }
+        }
+        return accountRoles;
+    }
+
+    /*
+     * Finds a page of entities, ordered by the sort property and then by ID,
+     * which begins after the given key, or, with only a before key, ends
+     * before it. The key carries the sort value, so the page is found even if
+     * the entity it was taken from has since been removed or renamed. A page
+     * before a key is found in reverse order; if it is not full, the first
+     * page is found instead. The total is counted by a separate query over
+     * the same condition.
+     */
+    private <T> KeysetPage<T> findPage(Class<T> type,
+                                       String entity,
+                                       String sortProperty,
+                                       String where,
+                                       Function<T, String> getSortValue,
+                                       Function<T, Long> getId,
+                                       KeysetPage.Key after,
+                                       KeysetPage.Key before,
+                                       int size) {
+        size = KeysetPage.boundSize(size);
+        String from = " FROM " + entity + " e";
+
+        long total = entityManager.createQuery(
+            "SELECT COUNT(e)" + from + (where.isEmpty() ? "" : " WHERE " + where),
+            Long.class).getSingleResult();
+
+        if (null == after && null != before) {
+            List<T> results = findPageResults(type, from, sortProperty, where, before,
+                                              "<", " DESC", size);
+            log.debug("Found {} of {} {} before {}",
+                      new Object[] {results.size(), total, entity, before});
+            if (results.size() > size) {
+                // The extra result is the earliest, and shows there is a
+                // previous page
+                results = new ArrayList<>(results.subList(0, size));
+                Collections.reverse(results);
+                return new KeysetPage<>(results, total,
+                                        toKey(results.get(0), getSortValue, getId),
+                                        toKey(results.get(size - 1), getSortValue, getId));
+            }
+        }
+
+        List<T> results = findPageResults(type, from, sortProperty, where, after,
+                                          ">", "", size);
+        log.debug("Found {} of {} {} after {}",
+                  new Object[] {results.size(), total, entity, after});
+        KeysetPage.Key nextKey = null;
+        if (results.size() > size) {
+            results = results.subList(0, size);
+            nextKey = toKey(results.get(size - 1), getSortValue, getId);
+        }
+        KeysetPage.Key prevKey = null == after || results.isEmpty() ?
+                                 null : toKey(results.get(0), getSortValue, getId);
+        return new KeysetPage<>(results, total, prevKey, nextKey);
     }
 
-    private DuracloudGroupRepo getGroupRepo() {
-        return repoMgr.getGroupRepo();
+    /*
+     * Finds up to one more than the page size of entities beyond the key in
+     * the given direction, nearest first
+     */
+    private <T> List<T> findPageResults(Class<T> type,
+                                        String from,
+                                        String sortProperty,
+                                        String where,
+                                        KeysetPage.Key key,
+                                        String beyond,
+                                        String direction,
+                                        int size) {
+        List<String> conditions = new ArrayList<>();
+        if (!where.isEmpty()) {
+            conditions.add(where);
+        }
+        Map<String, Object> params = new HashMap<>();
+        if (null != key) {
+            conditions.add("(e." + sortProperty + " " + beyond + " :key OR (e." +
+                           sortProperty + " = :key AND e.id " + beyond + " :keyId))");
+            params.put("key", key.getSortValue());
+            params.put("keyId", key.getId());
+        }
+
+        String pageWhere = conditions.isEmpty() ? "" :
+                           " WHERE " + StringUtils.join(conditions, " AND ");
+        TypedQuery<T> pageQuery = entityManager.createQuery(
+            "SELECT e" + from + pageWhere + " ORDER BY e." + sortProperty + direction +
+            ", e.id" + direction, type);
+        params.forEach(pageQuery::setParameter);
+        // One more than the page size shows whether there is a further page
+        pageQuery.setMaxResults(size + 1);
+        return pageQuery.getResultList();
+    }
+
+    /*
+     * Orders the entities found by a search as the search ordered their IDs
+     */
+    private <T> KeysetPage<T> toEntityPage(KeysetPage<Long> ids,
+                                           List<T> entities,
+                                           Function<T, Long> getId) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : entities) {
+            byId.put(getId.apply(entity), entity);
+        }
+        List<T> content = new ArrayList<>();
+        for (Long id : ids.getContent()) {
+            T entity = byId.get(id);
+            if (null != entity) {
+                content.add(entity);
+            }
+        }
+        return new KeysetPage<>(content, ids.getTotal(), ids.getPrevKey(), ids.getNextKey());
+    }
+
+    private <T> KeysetPage.Key toKey(T entity,
+                                     Function<T, String> getSortValue,
+                                     Function<T, Long> getId) {
+        return new KeysetPage.Key(getSortValue.apply(entity), getId.apply(entity));
+    }
+
+    private boolean accountMatches(AccountInfo acct, String filter) {
+        return filter == null || acct.getOrgName().startsWith(filter);
+    }
+
+    private boolean userMatches(DuracloudUser user, String filter) {
+        return filter == null ||
+               (user.getUsername().startsWith(filter)
+                || user.getFirstName().startsWith(filter)
+                || user.getLastName().startsWith(filter)
+                || user.getEmail().startsWith(filter));
+    }
+
+    private DuracloudUserRepo getUserRepo() {
+        return repoMgr.getUserRepo();
     }
 
     private DuracloudAccountRepo getAccountRepo() {
@@ -0,0 +1,160 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.search;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.duracloud.account.db.util.KeysetPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Base for the search indexes of the root console. The index is loaded from
+ * the database on the first search, and is then kept current by the code
+ * which changes the indexed items. Changes made within a transaction are
+ * applied once it commits.
+ *
+ * Only changes made by this instance of the application are applied as they
+ * happen. So that instances sharing a database see each other's changes, the
+ * index is loaded again once it is older than its maximum age. One search
+ * loads the new index while others continue to use the old one.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public abstract class AbstractSearchIndex {
+
+    private Logger log = LoggerFactory.getLogger(AbstractSearchIndex.class);
+
+    public static final long DEFAULT_MAX_AGE_MILLIS = 600000;
+
+    private volatile NgramIndex index;
+    private volatile long loadedAt;
+    private volatile long maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+    private AtomicBoolean reloading = new AtomicBoolean();
+    private EntityManager entityManager;
+
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param maxAgeMillis time after which the index is loaded again, or 0
+     *                     to keep it until invalidated, which suits only a
+     *                     single instance of the application
+     */
+    @Value("${search.index.max-age-millis:" + DEFAULT_MAX_AGE_MILLIS + "}")
+    public void setMaxAgeMillis(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Discards the index, to be loaded again by the next search.
+     */
+    public synchronized void invalidate() {
+        index = null;
+    }
+
+    /**
+     * @return the number of items in the index, or 0 if it is not loaded
+     */
+    public int size() {
+        NgramIndex current = index;
+        return null == current ? 0 : current.size();
+    }
+
+    /**
+     * Loads every item into a new index.
+     *
+     * @param index         to add items to
+     * @param entityManager for queries
+     */
+    protected abstract void load(NgramIndex index, EntityManager entityManager);
+
+    protected KeysetPage<Long> search(String query,
+                                      boolean flaggedOnly,
+                                      KeysetPage.Key after,
+                                      KeysetPage.Key before,
+                                      int size) {
+        return getIndex().search(query, flaggedOnly, after, before, size);
+    }
+
+    /**
+     * Applies a change to the index once the current transaction, if any,
+     * commits. Changes are skipped while the index is not loaded, as loading
+     * reads the change from the database.
+     */
+    protected void update(Consumer<NgramIndex> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        apply(change);
+                    }
+                });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Consumer<NgramIndex> change) {
+        if (null != index) {
+            change.accept(index);
+        }
+    }
+
+    /*
+     * Changes wait on the lock while the index loads, so none made during
+     * loading are lost
+     */
+    private NgramIndex getIndex() {
+        NgramIndex current = index;
+        if (null == current) {
+            synchronized (this) {
+                current = index;
+                if (null == current) {
+                    current = loadIndex();
+                }
+            }
+        } else if (isExpired() && reloading.compareAndSet(false, true)) {
+            try {
+                synchronized (this) {
+                    current = loadIndex();
+                }
+            } finally {
+                reloading.set(false);
+            }
+        }
+        return current;
+    }
+
+    private boolean isExpired() {
+        return maxAgeMillis > 0 && System.currentTimeMillis() - loadedAt >= maxAgeMillis;
+    }
+
+    private NgramIndex loadIndex() {
+        long start = System.currentTimeMillis();
+        NgramIndex loaded = new NgramIndex();
+        load(loaded, entityManager);
+        loadedAt = start;
+        index = loaded;
+        log.info("Loaded {} with {} items in {} ms",
+                 new Object[] {getClass().getSimpleName(), loaded.size(),
+                               System.currentTimeMillis() - start});
+        return loaded;
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.search;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.util.KeysetPage;
+import org.springframework.stereotype.Component;
+
+/**
+ * Searches accounts by account name, organization, department and
+ * subdomain. Matches are ordered by account name.
+ *
+ * Code which creates, changes or deletes an account must report it here.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+@Component("accountSearchIndex")
+public class AccountSearchIndex extends AbstractSearchIndex {
+
+    private static final String LOAD_QUERY =
+        "SELECT a.id, a.acctName, a.orgName, a.department, a.subdomain " +
+        "FROM AccountInfo a";
+
+    /**
+     * @param query  text to find in the account name, organization,
+     *               department or subdomain of accounts, ignoring case
+     * @param after  key of the last account of the previous page, or null
+     *               for the first page
+     * @param before key of the first account of the following page, to page
+     *               backward when there is no after key
+     * @param size   maximum number of accounts on the page
+     * @return the IDs of the matching accounts on the page
+     */
+    public KeysetPage<Long> search(String query,
+                                   KeysetPage.Key after,
+                                   KeysetPage.Key before,
+                                   int size) {
+        return search(query, false, after, before, size);
+    }
+
+    /**
+     * @param account created or changed
+     */
+    public void accountChanged(AccountInfo account) {
+        Long id = account.getId();
+        String acctName = account.getAcctName();
+        String orgName = account.getOrgName();
+        String department = account.getDepartment();
+        String subdomain = account.getSubdomain();
+        update(index -> index.put(id, acctName, acctName, orgName, department, subdomain));
+    }
+
+    /**
+     * @param accountId of deleted account
+     */
+    public void accountRemoved(Long accountId) {
+        update(index -> index.remove(accountId));
+    }
+
+    @Override
+    protected void load(NgramIndex index, EntityManager entityManager) {
+        // Read only the indexed fields, rather than whole accounts
+        List<Object[]> rows = entityManager.createQuery(LOAD_QUERY, Object[].class)
+                                           .getResultList();
+        for (Object[] row : rows) {
+            index.put((Long) row[0], (String) row[1], (String) row[1],
+                      (String) row[2], (String) row[3], (String) row[4]);
+        }
+    }
+
+}
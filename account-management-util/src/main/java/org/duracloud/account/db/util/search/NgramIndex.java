@@ -0,0 +1,378 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.duracloud.account.db.util.KeysetPage;
+
+/**
+ * An in-memory trigram index over the text fields of a set of items, which
+ * finds the items with a field containing a query, ignoring case. Queries of
+ * three or more characters are answered from the items which hold every
+ * trigram of the query; shorter queries scan the text of every item.
+ * Matches are returned a page at a time in order of their sort key, with
+ * paging by key as in the listings of the root console. Each item may also
+ * be flagged, such as a user who is root, and a search narrowed to flagged
+ * items; the flag is held with the item, so it changes with the item.
+ *
+ * Each item is given an ordinal as it is added, and its trigrams map to
+ * lists of ordinals, which stay sorted as ordinals only increase. Removing
+ * or changing an item leaves its old ordinal behind in those lists; the
+ * index is compacted once most ordinals are stale.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class NgramIndex {
+
+    private static final int N = 3;
+    private static final char SEPARATOR = '\u0000';
+    private static final int MIN_COMPACT = 1024;
+
+    private static final Comparator<Entry> ORDER =
+        Comparator.comparing((Entry e) -> e.sortKey).thenComparing(e -> e.id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Entry[] entries = new Entry[MIN_COMPACT];
+    private int nextOrdinal;
+    private Map<Long, Integer> ordinals = new HashMap<>();
+    private Map<String, OrdinalList> grams = new HashMap<>();
+
+    /**
+     * Adds an item, or replaces an item with the same ID.
+     *
+     * @param id      of item
+     * @param sortKey by which matches are ordered
+     * @param fields  text of the item to search, null fields are skipped
+     */
+    public void put(Long id, String sortKey, String... fields) {
+        put(id, sortKey, false, fields);
+    }
+
+    /**
+     * Adds an item, or replaces an item with the same ID.
+     *
+     * @param id      of item
+     * @param sortKey by which matches are ordered
+     * @param flagged whether the item is found by searches for flagged items
+     * @param fields  text of the item to search, null fields are skipped
+     */
+    public void put(Long id, String sortKey, boolean flagged, String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (null != field) {
+                text.append(normalize(field)).append(SEPARATOR);
+            }
+        }
+        Entry entry = new Entry(id, normalize(sortKey), flagged, text.toString());
+
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+            add(entry);
+            compactIfStale();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id of item to remove
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+            compactIfStale();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds one page of the items with a field containing the query.
+     *
+     * @param query       text to find, ignoring case; empty or null matches
+     *                    all
+     * @param flaggedOnly true to find only flagged items
+     * @param after       key of the last item of the previous page, or null
+     *                    for the first page. The page continues from the key,
+     *                    whether or not that item is still in the index.
+     * @param before      key of the first item of the following page, used
+     *                    when there is no after key to page backward. If
+     *                    there is not a full page before the key, the first
+     *                    page is returned.
+     * @param size        maximum number of IDs on the page
+     * @return the IDs of the matching items on the page
+     */
+    public KeysetPage<Long> search(String query,
+                                   boolean flaggedOnly,
+                                   KeysetPage.Key after,
+                                   KeysetPage.Key before,
+                                   int size) {
+        String q = null == query ? "" : normalize(query);
+        size = KeysetPage.boundSize(size);
+
+        lock.readLock().lock();
+        try {
+            if (null == after && null != before) {
+                Entry beforeEntry = toEntry(before);
+                List<Entry> matches = new ArrayList<>();
+                long total = find(q, flaggedOnly, beforeEntry, true, size + 1, matches);
+                if (matches.size() > size) {
+                    // The extra match is the earliest, and shows there is a
+                    // previous page
+                    matches = matches.subList(1, size + 1);
+                    return new KeysetPage<>(toIds(matches), total, toKey(matches.get(0)),
+                                            toKey(matches.get(size - 1)));
+                }
+            }
+
+            List<Entry> matches = new ArrayList<>();
+            long total = find(q, flaggedOnly, null == after ? null : toEntry(after),
+                              false, size + 1, matches);
+            KeysetPage.Key nextKey = null;
+            if (matches.size() > size) {
+                matches = matches.subList(0, size);
+                nextKey = toKey(matches.get(size - 1));
+            }
+            KeysetPage.Key prevKey = null == after || matches.isEmpty() ?
+                                     null : toKey(matches.get(0));
+            return new KeysetPage<>(toIds(matches), total, prevKey, nextKey);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Adds to the given list, in order, the matches nearest to the bound: the
+     * least of those after it, or the greatest of those before it, up to the
+     * limit. Returns the number of matches, regardless of the bound.
+     */
+    private long find(String q,
+                      boolean flaggedOnly,
+                      Entry bound,
+                      boolean backward,
+                      int limit,
+                      List<Entry> matches) {
+        // The worst of the best matches so far is at the head
+        Comparator<Entry> nearest = backward ? ORDER.reversed() : ORDER;
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit, nearest.reversed());
+        long total = 0;
+        OrdinalList candidates = findCandidates(q);
+        for (int i = 0; i < candidates.size; i++) {
+            Entry entry = entries[candidates.get(i)];
+            if (null == entry || (flaggedOnly && !entry.flagged) || !entry.text.contains(q)) {
+                continue;
+            }
+            total++;
+            if (null != bound && nearest.compare(entry, bound) <= 0) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (nearest.compare(entry, best.peek()) < 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+
+        matches.addAll(best);
+        Collections.sort(matches, ORDER);
+        return total;
+    }
+
+    private List<Long> toIds(List<Entry> matches) {
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Entry entry : matches) {
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+
+    private Entry toEntry(KeysetPage.Key key) {
+        return new Entry(key.getId(), normalize(key.getSortValue()), false, "");
+    }
+
+    private KeysetPage.Key toKey(Entry entry) {
+        return new KeysetPage.Key(entry.sortKey, entry.id);
+    }
+
+    /**
+     * @return the number of items in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * The ordinals of the items which hold every trigram of the query, or of
+     * every item if the query is too short to have trigrams
+     */
+    private OrdinalList findCandidates(String q) {
+        if (q.length() < N) {
+            OrdinalList all = new OrdinalList(nextOrdinal);
+            for (int i = 0; i < nextOrdinal; i++) {
+                all.add(i);
+            }
+            return all;
+        }
+
+        List<OrdinalList> lists = new ArrayList<>();
+        for (String gram : getGrams(q)) {
+            OrdinalList postings = grams.get(gram);
+            if (null == postings) {
+                return new OrdinalList(0);
+            }
+            lists.add(postings);
+        }
+
+        // Intersect from the shortest list
+        lists.sort(Comparator.comparingInt(p -> p.size));
+        OrdinalList result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size > 0; i++) {
+            result = result.intersect(lists.get(i));
+        }
+        return result;
+    }
+
+    private void add(Entry entry) {
+        int ordinal = nextOrdinal++;
+        if (ordinal == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[ordinal] = entry;
+        ordinals.put(entry.id, ordinal);
+        for (String gram : getGrams(entry.text)) {
+            OrdinalList postings = grams.get(gram);
+            if (null == postings) {
+                postings = new OrdinalList(4);
+                grams.put(gram, postings);
+            }
+            postings.add(ordinal);
+        }
+    }
+
+    private void removeEntry(Long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (null != ordinal) {
+            entries[ordinal] = null;
+        }
+    }
+
+    /*
+     * Rebuilds the index without stale ordinals once they are the majority
+     */
+    private void compactIfStale() {
+        if (nextOrdinal < MIN_COMPACT || nextOrdinal < 2 * ordinals.size()) {
+            return;
+        }
+
+        Entry[] current = entries;
+        int count = nextOrdinal;
+        entries = new Entry[Math.max(MIN_COMPACT, ordinals.size() * 2)];
+        nextOrdinal = 0;
+        ordinals = new HashMap<>();
+        grams = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            if (null != current[i]) {
+                add(current[i]);
+            }
+        }
+    }
+
+    private static Set<String> getGrams(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + N <= text.length(); i++) {
+            String gram = text.substring(i, i + N);
+            if (gram.indexOf(SEPARATOR) < 0) {
+                result.add(gram);
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return null == text ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Entry {
+        private final Long id;
+        private final String sortKey;
+        private final boolean flagged;
+        private final String text;
+
+        Entry(Long id, String sortKey, boolean flagged, String text) {
+            this.id = id;
+            this.sortKey = sortKey;
+            this.flagged = flagged;
+            this.text = text;
+        }
+    }
+
+    /*
+     * A growable list of ascending ordinals
+     */
+    private static class OrdinalList {
+        int[] values;
+        int size;
+
+        OrdinalList(int capacity) {
+            values = new int[Math.max(capacity, 1)];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int i) {
+            return values[i];
+        }
+
+        OrdinalList intersect(OrdinalList other) {
+            OrdinalList result = new OrdinalList(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (values[i] < other.values[j]) {
+                    i++;
+                } else if (values[i] > other.values[j]) {
+                    j++;
+                } else {
+                    result.add(values[i]);
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.search;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.util.KeysetPage;
+import org.springframework.stereotype.Component;
+
+/**
+ * Searches users by username, first name, last name and email. Matches are
+ * ordered by username.
+ *
+ * Code which creates, changes or deletes a user, including setting or
+ * unsetting root, must report it here.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+@Component("userSearchIndex")
+public class UserSearchIndex extends AbstractSearchIndex {
+
+    private static final String LOAD_QUERY =
+        "SELECT u.id, u.username, u.firstName, u.lastName, u.email, u.root " +
+        "FROM DuracloudUser u";
+
+    /**
+     * @param query    text to find in the username, first name, last name or
+     *                 email of users, ignoring case
+     * @param rootOnly true to find only root users
+     * @param after    key of the last user of the previous page, or null for
+     *                 the first page
+     * @param before   key of the first user of the following page, to page
+     *                 backward when there is no after key
+     * @param size     maximum number of users on the page
+     * @return the IDs of the matching users on the page
+     */
+    public KeysetPage<Long> search(String query,
+                                   boolean rootOnly,
+                                   KeysetPage.Key after,
+                                   KeysetPage.Key before,
+                                   int size) {
+        return search(query, rootOnly, after, before, size);
+    }
+
+    /**
+     * @param user created or changed
+     */
+    public void userChanged(DuracloudUser user) {
+        Long id = user.getId();
+        String username = user.getUsername();
+        String firstName = user.getFirstName();
+        String lastName = user.getLastName();
+        String email = user.getEmail();
+        boolean root = user.isRoot();
+        update(index -> put(index, id, username, firstName, lastName, email, root));
+    }
+
+    /**
+     * @param userId of deleted user
+     */
+    public void userRemoved(Long userId) {
+        update(index -> index.remove(userId));
+    }
+
+    @Override
+    protected void load(NgramIndex index, EntityManager entityManager) {
+        // Read only the indexed fields, rather than whole users
+        List<Object[]> rows = entityManager.createQuery(LOAD_QUERY, Object[].class)
+                                           .getResultList();
+        for (Object[] row : rows) {
+            put(index, (Long) row[0], (String) row[1], (String) row[2],
+                (String) row[3], (String) row[4], (Boolean) row[5]);
+        }
+    }
+
+    private void put(NgramIndex index,
+                     Long id,
+                     String username,
+                     String firstName,
+                     String lastName,
+                     String email,
+                     boolean root) {
+        // Root users are flagged, so that a search can be narrowed to them
+        index.put(id, username, root, username, firstName, lastName, email);
+    }
+
+}
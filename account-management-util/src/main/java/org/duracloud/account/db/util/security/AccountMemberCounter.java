@@ -0,0 +1,61 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class counts the users who hold rights on each account. Counts are
+ * found with a count query, so no rights are loaded. Counts are not
+ * retained: they decide who may claim ownership of a new account, so each
+ * count is made against the stored rights at the time it is needed.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+@Component("accountMemberCounter")
+public class AccountMemberCounter {
+
+    private static final String COUNT_QUERY =
+        "SELECT COUNT(r) FROM AccountRights r WHERE r.account.id = :accountId";
+
+    private Logger log = LoggerFactory.getLogger(AccountMemberCounter.class);
+
+    private EntityManager entityManager;
+
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param acctId of account
+     * @return the number of users with rights on the account
+     */
+    public int getMemberCount(Long acctId) {
+        Long count = entityManager.createQuery(COUNT_QUERY, Long.class)
+                                  .setParameter("accountId", acctId)
+                                  .getSingleResult();
+        log.debug("Account {} has {} members", acctId, count);
+        return count.intValue();
+    }
+
+    /**
+     * @param acctId of account
+     * @return true if no user has rights on the account
+     */
+    public boolean isEmpty(Long acctId) {
+        return getMemberCount(acctId) == 0;
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.duracloud.account.db.model.AccountRights;
+import org.duracloud.account.db.repo.DuracloudRepoMgr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * This class resolves the rights of a user on an account, retaining the
+ * rights found for the length of the current web request, or of the current
+ * transaction when there is no web request. Repeated security checks made
+ * while handling a single request are then answered without querying the
+ * rights repository again. When there is neither a request nor a
+ * transaction, every lookup queries the repository.
+ *
+ * Rights which are changed must be invalidated, so that later checks in the
+ * same request see the change.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+@Component("accountRightsCache")
+public class AccountRightsCache {
+
+    private static final String SCOPE_KEY = AccountRightsCache.class.getName();
+
+    private Logger log = LoggerFactory.getLogger(AccountRightsCache.class);
+
+    private DuracloudRepoMgr repoMgr;
+    private AtomicLong queries = new AtomicLong();
+    private AtomicLong savedQueries = new AtomicLong();
+
+    @Autowired
+    public AccountRightsCache(DuracloudRepoMgr repoMgr) {
+        this.repoMgr = repoMgr;
+    }
+
+    /**
+     * @param acctId of account
+     * @param userId of user
+     * @return the rights of the user on the account, or null if the user has
+     * no rights on the account
+     */
+    public AccountRights getRights(Long acctId, Long userId) {
+        Map<String, Optional<AccountRights>> scope = getScope();
+        if (null == scope) {
+            return findRights(acctId, userId);
+        }
+
+        String key = getKey(acctId, userId);
+        Optional<AccountRights> rights = scope.get(key);
+        if (null != rights) {
+            savedQueries.incrementAndGet();
+            return rights.orElse(null);
+        }
+
+        AccountRights found = findRights(acctId, userId);
+        scope.put(key, Optional.ofNullable(found));
+        return found;
+    }
+
+    /**
+     * Discards any rights of the user on the account retained in the current
+     * request or transaction.
+     *
+     * @param acctId of account
+     * @param userId of user
+     */
+    public void invalidate(Long acctId, Long userId) {
+        Map<String, Optional<AccountRights>> scope = getScope();
+        if (null != scope) {
+            scope.remove(getKey(acctId, userId));
+        }
+    }
+
+    /**
+     * @return the number of rights queries made to the repository
+     */
+    public long getQueryCount() {
+        return queries.get();
+    }
+
+    /**
+     * @return the number of rights lookups answered without a query
+     */
+    public long getSavedQueryCount() {
+        return savedQueries.get();
+    }
+
+    private AccountRights findRights(Long acctId, Long userId) {
+        long count = queries.incrementAndGet();
+        if (log.isDebugEnabled() && count % 100 == 0) {
+            log.debug("Account rights queries: {}, queries saved: {}",
+                      count, savedQueries.get());
+        }
+        return repoMgr.getRightsRepo().findByAccountIdAndUserId(acctId, userId);
+    }
+
+    private String getKey(Long acctId, Long userId) {
+        return acctId + "/" + userId;
+    }
+
+    /*
+     * Gets the rights retained for the current request or transaction, or
+     * null if there is neither.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Optional<AccountRights>> getScope() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (null != request) {
+            Map<String, Optional<AccountRights>> scope =
+                (Map<String, Optional<AccountRights>>)
+                    request.getAttribute(SCOPE_KEY, RequestAttributes.SCOPE_REQUEST);
+            if (null == scope) {
+                scope = new ConcurrentHashMap<>();
+                request.setAttribute(SCOPE_KEY, scope, RequestAttributes.SCOPE_REQUEST);
+            }
+            return scope;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<String, Optional<AccountRights>> scope =
+                (Map<String, Optional<AccountRights>>)
+                    TransactionSynchronizationManager.getResource(SCOPE_KEY);
+            if (null == scope) {
+                scope = new ConcurrentHashMap<>();
+                TransactionSynchronizationManager.bindResource(SCOPE_KEY, scope);
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            TransactionSynchronizationManager.unbindResourceIfPossible(SCOPE_KEY);
+                        }
+                    });
+            }
+            return scope;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.duracloud.common.util.ChecksumUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * This class hashes and verifies user passwords. New passwords are hashed
+ * with either unsalted SHA-256, the long-standing format, or with bcrypt at a
+ * tunable cost. Verification accepts hashes of either format, so that when
+ * bcrypt is selected, stored SHA-256 hashes (and bcrypt hashes of a lower
+ * cost) continue to work until they are upgraded; see upgradeEncoding().
+ *
+ * bcrypt hashing runs on a bounded pool of worker threads. When the pool and
+ * its queue are full, hashing fails fast with an
+ * AuthenticationServiceException rather than letting a burst of logins tie up
+ * every request thread in hashing. A request whose hash is queued waits at
+ * most the configured timeout, after which its task is cancelled and it fails
+ * in the same way.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+
+    public static final int DEFAULT_STRENGTH = 10;
+    public static final int DEFAULT_QUEUE_SIZE = 100;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    private static final Pattern BCRYPT_HASH =
+        Pattern.compile("\\A\\$2a?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    public enum Algorithm {
+        SHA_256, BCRYPT;
+
+        public static Algorithm fromString(String algorithm) {
+            for (Algorithm value : values()) {
+                if (value.name().replace("_", "-").equalsIgnoreCase(algorithm.trim()) ||
+                    value.name().equalsIgnoreCase(algorithm.trim())) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Unknown password hash algorithm: " + algorithm);
+        }
+    }
+
+    private Logger log = LoggerFactory.getLogger(AdaptivePasswordEncoder.class);
+
+    private final Algorithm algorithm;
+    private final int strength;
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor workers;
+    private final long timeoutMillis;
+
+    /**
+     * Hashes with SHA-256, using default pool settings
+     */
+    public AdaptivePasswordEncoder() {
+        this(Algorithm.SHA_256.name(), DEFAULT_STRENGTH, 0, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * @param algorithm of new hashes, "sha-256" or "bcrypt"
+     * @param strength  log2 of the number of bcrypt rounds, 4 to 31
+     * @param threads   number of hashing threads, or 0 for one per processor
+     * @param queueSize number of hashing tasks which may wait for a thread
+     */
+    public AdaptivePasswordEncoder(String algorithm, int strength, int threads, int queueSize) {
+        this(algorithm, strength, threads, queueSize, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param algorithm     of new hashes, "sha-256" or "bcrypt"
+     * @param strength      log2 of the number of bcrypt rounds, 4 to 31
+     * @param threads       number of hashing threads, or 0 for one per processor
+     * @param queueSize     number of hashing tasks which may wait for a thread
+     * @param timeoutMillis longest a request waits for its hash, queued and
+     *                      running
+     */
+    public AdaptivePasswordEncoder(String algorithm,
+                                   int strength,
+                                   int threads,
+                                   int queueSize,
+                                   long timeoutMillis) {
+        this.algorithm = Algorithm.fromString(algorithm);
+        this.strength = strength;
+        this.bcrypt = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize,
+                                              0L, TimeUnit.MILLISECONDS,
+                                              new ArrayBlockingQueue<>(queueSize),
+                                              new HashThreadFactory());
+        log.info("Hashing passwords with {} (strength {}, {} threads, {} ms timeout)",
+                 new Object[] {this.algorithm, strength, poolSize, timeoutMillis});
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        if (algorithm == Algorithm.BCRYPT) {
+            return hash(() -> bcrypt.encode(rawPassword));
+        }
+        return sha256(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (null == rawPassword || null == encodedPassword) {
+            return false;
+        }
+        if (isBcrypt(encodedPassword)) {
+            return hash(() -> bcrypt.matches(rawPassword, encodedPassword));
+        }
+        return MessageDigest.isEqual(
+            sha256(rawPassword).getBytes(StandardCharsets.UTF_8),
+            encodedPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Determines if a stored hash should be replaced by a hash of the same
+     * password in the current format, once the password is known.
+     *
+     * @param encodedPassword stored hash
+     * @return true if bcrypt is selected and the hash is not a bcrypt hash of
+     * at least the configured strength
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (algorithm != Algorithm.BCRYPT || null == encodedPassword) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    /**
+     * Stops the hashing threads
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private boolean isBcrypt(String encodedPassword) {
+        return BCRYPT_HASH.matcher(encodedPassword).find();
+    }
+
+    private String sha256(CharSequence rawPassword) {
+        ChecksumUtil util = new ChecksumUtil(ChecksumUtil.Algorithm.SHA_256);
+        return util.generateChecksum(rawPassword.toString());
+    }
+
+    private <T> T hash(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = workers.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing queue is full, rejecting request");
+            throw new AuthenticationServiceException(
+                "Too many password checks in progress, please try again", e);
+        }
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            log.warn("Password hashing did not complete within {} ms, rejecting request",
+                     timeoutMillis);
+            throw new AuthenticationServiceException(
+                "Too many password checks in progress, please try again", e);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new AuthenticationServiceException("Error hashing password", e.getCause());
+        }
+    }
+
+    private static class HashThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.duracloud.account.db.model.DuracloudUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * This class retains users who have recently authenticated, keyed by
+ * username and by a digest of the password they presented. Clients which
+ * send http-basic credentials with every request are then authenticated
+ * without loading the user or hashing the password again, until the entry
+ * expires. Only the most recent successful credentials of each user are
+ * retained.
+ *
+ * The password digest is an HMAC under a key generated at startup, so the
+ * cache holds nothing which could be checked against a password offline.
+ *
+ * Any change to a user which affects authentication must invalidate the
+ * user's entry. Invalidating a user also advances the user's generation. An
+ * authentication which began before the invalidation carries the earlier
+ * generation, so the user it loaded is never retained or returned. When the
+ * change is made within a transaction the user is invalidated again once it
+ * completes, so an authentication which read the user before the change was
+ * committed is not retained either.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+@Component("authenticatedUserCache")
+public class AuthenticatedUserCache {
+
+    public static final long DEFAULT_TTL_MILLIS = 60000;
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private Logger log = LoggerFactory.getLogger(AuthenticatedUserCache.class);
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final SecretKeySpec digestKey;
+    private Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private AtomicLong allGeneration = new AtomicLong();
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+
+    public AuthenticatedUserCache() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param ttlMillis  time for which an authenticated user is retained
+     * @param maxEntries number of users retained before the cache is cleared
+     */
+    public AuthenticatedUserCache(long ttlMillis, int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.digestKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    /**
+     * @param username of user
+     * @param password presented by the user
+     * @return the user, if the user authenticated with this password within
+     * the time to live and has not been invalidated since, otherwise null
+     */
+    public DuracloudUser get(String username, String password) {
+        Entry entry = entries.get(username);
+        if (null != entry) {
+            boolean current = entry.expires > System.currentTimeMillis() &&
+                              entry.generation == getGeneration(username);
+            if (current && MessageDigest.isEqual(entry.digest, digest(username, password))) {
+                hits.incrementAndGet();
+                return entry.user;
+            }
+            if (!current) {
+                entries.remove(username, entry);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Gets the current generation of a user. This is to be read before the
+     * user is loaded for authentication, and passed to put() once the user
+     * has authenticated.
+     *
+     * @param username of user
+     * @return generation of the user, which advances each time the user is
+     * invalidated
+     */
+    public long getGeneration(String username) {
+        AtomicLong generation = generations.get(username);
+        return allGeneration.get() + (null == generation ? 0 : generation.get());
+    }
+
+    /**
+     * Retains a user who has just authenticated with the given password,
+     * replacing any earlier entry for the user. The user is not retained if
+     * it has been invalidated since the given generation was read.
+     *
+     * @param username   of user
+     * @param password   with which the user authenticated
+     * @param user       who authenticated
+     * @param generation of the user, read before the user was loaded
+     */
+    public void put(String username, String password, DuracloudUser user, long generation) {
+        if (generation != getGeneration(username)) {
+            log.debug("User {} was invalidated during authentication, not retained", username);
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            log.debug("Authenticated user cache is full, clearing");
+            entries.clear();
+        }
+        entries.put(username, new Entry(digest(username, password), user, generation,
+                                        System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Discards the retained authentication of a user, and of any
+     * authentication of the user already under way.
+     *
+     * @param username of user
+     */
+    public void invalidate(String username) {
+        if (null != username) {
+            doInvalidate(username);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            doInvalidate(username);
+                        }
+                    });
+            }
+        }
+    }
+
+    private void doInvalidate(String username) {
+        generations.computeIfAbsent(username, u -> new AtomicLong()).incrementAndGet();
+        entries.remove(username);
+    }
+
+    /**
+     * Discards all retained authentications, and any already under way.
+     */
+    public void invalidateAll() {
+        allGeneration.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * @return the number of authentications answered from the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of authentications not answered from the cache
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private byte[] digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(digestKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to digest credentials: " +
+                                            e.getMessage(), e);
+        }
+    }
+
+    private static class Entry {
+        private final byte[] digest;
+        private final DuracloudUser user;
+        private final long generation;
+        private final long expires;
+
+        Entry(byte[] digest, DuracloudUser user, long generation, long expires) {
+            this.digest = digest;
+            this.user = user;
+            this.generation = generation;
+            this.expires = expires;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import org.duracloud.account.db.model.DuracloudUser;
+
+/**
+ * Replaces the stored password hash of a user with a hash in the current
+ * format. This is called once a user has successfully logged in, which is
+ * the only time the password itself is known.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public interface PasswordUpgrader {
+
+    /**
+     * @param user     who has just logged in
+     * @param password the user's password, as presented at login
+     * @return true if the stored hash was replaced, false if it is already
+     * in the current format
+     */
+    public boolean upgradePassword(DuracloudUser user, String password);
+
+}
@@ -8,12 +8,18 @@
 package org.duracloud.account.db.util.security.impl;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.duracloud.account.db.util.security.AnnotationParser;
 import org.duracloud.common.error.DuraCloudRuntimeException;
@@ -31,6 +37,11 @@ import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
  * Once the methods with the given annotation are found, a mapping of the
  * method names and annotation argument values is returned.
  *
+ * The mapping found for each annotation and class is retained for the life of
+ * the parser, so class files are read only on the first request for a class.
+ * The secured classes given on construction are parsed immediately, so that
+ * malformed annotations prevent startup rather than failing a later request.
+ *
  * @author Andrew Woods
  * Date: 4/8/11
  */
@@ -38,15 +49,57 @@ public class AnnotationParserImpl implements AnnotationParser {
 
     private Logger log = LoggerFactory.getLogger(AnnotationParserImpl.class);
 
+    private MetadataReaderFactory metadataReaderFactory = new SimpleMetadataReaderFactory();
+    private Map<Class, Map<Class, Map<String, Object[]>>> cache = new ConcurrentHashMap<>();
+
+    public AnnotationParserImpl() {
+    }
+
+    /**
+     * @param annotationClass sought
+     * @param securedClasses  interfaces over which annotations are parsed
+     *                        immediately, each of whose methods must carry the
+     *                        annotation
+     * @throws DuraCloudRuntimeException if the annotations of a class are
+     *                                   missing or malformed
+     */
+    public AnnotationParserImpl(Class annotationClass, Collection<Class> securedClasses) {
+        for (Class securedClass : securedClasses) {
+            Map<String, Object[]> methods =
+                getMethodAnnotationsForClass(annotationClass, securedClass);
+            for (Method method : securedClass.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers()) &&
+                    !methods.containsKey(method.getName())) {
+                    throw new DuraCloudRuntimeException("No " + annotationClass.getSimpleName() +
+                                                        " annotation on method " +
+                                                        securedClass.getName() + "." +
+                                                        method.getName());
+                }
+            }
+            log.debug("Parsed {} {} annotations over {}",
+                      new Object[] {methods.size(),
+                                    annotationClass.getSimpleName(),
+                                    securedClass.getName()});
+        }
+    }
+
     @Override
     public Map<String, Object[]> getMethodAnnotationsForClass(Class annotationClass,
                                                               Class targetClass) {
+        Map<Class, Map<String, Object[]>> classes =
+            cache.computeIfAbsent(annotationClass, a -> new ConcurrentHashMap<>());
+        return classes.computeIfAbsent(targetClass, t -> parseMethodAnnotations(annotationClass, t));
+    }
+
+    private Map<String, Object[]> parseMethodAnnotations(Class annotationClass,
+                                                         Class targetClass) {
         log.trace("Collecting annotations {} over {}",
                   annotationClass.getName(),
                   targetClass.getName());
 
         try {
-            return doGetMethodAnnotationsForClass(annotationClass, targetClass);
+            return Collections.unmodifiableMap(
+                doGetMethodAnnotationsForClass(annotationClass, targetClass));
 
         } catch (Exception e) {
             log.error("Error getting annotations {} over {}: {}",
@@ -61,12 +114,9 @@ public class AnnotationParserImpl implements AnnotationParser {
                                                                  Class targetClass) {
         Map<String, Object[]> methodAnnotations = new HashMap<String, Object[]>();
 
-        // Find class/interface in stack that has the annotation
-        Class iface = getAnnotatedInterface(annotationClass, targetClass);
-
-        // Read the annotation metadata from the found class/interface
-        MetadataReader metadataReader = getMetadataReader(iface);
-        AnnotationMetadata annotationMetadata = metadataReader.getAnnotationMetadata();
+        // Find the metadata of the class/interface in stack that has the annotation
+        AnnotationMetadata annotationMetadata =
+            getAnnotatedMetadata(annotationClass, targetClass);
 
         Set<MethodMetadata> annotatedMethods = getAnnotatedMethods(
             annotationMetadata,
@@ -79,20 +129,32 @@ public class AnnotationParserImpl implements AnnotationParser {
             Map<String, Object> annotationAtts = methodMetadata.getAnnotationAttributes(
                 annotationClass.getName());
             Object[] values = getValues(annotationAtts);
-            methodAnnotations.put(methodMetadata.getMethodName(), values);
+            if (values.length == 0) {
+                throw new DuraCloudRuntimeException("No annotation values on method " +
+                                                    methodMetadata.getMethodName());
+            }
+            // Methods are known by name, so overloads must share their values
+            Object[] overloaded = methodAnnotations.put(methodMetadata.getMethodName(), values);
+            if (null != overloaded && !Arrays.equals(overloaded, values)) {
+                throw new DuraCloudRuntimeException("Overloaded method has differing " +
+                                                    "annotation values: " +
+                                                    methodMetadata.getMethodName());
+            }
         }
         return methodAnnotations;
     }
 
-    private Class getAnnotatedInterface(Class annotationClass,
-                                        Class targetClass) {
-        if (hasAnnotatedMethods(annotationClass, targetClass)) {
-            return targetClass;
+    private AnnotationMetadata getAnnotatedMetadata(Class annotationClass,
+                                                    Class targetClass) {
+        AnnotationMetadata metadata = getAnnotationMetadata(targetClass);
+        if (metadata.hasAnnotatedMethods(annotationClass.getName())) {
+            return metadata;
         }
 
         for (Class iface : targetClass.getInterfaces()) {
-            if (hasAnnotatedMethods(annotationClass, iface)) {
-                return iface;
+            metadata = getAnnotationMetadata(iface);
+            if (metadata.hasAnnotatedMethods(annotationClass.getName())) {
+                return metadata;
             }
         }
 
@@ -101,15 +163,11 @@ public class AnnotationParserImpl implements AnnotationParser {
                                             targetClass.getName());
     }
 
-    private boolean hasAnnotatedMethods(Class annotationClass,
-                                        Class targetClass) {
-        MetadataReader metadataReader = getMetadataReader(targetClass);
-        AnnotationMetadata annotationMd = metadataReader.getAnnotationMetadata();
-        return annotationMd.hasAnnotatedMethods(annotationClass.getName());
+    private AnnotationMetadata getAnnotationMetadata(Class<?> targetClass) {
+        return getMetadataReader(targetClass).getAnnotationMetadata();
     }
 
     private MetadataReader getMetadataReader(Class<?> targetClass) {
-        MetadataReaderFactory metadataReaderFactory = new SimpleMetadataReaderFactory();
         try {
             return metadataReaderFactory.getMetadataReader(targetClass.getName());
 
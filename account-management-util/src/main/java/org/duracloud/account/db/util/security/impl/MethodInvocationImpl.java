@@ -11,9 +11,6 @@ import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Method;
 
 import org.aopalliance.intercept.MethodInvocation;
-import org.duracloud.common.error.DuraCloudRuntimeException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * This class provides an implementation of the aopalliance MethodInvocation
@@ -25,27 +22,14 @@ import org.slf4j.LoggerFactory;
  */
 public class MethodInvocationImpl implements MethodInvocation {
 
-    private Logger log = LoggerFactory.getLogger(MethodInvocationImpl.class);
-
     private Object obj;
     private Method method;
     private Object[] args;
 
-    public MethodInvocationImpl(Object obj, String methodName, Object[] args) {
+    public MethodInvocationImpl(Object obj, Method method, Object[] args) {
         this.obj = obj;
+        this.method = method;
         this.args = args;
-        for (Method m : obj.getClass().getDeclaredMethods()) {
-            if (methodName.equals(m.getName())) {
-                this.method = m;
-            }
-        }
-
-        if (null == this.method) {
-            String msg = "Method not found on class: " + methodName + ", " +
-                         obj.getClass().getName();
-            log.error(msg);
-            throw new DuraCloudRuntimeException(msg);
-        }
     }
 
     @Override
@@ -0,0 +1,105 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Removes a user from groups in bulk. The memberships are deleted from the
+ * group_user table by a single statement, rather than by loading each group
+ * with its users and saving the groups the user belonged to.
+ *
+ * Groups loaded before a removal in the same persistence context still list
+ * the user, so removals should be made before groups are read, or the groups
+ * read again.
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+@Component("groupMembershipUtil")
+public class GroupMembershipUtil {
+
+    private static final String USER_GROUP_ACCOUNTS_QUERY =
+        "SELECT DISTINCT g.account.subdomain FROM DuracloudGroup g JOIN g.users u " +
+        "WHERE u.id = :userId";
+    private static final String IN_ACCOUNT = " AND g.account.id = :accountId";
+
+    private static final String DELETE_USER_GROUPS =
+        "DELETE FROM group_user WHERE user_id = :userId";
+    private static final String IN_ACCOUNT_GROUPS =
+        " AND group_id IN (SELECT id FROM duracloud_group WHERE account_id = :accountId)";
+
+    private Logger log = LoggerFactory.getLogger(GroupMembershipUtil.class);
+
+    private EntityManager entityManager;
+
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Removes a user from every group of every account.
+     *
+     * @param userId of user
+     * @return the subdomains of the accounts whose groups the user was in
+     */
+    @Transactional
+    public Set<String> removeUserFromAllGroups(Long userId) {
+        return removeUserFromGroups(null, userId);
+    }
+
+    /**
+     * Removes a user from the groups of one account.
+     *
+     * @param acctId of account
+     * @param userId of user
+     * @return the subdomain of the account if the user was in any of its
+     *         groups, otherwise nothing
+     */
+    @Transactional
+    public Set<String> removeUserFromAccountGroups(Long acctId, Long userId) {
+        return removeUserFromGroups(acctId, userId);
+    }
+
+    private Set<String> removeUserFromGroups(Long acctId, Long userId) {
+        TypedQuery<String> accountsQuery =
+            entityManager.createQuery(USER_GROUP_ACCOUNTS_QUERY +
+                                      (null == acctId ? "" : IN_ACCOUNT), String.class)
+                         .setParameter("userId", userId);
+        Query delete =
+            entityManager.createNativeQuery(DELETE_USER_GROUPS +
+                                            (null == acctId ? "" : IN_ACCOUNT_GROUPS))
+                         .setParameter("userId", userId);
+        if (null != acctId) {
+            accountsQuery.setParameter("accountId", acctId);
+            delete.setParameter("accountId", acctId);
+        }
+
+        Set<String> subdomains = new HashSet<>(accountsQuery.getResultList());
+        if (subdomains.isEmpty()) {
+            return subdomains;
+        }
+
+        int removed = delete.executeUpdate();
+        log.debug("Removed user {} from {} groups in accounts {}",
+                  new Object[] {userId, removed, subdomains});
+        return subdomains;
+    }
+
+}
@@ -7,50 +7,111 @@
  */
 package org.duracloud.account.db.util.util;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
-import org.duracloud.account.db.model.AccountInfo;
 import org.duracloud.account.db.model.AccountRights;
 import org.duracloud.account.db.model.DuracloudUser;
-import org.duracloud.account.db.repo.DuracloudRepoMgr;
-import org.duracloud.account.db.repo.DuracloudRightsRepo;
+import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.util.AccountMember;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
+ * Reads the users of an account. Each read is answered by a fixed number of
+ * queries, rather than by loading the rights of the account and then the
+ * user and rights of each member one by one.
+ *
  * @author: Bill Branan Date: 2/17/12
  */
 public class UserFinderUtil {
 
-    private DuracloudRepoMgr repoMgr;
+    private static final String ACCOUNT_USER_IDS =
+        "(SELECT r.user.id FROM AccountRights r WHERE r.account.id = :accountId)";
+
+    private static final String ACCOUNT_USERS_QUERY =
+        "SELECT DISTINCT u FROM DuracloudUser u LEFT JOIN FETCH u.accountRights " +
+        "WHERE u.id IN " + ACCOUNT_USER_IDS;
+
+    private static final String ACCOUNT_USERS_ROLES_QUERY =
+        "SELECT DISTINCT ur FROM AccountRights ur LEFT JOIN FETCH ur.roles " +
+        "WHERE ur.user.id IN " + ACCOUNT_USER_IDS;
+
+    private static final String ACCOUNT_MEMBERS_QUERY =
+        "SELECT u.id, u.username, u.firstName, u.lastName, u.email, " +
+        "u.allowableIPAddressRange, u.root, role FROM AccountRights r " +
+        "JOIN r.user u LEFT JOIN r.roles role WHERE r.account.id = :accountId " +
+        "ORDER BY u.username, u.id";
 
-    public UserFinderUtil(DuracloudRepoMgr repoMgr) {
-        this.repoMgr = repoMgr;
+    private EntityManager entityManager;
+
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
     }
 
     /**
-     * Retrieves the users associated with the account
+     * Retrieves the users associated with the account, with the rights of
+     * each user in all of their accounts, and the roles of those rights,
+     * loaded up front. The rights and the roles are fetched by separate
+     * queries, each fetching one collection, so that neither multiplies the
+     * rows of the other.
      *
-     * @param account for which users should be gathered
+     * @param accountId of the account for which users should be gathered
      * @return the set of users associated with an account
      */
-    public Set<DuracloudUser> getAccountUsers(AccountInfo account) {
-
-        DuracloudRightsRepo rightsRepo = repoMgr.getRightsRepo();
-        List<AccountRights> acctRights =
-            rightsRepo.findByAccountId(account.getId());
-
-        Set<DuracloudUser> users = new HashSet<>();
-        for (AccountRights rights : acctRights) {
-            DuracloudUser user = rights.getUser();
+    @Transactional(readOnly = true)
+    public Set<DuracloudUser> getAccountUsers(Long accountId) {
+        Set<DuracloudUser> users =
+            new HashSet<>(entityManager.createQuery(ACCOUNT_USERS_QUERY, DuracloudUser.class)
+                                       .setParameter("accountId", accountId)
+                                       .getResultList());
+        if (!users.isEmpty()) {
+            // Initializes the roles of the rights loaded above, which are the
+            // same instances within the persistence context
+            entityManager.createQuery(ACCOUNT_USERS_ROLES_QUERY, AccountRights.class)
+                         .setParameter("accountId", accountId)
+                         .getResultList();
+        }
+        return users;
+    }
 
-            // make sure only the rights for this account are set
-            user.getAccountRights().clear();
-            user.getAccountRights().add(rights);
+    /**
+     * Retrieves the members of the account, each with the highest role held
+     * in the account, or no role if the member's rights hold none. No user
+     * entities are loaded.
+     *
+     * @param accountId of the account for which members should be gathered
+     * @return the members of the account, ordered by username
+     */
+    public List<AccountMember> getAccountMembers(Long accountId) {
+        List<AccountMember> members = new ArrayList<>();
+        // One row for each role of each member, ordered by member, and a row
+        // with no role for a member with none
+        List<Object[]> rows = entityManager.createQuery(ACCOUNT_MEMBERS_QUERY, Object[].class)
+                                           .setParameter("accountId", accountId)
+                                           .getResultList();
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            if (null != row[7]) {
+                roles.add((Role) row[7]);
+            }
 
-            users.add(user);
+            Object[] next = i + 1 < rows.size() ? rows.get(i + 1) : null;
+            if (null == next || !row[0].equals(next[0])) {
+                members.add(new AccountMember((Long) row[0], (String) row[1],
+                                              (String) row[2], (String) row[3],
+                                              (String) row[4], (String) row[5],
+                                              (Boolean) row[6],
+                                              roles.isEmpty() ? null : Role.highestRole(roles)));
+                roles = new HashSet<>();
+            }
         }
-        return users;
+        return members;
     }
 
 }
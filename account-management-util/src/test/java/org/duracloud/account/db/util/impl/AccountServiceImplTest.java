@@ -23,6 +23,8 @@ import org.duracloud.account.db.repo.DuracloudStorageProviderAccountRepo;
 import org.duracloud.account.db.util.AccountService;
 import org.duracloud.account.db.util.EmailTemplateService;
 import org.duracloud.account.db.util.notification.NotificationMgr;
+import org.duracloud.account.db.util.search.AccountSearchIndex;
+import org.duracloud.account.db.util.util.UserFinderUtil;
 import org.duracloud.common.changenotifier.AccountChangeNotifier;
 import org.duracloud.notification.Emailer;
 import org.duracloud.storage.domain.StorageProviderType;
@@ -88,7 +90,8 @@ public class AccountServiceImplTest extends EasyMockSupport {
 
     private AccountService createTestObject() {
         return new AccountServiceImpl(amaEndpoint, acct, repoMgr, accountChangeNotifier, notificationMgr,
-                                      emailTemplateService);
+                                      emailTemplateService, new AccountSearchIndex(),
+                                      new UserFinderUtil());
     }
 
     @Test
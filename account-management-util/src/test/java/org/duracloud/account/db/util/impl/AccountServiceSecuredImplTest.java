@@ -0,0 +1,134 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.duracloud.account.db.util.AccountService;
+import org.duracloud.account.db.util.error.AccessDeniedException;
+import org.duracloud.account.db.util.security.impl.AnnotationParserImpl;
+import org.easymock.EasyMock;
+import org.junit.Test;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.core.Authentication;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class AccountServiceSecuredImplTest {
+
+    /**
+     * Records the invocations voted on
+     */
+    private static class RecordingVoter implements AccessDecisionVoter<MethodInvocation> {
+        private final int decision;
+        private final List<MethodInvocation> invocations = new ArrayList<>();
+        private final List<Collection<ConfigAttribute>> attributes = new ArrayList<>();
+
+        RecordingVoter(int decision) {
+            this.decision = decision;
+        }
+
+        @Override
+        public boolean supports(ConfigAttribute attribute) {
+            return true;
+        }
+
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return true;
+        }
+
+        @Override
+        public int vote(Authentication authentication,
+                        MethodInvocation invocation,
+                        Collection<ConfigAttribute> atts) {
+            invocations.add(invocation);
+            attributes.add(atts);
+            return decision;
+        }
+    }
+
+    private AccountServiceSecuredImpl createService(AccessDecisionVoter voter) {
+        AccountService accountService = EasyMock.createNiceMock(AccountService.class);
+        EasyMock.replay(accountService);
+        return new AccountServiceSecuredImpl(accountService,
+                                             null,
+                                             voter,
+                                             new AnnotationParserImpl());
+    }
+
+    @Test
+    public void testVoteOnEachMethod() throws Exception {
+        RecordingVoter voter = new RecordingVoter(AccessDecisionVoter.ACCESS_GRANTED);
+        AccountServiceSecuredImpl service = createService(voter);
+
+        Method[] methods = AccountService.class.getMethods();
+        for (Method method : methods) {
+            Object[] args = new Object[method.getParameterCount()];
+            method.invoke(service, args);
+
+            // The voter sees the called method, its arguments and its rule
+            MethodInvocation invocation = voter.invocations.get(voter.invocations.size() - 1);
+            assertEquals(method.getName(), invocation.getMethod().getName());
+            assertEquals(AccountServiceSecuredImpl.class,
+                         invocation.getMethod().getDeclaringClass());
+            assertSame(service, invocation.getThis());
+            assertEquals(args.length, invocation.getArguments().length);
+
+            Collection<ConfigAttribute> atts =
+                voter.attributes.get(voter.attributes.size() - 1);
+            String[] rules = method.getAnnotation(Secured.class).value();
+            assertEquals(rules.length, atts.size());
+            assertEquals(rules[0], atts.iterator().next().getAttribute());
+        }
+        assertEquals(methods.length, voter.invocations.size());
+
+        // Rules are resolved once per method
+        service.getAccountId();
+        service.getAccountId();
+        int last = voter.attributes.size() - 1;
+        assertSame(voter.attributes.get(last - 1), voter.attributes.get(last));
+    }
+
+    @Test
+    public void testAccessDenied() throws Exception {
+        RecordingVoter voter = new RecordingVoter(AccessDecisionVoter.ACCESS_DENIED);
+        AccountServiceSecuredImpl service = createService(voter);
+
+        try {
+            service.getUsers();
+            fail("Exception expected");
+        } catch (AccessDeniedException e) {
+            assertTrue(e.getMessage().contains("denied"));
+        }
+
+        Method method = AccountService.class.getMethod("removeStorageProvider", Long.class);
+        try {
+            method.invoke(service, 1L);
+            fail("Exception expected");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof AccessDeniedException);
+        }
+        assertEquals(2, voter.invocations.size());
+    }
+
+}
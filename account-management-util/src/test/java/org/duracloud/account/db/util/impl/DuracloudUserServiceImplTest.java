@@ -8,16 +8,33 @@
 package org.duracloud.account.db.util.impl;
 
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.startsWith;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
 
 import org.duracloud.account.config.AmaEndpoint;
+import org.duracloud.account.db.model.AccountInfo;
+import org.duracloud.account.db.model.AccountRights;
 import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.repo.DuracloudAccountRepo;
 import org.duracloud.account.db.repo.DuracloudRepoMgr;
+import org.duracloud.account.db.repo.DuracloudRightsRepo;
 import org.duracloud.account.db.repo.DuracloudUserRepo;
 import org.duracloud.account.db.util.EmailTemplateService;
 import org.duracloud.account.db.util.error.InvalidUsernameException;
 import org.duracloud.account.db.util.error.ReservedPrefixException;
 import org.duracloud.account.db.util.error.UserAlreadyExistsException;
 import org.duracloud.account.db.util.notification.NotificationMgr;
+import org.duracloud.account.db.util.search.UserSearchIndex;
+import org.duracloud.account.db.util.security.AccountRightsCache;
+import org.duracloud.account.db.util.security.AdaptivePasswordEncoder;
+import org.duracloud.account.db.util.security.AuthenticatedUserCache;
+import org.duracloud.account.db.util.util.GroupMembershipUtil;
 import org.duracloud.common.changenotifier.AccountChangeNotifier;
 import org.easymock.EasyMockRunner;
 import org.easymock.EasyMockSupport;
@@ -56,6 +73,17 @@ public class DuracloudUserServiceImplTest extends EasyMockSupport {
     @Mock
     private DuracloudUser user;
 
+    @Mock
+    private DuracloudRightsRepo rightsRepo;
+
+    @Mock
+    private DuracloudAccountRepo accountRepo;
+
+    @Mock
+    private GroupMembershipUtil groupMembershipUtil;
+
+    private AuthenticatedUserCache authenticatedUserCache;
+
     private DuracloudUserServiceImpl service;
 
     @Before
@@ -127,8 +155,98 @@ public class DuracloudUserServiceImplTest extends EasyMockSupport {
         service.checkUsername("user");
     }
 
+    @Test
+    public void testUpgradePassword() throws Exception {
+        String password = "password";
+        String shaHash = new AdaptivePasswordEncoder().encode(password);
+        Long userId = 1L;
+
+        expect(user.getPassword()).andReturn(shaHash).anyTimes();
+        expect(user.getId()).andReturn(userId).anyTimes();
+        expect(user.getUsername()).andReturn("user").anyTimes();
+        expect(user.isRoot()).andReturn(true);
+        expect(duracloudRepoMgr.getUserRepo()).andReturn(userRepo).times(3);
+        expect(userRepo.findOne(userId)).andReturn(user).times(2);
+        user.setPassword(startsWith("$2a$04$"));
+        expectLastCall();
+        expect(userRepo.save(user)).andReturn(user);
+        notifier.rootUsersChanged();
+        expectLastCall();
+        replayAll();
+
+        service = getDuracloudUserService(
+            new AdaptivePasswordEncoder("bcrypt", 4, 1, 10));
+        assertTrue(service.upgradePassword(user, password));
+    }
+
+    @Test
+    public void testUpgradePasswordNotNeeded() throws Exception {
+        String password = "password";
+        AdaptivePasswordEncoder encoder =
+            new AdaptivePasswordEncoder("bcrypt", 4, 1, 10);
+        expect(user.getPassword()).andReturn(encoder.encode(password));
+        replayAll();
+
+        service = getDuracloudUserService(encoder);
+        assertFalse(service.upgradePassword(user, password));
+    }
+
+    @Test
+    public void testRevokeUserRights() throws Exception {
+        Long acctId = 2L;
+        Long userId = 3L;
+        String password = "password";
+
+        AccountRights rights = new AccountRights();
+        rights.setId(1L);
+        DuracloudUser revokedUser = new DuracloudUser();
+        revokedUser.setId(userId);
+        revokedUser.setUsername("user");
+        revokedUser.setAccountRights(new HashSet<AccountRights>());
+        revokedUser.getAccountRights().add(rights);
+        AccountInfo account = new AccountInfo();
+        account.setSubdomain("test");
+
+        expect(duracloudRepoMgr.getRightsRepo()).andReturn(rightsRepo);
+        expect(rightsRepo.findByAccountIdAndUserId(acctId, userId)).andReturn(rights);
+        expect(duracloudRepoMgr.getUserRepo()).andReturn(userRepo);
+        expect(userRepo.findOne(userId)).andReturn(revokedUser);
+        expect(userRepo.saveAndFlush(revokedUser)).andReturn(revokedUser);
+        rightsRepo.delete(1L);
+        expectLastCall();
+        expect(groupMembershipUtil.removeUserFromAccountGroups(acctId, userId))
+            .andReturn(new HashSet<String>());
+        expect(duracloudRepoMgr.getAccountRepo()).andReturn(accountRepo);
+        expect(accountRepo.getOne(acctId)).andReturn(account);
+        notifier.accountChanged("test");
+        expectLastCall();
+        replayAll();
+
+        // The user has recently authenticated with the rights now revoked
+        authenticatedUserCache.put("user", password, revokedUser,
+                                   authenticatedUserCache.getGeneration("user"));
+        assertSame(revokedUser, authenticatedUserCache.get("user", password));
+
+        service.revokeUserRights(acctId, userId);
+
+        // The next authentication must load the user again
+        assertNull(authenticatedUserCache.get("user", password));
+        assertFalse(revokedUser.getAccountRights().contains(rights));
+    }
+
     private DuracloudUserServiceImpl getDuracloudUserService() {
+        return getDuracloudUserService(new AdaptivePasswordEncoder());
+    }
+
+    private DuracloudUserServiceImpl getDuracloudUserService(
+        AdaptivePasswordEncoder passwordEncoder) {
+        authenticatedUserCache = new AuthenticatedUserCache();
         return new DuracloudUserServiceImpl(duracloudRepoMgr, notificationMgr, endpoint, notifier,
-                                            emailTemplateService);
+                                            emailTemplateService,
+                                            new AccountRightsCache(duracloudRepoMgr),
+                                            passwordEncoder,
+                                            authenticatedUserCache,
+                                            new UserSearchIndex(),
+                                            groupMembershipUtil);
     }
 }
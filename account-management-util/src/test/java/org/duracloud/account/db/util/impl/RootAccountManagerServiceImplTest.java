@@ -0,0 +1,301 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.impl;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.repo.DuracloudRepoMgr;
+import org.duracloud.account.db.repo.DuracloudUserRepo;
+import org.duracloud.account.db.util.KeysetPage;
+import org.duracloud.account.db.util.UserAccountRoles;
+import org.duracloud.account.db.util.search.UserSearchIndex;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+@RunWith(EasyMockRunner.class)
+public class RootAccountManagerServiceImplTest extends EasyMockSupport {
+
+    @Mock
+    private DuracloudRepoMgr repoMgr;
+
+    @Mock
+    private DuracloudUserRepo userRepo;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Long> countQuery;
+
+    @Mock
+    private TypedQuery<DuracloudUser> pageQuery;
+
+    private RootAccountManagerServiceImpl service;
+
+    @Before
+    public void setup() {
+        UserSearchIndex userSearchIndex = new UserSearchIndex();
+        userSearchIndex.setEntityManager(entityManager);
+        service = new RootAccountManagerServiceImpl(repoMgr, null, null, null,
+                                                    userSearchIndex, null, null);
+        service.setEntityManager(entityManager);
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testListUsers() {
+        List<DuracloudUser> users = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            users.add(createUser(id, "user" + id, false));
+        }
+
+        expect(entityManager.createQuery("SELECT COUNT(e) FROM DuracloudUser e", Long.class))
+            .andReturn(countQuery);
+        expect(countQuery.getSingleResult()).andReturn(5L);
+        expect(entityManager.createQuery("SELECT e FROM DuracloudUser e ORDER BY e.username, e.id",
+                                         DuracloudUser.class))
+            .andReturn(pageQuery);
+        expect(pageQuery.setMaxResults(3)).andReturn(pageQuery);
+        expect(pageQuery.getResultList()).andReturn(users);
+        replayAll();
+
+        KeysetPage<DuracloudUser> page = service.listUsers(null, null, null, 2);
+        assertEquals(users.subList(0, 2), page.getContent());
+        assertEquals(5, page.getTotal());
+        assertEquals(new KeysetPage.Key("user2", 2L), page.getNextKey());
+        assertNull(page.getPrevKey());
+    }
+
+    @Test
+    public void testListRootUsers() {
+        DuracloudUser user1 = createUser(1L, "user1", true);
+        DuracloudUser user2 = createUser(2L, "user2", true);
+
+        expect(entityManager.createQuery("SELECT COUNT(e) FROM DuracloudUser e WHERE e.root = true",
+                                         Long.class))
+            .andReturn(countQuery);
+        expect(countQuery.getSingleResult()).andReturn(3L);
+
+        expect(entityManager.createQuery(startsWith("SELECT e FROM"), eq(DuracloudUser.class)))
+            .andReturn(pageQuery);
+        // One more than the page size is requested
+        expect(pageQuery.setMaxResults(2)).andReturn(pageQuery);
+        expect(pageQuery.getResultList()).andReturn(Arrays.asList(user1, user2));
+        replayAll();
+
+        KeysetPage<DuracloudUser> page = service.listRootUsers(null, null, null, 1);
+        assertEquals(Arrays.asList(user1), page.getContent());
+        assertEquals(3, page.getTotal());
+        assertTrue(page.hasNext());
+        assertEquals(new KeysetPage.Key("user1", 1L), page.getNextKey());
+    }
+
+    @Test
+    public void testSearchUsers() {
+        DuracloudUser user1 = createUser(1L, "jsmith", false);
+        DuracloudUser user2 = createUser(2L, "adoe", true);
+        user2.setEmail("ann.smithers@example.com");
+        DuracloudUser user3 = createUser(3L, "bjones", true);
+        TypedQuery<Object[]> loadQuery = createMock(TypedQuery.class);
+
+        // The index is loaded once, and a page of users loaded by ID
+        expect(entityManager.createQuery(startsWith("SELECT u.id, u.username"),
+                                         eq(Object[].class)))
+            .andReturn(loadQuery);
+        expect(loadQuery.getResultList()).andReturn(Arrays.asList(toRow(user1), toRow(user2),
+                                                                  toRow(user3)));
+        expect(repoMgr.getUserRepo()).andReturn(userRepo).times(2);
+        expect(userRepo.findAll(Arrays.asList(2L, 1L))).andReturn(Arrays.asList(user1, user2));
+        expect(userRepo.findAll(Arrays.asList(2L))).andReturn(Arrays.asList(user2));
+        replayAll();
+
+        // Matches are ordered by username, ignoring case
+        KeysetPage<DuracloudUser> page = service.listUsers("SMITH", null, null, 10);
+        assertEquals(Arrays.asList(user2, user1), page.getContent());
+        assertEquals(2, page.getTotal());
+
+        page = service.listRootUsers("smi", null, null, 10);
+        assertEquals(Arrays.asList(user2), page.getContent());
+    }
+
+    @Test
+    public void testListUsersAfterKey() {
+        DuracloudUser user8 = createUser(8L, "user8", false);
+
+        expect(entityManager.createQuery(startsWith("SELECT COUNT(e)"), eq(Long.class)))
+            .andReturn(countQuery);
+        expect(countQuery.getSingleResult()).andReturn(3L);
+
+        // The page continues from the username and ID of the key, without
+        // looking up the user they were taken from, which may be gone
+        expect(entityManager.createQuery(
+            "SELECT e FROM DuracloudUser e WHERE (e.username > :key OR " +
+            "(e.username = :key AND e.id > :keyId)) ORDER BY e.username, e.id",
+            DuracloudUser.class)).andReturn(pageQuery);
+        expect(pageQuery.setParameter("key", "user7")).andReturn(pageQuery);
+        expect(pageQuery.setParameter("keyId", 7L)).andReturn(pageQuery);
+        expect(pageQuery.setMaxResults(11)).andReturn(pageQuery);
+        expect(pageQuery.getResultList()).andReturn(Arrays.asList(user8));
+        replayAll();
+
+        KeysetPage<DuracloudUser> page =
+            service.listUsers(null, new KeysetPage.Key("user7", 7L), null, 10);
+        assertEquals(Arrays.asList(user8), page.getContent());
+        assertEquals(3, page.getTotal());
+        assertNull(page.getNextKey());
+        assertEquals(new KeysetPage.Key("user8", 8L), page.getPrevKey());
+    }
+
+    @Test
+    public void testListUsersBeforeKey() {
+        DuracloudUser user3 = createUser(3L, "user3", false);
+        DuracloudUser user4 = createUser(4L, "user4", false);
+        DuracloudUser user5 = createUser(5L, "user5", false);
+
+        expect(entityManager.createQuery(startsWith("SELECT COUNT(e)"), eq(Long.class)))
+            .andReturn(countQuery);
+        expect(countQuery.getSingleResult()).andReturn(8L);
+
+        // The page before the key is found in reverse order
+        expect(entityManager.createQuery(
+            "SELECT e FROM DuracloudUser e WHERE (e.username < :key OR " +
+            "(e.username = :key AND e.id < :keyId)) ORDER BY e.username DESC, e.id DESC",
+            DuracloudUser.class)).andReturn(pageQuery);
+        expect(pageQuery.setParameter("key", "user6")).andReturn(pageQuery);
+        expect(pageQuery.setParameter("keyId", 6L)).andReturn(pageQuery);
+        expect(pageQuery.setMaxResults(3)).andReturn(pageQuery);
+        expect(pageQuery.getResultList()).andReturn(Arrays.asList(user5, user4, user3));
+        replayAll();
+
+        KeysetPage<DuracloudUser> page =
+            service.listUsers(null, null, new KeysetPage.Key("user6", 6L), 2);
+        assertEquals(Arrays.asList(user4, user5), page.getContent());
+        assertEquals(8, page.getTotal());
+        assertEquals(new KeysetPage.Key("user4", 4L), page.getPrevKey());
+        assertEquals(new KeysetPage.Key("user5", 5L), page.getNextKey());
+    }
+
+    @Test
+    public void testListUsersBeforeKeyAtStart() {
+        DuracloudUser user1 = createUser(1L, "user1", false);
+        DuracloudUser user2 = createUser(2L, "user2", false);
+        DuracloudUser user3 = createUser(3L, "user3", false);
+        TypedQuery<DuracloudUser> firstPageQuery = createMock(TypedQuery.class);
+
+        expect(entityManager.createQuery(startsWith("SELECT COUNT(e)"), eq(Long.class)))
+            .andReturn(countQuery);
+        expect(countQuery.getSingleResult()).andReturn(3L);
+
+        expect(entityManager.createQuery(startsWith("SELECT e FROM DuracloudUser e WHERE"),
+                                         eq(DuracloudUser.class)))
+            .andReturn(pageQuery);
+        expect(pageQuery.setParameter("key", "user2")).andReturn(pageQuery);
+        expect(pageQuery.setParameter("keyId", 2L)).andReturn(pageQuery);
+        expect(pageQuery.setMaxResults(3)).andReturn(pageQuery);
+        expect(pageQuery.getResultList()).andReturn(Arrays.asList(user1));
+
+        // There is not a full page before the key, so the first page is
+        // found instead
+        expect(entityManager.createQuery("SELECT e FROM DuracloudUser e ORDER BY e.username, e.id",
+                                         DuracloudUser.class))
+            .andReturn(firstPageQuery);
+        expect(firstPageQuery.setMaxResults(3)).andReturn(firstPageQuery);
+        expect(firstPageQuery.getResultList()).andReturn(Arrays.asList(user1, user2, user3));
+        replayAll();
+
+        KeysetPage<DuracloudUser> page =
+            service.listUsers(null, null, new KeysetPage.Key("user2", 2L), 2);
+        assertEquals(Arrays.asList(user1, user2), page.getContent());
+        assertNull(page.getPrevKey());
+        assertEquals(new KeysetPage.Key("user2", 2L), page.getNextKey());
+    }
+
+    @Test
+    public void testExportUsers() {
+        TypedQuery<Object[]> userQuery = createMock(TypedQuery.class);
+        TypedQuery<Object[]> rolesQuery = createMock(TypedQuery.class);
+
+        List<Object[]> users = Arrays.asList(
+            new Object[] {2L, "adoe", "Ann", "Doe", "adoe@example.com"},
+            new Object[] {1L, "jsmith", "John", "Smith", "jsmith@example.com"});
+        expect(entityManager.createQuery(startsWith("SELECT u.id"), eq(Object[].class)))
+            .andReturn(userQuery);
+        expect(userQuery.setMaxResults(500)).andReturn(userQuery);
+        expect(userQuery.getResultList()).andReturn(users);
+
+        // A row for each role a user holds in an account
+        List<Object[]> roles = Arrays.asList(
+            new Object[] {1L, 10L, "acct-a", Role.ROLE_USER},
+            new Object[] {1L, 10L, "acct-a", Role.ROLE_ADMIN},
+            new Object[] {1L, 11L, "acct-b", Role.ROLE_USER});
+        expect(entityManager.createQuery(startsWith("SELECT r.user.id"), eq(Object[].class)))
+            .andReturn(rolesQuery);
+        expect(rolesQuery.setParameter("ids", Arrays.asList(2L, 1L))).andReturn(rolesQuery);
+        expect(rolesQuery.getResultList()).andReturn(roles);
+        replayAll();
+
+        List<UserAccountRoles> exported = new ArrayList<>();
+        service.exportUsers(exported::add);
+
+        assertEquals(2, exported.size());
+        assertEquals("adoe", exported.get(0).getUsername());
+        assertTrue(exported.get(0).getAccountRoles().isEmpty());
+
+        UserAccountRoles user = exported.get(1);
+        assertEquals("jsmith", user.getUsername());
+        assertEquals("jsmith@example.com", user.getEmail());
+        assertEquals(2, user.getAccountRoles().size());
+        assertEquals("acct-a", user.getAccountRoles().get(0).getAccountName());
+        assertEquals(Role.ROLE_ADMIN, user.getAccountRoles().get(0).getRole());
+        assertEquals(Long.valueOf(11), user.getAccountRoles().get(1).getAccountId());
+        assertEquals(Role.ROLE_USER, user.getAccountRoles().get(1).getRole());
+    }
+
+    private DuracloudUser createUser(Long id, String username, boolean root) {
+        DuracloudUser user = new DuracloudUser();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFirstName("first");
+        user.setLastName("last");
+        user.setEmail(username + "@example.com");
+        user.setRoot(root);
+        return user;
+    }
+
+    private Object[] toRow(DuracloudUser user) {
+        return new Object[] {user.getId(), user.getUsername(), user.getFirstName(),
+                             user.getLastName(), user.getEmail(), user.isRoot()};
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.search;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManager;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class AbstractSearchIndexTest {
+
+    @Test
+    public void testKeptUntilInvalidated() {
+        TestIndex index = new TestIndex();
+        index.setMaxAgeMillis(0);
+
+        assertEquals(Arrays.asList(1L), index.search("item"));
+        index.items = 2;
+        assertEquals(Arrays.asList(1L), index.search("item"));
+        assertEquals(1, index.loads);
+
+        index.invalidate();
+        assertEquals(Arrays.asList(1L, 2L), index.search("item"));
+        assertEquals(2, index.loads);
+    }
+
+    @Test
+    public void testReloadedOnceExpired() throws Exception {
+        TestIndex index = new TestIndex();
+        index.setMaxAgeMillis(1);
+
+        assertEquals(Arrays.asList(1L), index.search("item"));
+
+        // An item added by another instance of the application
+        index.items = 2;
+        Thread.sleep(10);
+        assertEquals(Arrays.asList(1L, 2L), index.search("item"));
+        assertEquals(2, index.loads);
+    }
+
+    private static class TestIndex extends AbstractSearchIndex {
+        private int items = 1;
+        private int loads;
+
+        @Override
+        protected void load(NgramIndex index, EntityManager entityManager) {
+            loads++;
+            for (long id = 1; id <= items; id++) {
+                index.put(id, "item" + id, "item" + id);
+            }
+        }
+
+        private List<Long> search(String query) {
+            return search(query, false, null, null, 10).getContent();
+        }
+    }
+
+}
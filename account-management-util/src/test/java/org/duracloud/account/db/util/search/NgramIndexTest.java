@@ -0,0 +1,131 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.duracloud.account.db.util.KeysetPage;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class NgramIndexTest {
+
+    private NgramIndex index;
+
+    @Before
+    public void setup() {
+        index = new NgramIndex();
+        index.put(1L, "jsmith", true, "jsmith", "John", "Smith", "john@example.com");
+        index.put(2L, "Adoe", "Adoe", "Ann", "Doe", "ann.smithers@example.org");
+        index.put(3L, "bjones", "bjones", "Bob", "Jones", null);
+    }
+
+    @Test
+    public void testSearch() {
+        // Infix matches, ignoring case, ordered by sort key
+        assertEquals(Arrays.asList(2L, 1L), search("SMITH"));
+        assertEquals(Arrays.asList(2L, 1L), search("example"));
+        assertEquals(Arrays.asList(3L), search("jon"));
+
+        // Short queries
+        assertEquals(Arrays.asList(2L, 3L, 1L), search("o"));
+        assertEquals(Arrays.asList(2L, 3L, 1L), search(""));
+
+        // Matches do not span fields
+        assertEquals(Collections.emptyList(), search("smithjohn"));
+        assertEquals(Collections.emptyList(), search("xyz"));
+
+        // Flagged items only
+        KeysetPage<Long> page = index.search("smith", true, null, null, 10);
+        assertEquals(Arrays.asList(1L), page.getContent());
+        assertEquals(1, page.getTotal());
+
+        // The flag is replaced with the item
+        index.put(1L, "jsmith", false, "jsmith");
+        index.put(2L, "Adoe", true, "Adoe", "ann.smithers@example.org");
+        assertEquals(Arrays.asList(2L), index.search("smith", true, null, null, 10).getContent());
+    }
+
+    @Test
+    public void testPagingBackward() {
+        KeysetPage<Long> page =
+            index.search(null, false, null, new KeysetPage.Key("jsmith", 1L), 1);
+        assertEquals(Arrays.asList(3L), page.getContent());
+        assertEquals(3, page.getTotal());
+        assertEquals(new KeysetPage.Key("bjones", 3L), page.getPrevKey());
+        assertEquals(new KeysetPage.Key("bjones", 3L), page.getNextKey());
+
+        // There is not a full page before the key, so the first page is
+        // returned
+        page = index.search(null, false, null, page.getPrevKey(), 2);
+        assertEquals(Arrays.asList(2L, 3L), page.getContent());
+        assertFalse(page.hasPrevious());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    public void testPaging() {
+        KeysetPage<Long> page = index.search(null, false, null, null, 2);
+        assertEquals(Arrays.asList(2L, 3L), page.getContent());
+        assertEquals(3, page.getTotal());
+        assertTrue(page.hasNext());
+
+        page = index.search(null, false, page.getNextKey(), null, 2);
+        assertEquals(Arrays.asList(1L), page.getContent());
+        assertEquals(3, page.getTotal());
+        assertFalse(page.hasNext());
+        assertEquals(new KeysetPage.Key("jsmith", 1L), page.getPrevKey());
+
+        // Paging continues from the key when its item is removed or renamed
+        KeysetPage.Key afterJones = new KeysetPage.Key("bjones", 3L);
+        index.remove(3L);
+        assertEquals(Arrays.asList(1L),
+                     index.search(null, false, afterJones, null, 2).getContent());
+        index.put(2L, "zdoe", "zdoe");
+        assertEquals(Arrays.asList(1L, 2L),
+                     index.search(null, false, new KeysetPage.Key("Adoe", 2L), null, 2)
+                          .getContent());
+    }
+
+    @Test
+    public void testChange() {
+        index.put(1L, "jsmythe", "jsmythe", "John", "Smythe", "john@example.com");
+        assertEquals(Arrays.asList(2L), search("smith"));
+        assertEquals(Arrays.asList(1L), search("smyth"));
+
+        index.remove(2L);
+        assertEquals(Collections.emptyList(), search("smith"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testCompaction() {
+        // Repeated changes leave stale ordinals, which are compacted away
+        for (int i = 0; i < 5000; i++) {
+            index.put(1L, "jsmith", "jsmith", "John", "Smith" + i, null);
+        }
+        assertEquals(Arrays.asList(1L), search("smith4999"));
+        assertEquals(Collections.emptyList(), search("smith4998"));
+        assertEquals(3, index.size());
+    }
+
+    private List<Long> search(String query) {
+        return index.search(query, false, null, null, 10).getContent();
+    }
+
+}
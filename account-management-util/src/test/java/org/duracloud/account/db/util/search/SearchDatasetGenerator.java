@@ -0,0 +1,109 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.search;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.duracloud.account.db.model.DuracloudUser;
+
+/**
+ * Generates a reproducible set of users with realistic names and email
+ * addresses for measuring search. Given a file name, it writes the users as
+ * SQL inserts for the duracloud_user table, to load into a test database:
+ *
+ * java -cp [test classpath] \
+ *   org.duracloud.account.db.util.search.SearchDatasetGenerator \
+ *   [user-count] [sql-file]
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class SearchDatasetGenerator {
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+        "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan",
+        "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen", "Wei",
+        "Priya", "Mohammed", "Fatima", "Hiroshi", "Yuki", "Carlos", "Lucia",
+        "Olumide", "Amara", "Sven", "Ingrid", "Dmitri", "Anya", "Mateo", "Sofia"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+        "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez",
+        "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark",
+        "Nakamura", "Okafor", "Johansson", "Ivanova", "Patel", "Chen", "Kim"
+    };
+
+    private static final String[] DOMAINS = {
+        "example.edu", "library.example.org", "archive.example.gov",
+        "university.example.edu", "museum.example.org", "college.example.edu"
+    };
+
+    private SearchDatasetGenerator() {
+        // Use the static methods
+    }
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        String file = args.length > 1 ? args[1] : "search-users.sql";
+        writeSql(generateUsers(count, 1L), file);
+        System.out.println(String.format("Wrote %d users to %s", count, file));
+    }
+
+    /**
+     * @param count of users
+     * @param seed  of the generator; the same seed gives the same users
+     * @return users with IDs from 1, of which about 1 in 100 are root
+     */
+    public static List<DuracloudUser> generateUsers(int count, long seed) {
+        Random random = new Random(seed);
+        List<DuracloudUser> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String base = (first.charAt(0) + last).toLowerCase();
+
+            DuracloudUser user = new DuracloudUser();
+            user.setId((long) i);
+            user.setUsername(base + i);
+            user.setFirstName(first);
+            user.setLastName(last);
+            user.setEmail(first.toLowerCase() + "." + last.toLowerCase() + i + "@" +
+                          DOMAINS[random.nextInt(DOMAINS.length)]);
+            user.setRoot(random.nextInt(100) == 0);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static void writeSql(List<DuracloudUser> users, String file) throws IOException {
+        try (BufferedWriter writer =
+                 Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8)) {
+            for (DuracloudUser user : users) {
+                writer.write(String.format(
+                    "INSERT INTO `duracloud_user` (`id`, `account_non_expired`, " +
+                    "`account_non_locked`, `credentials_non_expired`, `email`, `enabled`, " +
+                    "`first_name`, `last_name`, `password`, `root`, `username`) " +
+                    "VALUES (%d, 1, 1, 1, '%s', 1, '%s', '%s', 'x', %d, '%s');",
+                    user.getId(), user.getEmail(), user.getFirstName(),
+                    user.getLastName(), user.isRoot() ? 1 : 0, user.getUsername()));
+                writer.newLine();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.duracloud.account.db.model.DuracloudUser;
+
+/**
+ * Measures the time to load the user search index and to answer a mix of
+ * searches over users made by SearchDatasetGenerator. This is not run as
+ * part of the build; run it with:
+ *
+ * java -cp [test classpath] \
+ *   org.duracloud.account.db.util.search.SearchIndexBenchmark \
+ *   [user-count] [iterations]
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class SearchIndexBenchmark {
+
+    private static final List<String> QUERIES = Arrays.asList(
+        "s",             // short, scans every user
+        "jo",            // short
+        "smith",         // common last name
+        "nakamura",      // less common last name
+        "mary.lee",      // email infix
+        "museum",        // email domain, matches about 1 in 6
+        "example",       // matches every user
+        "jsmith12",      // username prefix
+        "zzz");          // no match
+
+    private SearchIndexBenchmark() {
+        // Run through main
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        List<DuracloudUser> users = SearchDatasetGenerator.generateUsers(count, 1L);
+        long start = System.nanoTime();
+        NgramIndex index = new NgramIndex();
+        for (DuracloudUser user : users) {
+            index.put(user.getId(), user.getUsername(), user.getUsername(),
+                      user.getFirstName(), user.getLastName(), user.getEmail());
+        }
+        System.out.println(String.format("Indexed %d users in %.0f ms",
+                                         count, (System.nanoTime() - start) / 1e6));
+
+        for (String query : QUERIES) {
+            // Warm up
+            for (int i = 0; i < 20; i++) {
+                index.search(query, false, null, null, 50);
+            }
+
+            long total = 0;
+            long[] times = new long[iterations];
+            for (int i = 0; i < iterations; i++) {
+                long queryStart = System.nanoTime();
+                total = index.search(query, false, null, null, 50).getTotal();
+                times[i] = System.nanoTime() - queryStart;
+            }
+            Arrays.sort(times);
+            System.out.println(String.format(
+                "%-10s %7d matches: median %6.2f ms, 99th percentile %6.2f ms",
+                query, total, times[iterations / 2] / 1e6,
+                times[(int) (iterations * 0.99)] / 1e6));
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+@RunWith(EasyMockRunner.class)
+public class AccountMemberCounterTest extends EasyMockSupport {
+
+    private static final String COUNT_QUERY =
+        "SELECT COUNT(r) FROM AccountRights r WHERE r.account.id = :accountId";
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Long> countQuery;
+
+    private AccountMemberCounter counter;
+
+    @Before
+    public void setup() {
+        counter = new AccountMemberCounter();
+        counter.setEntityManager(entityManager);
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testMemberCount() {
+        // Each count is made again, so a change is seen at once
+        expectCount(1L, 2L);
+        expectCount(1L, 1L);
+        replayAll();
+
+        assertEquals(2, counter.getMemberCount(1L));
+        assertEquals(1, counter.getMemberCount(1L));
+    }
+
+    @Test
+    public void testEmpty() {
+        expectCount(1L, 0L);
+        expectCount(2L, 1L);
+        replayAll();
+
+        assertTrue(counter.isEmpty(1L));
+        assertFalse(counter.isEmpty(2L));
+    }
+
+    private void expectCount(Long acctId, Long count) {
+        expect(entityManager.createQuery(COUNT_QUERY, Long.class)).andReturn(countQuery);
+        expect(countQuery.setParameter("accountId", acctId)).andReturn(countQuery);
+        expect(countQuery.getSingleResult()).andReturn(count);
+    }
+
+}
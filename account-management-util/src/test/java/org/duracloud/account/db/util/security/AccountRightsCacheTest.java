@@ -0,0 +1,108 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.duracloud.account.db.model.AccountRights;
+import org.duracloud.account.db.repo.DuracloudRepoMgr;
+import org.duracloud.account.db.repo.DuracloudRightsRepo;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+@RunWith(EasyMockRunner.class)
+public class AccountRightsCacheTest extends EasyMockSupport {
+
+    @Mock
+    private DuracloudRepoMgr repoMgr;
+
+    @Mock
+    private DuracloudRightsRepo rightsRepo;
+
+    private AccountRights rights;
+    private AccountRightsCache cache;
+
+    @Before
+    public void setup() {
+        rights = new AccountRights();
+        cache = new AccountRightsCache(repoMgr);
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(
+            AccountRightsCache.class.getName());
+        verifyAll();
+    }
+
+    private void expectQuery(Long acctId, Long userId, AccountRights result, int times) {
+        expect(repoMgr.getRightsRepo()).andReturn(rightsRepo).times(times);
+        expect(rightsRepo.findByAccountIdAndUserId(acctId, userId))
+            .andReturn(result).times(times);
+    }
+
+    @Test
+    public void testNoScope() {
+        expectQuery(1L, 2L, rights, 2);
+        replayAll();
+
+        assertSame(rights, cache.getRights(1L, 2L));
+        assertSame(rights, cache.getRights(1L, 2L));
+        assertEquals(2, cache.getQueryCount());
+        assertEquals(0, cache.getSavedQueryCount());
+    }
+
+    @Test
+    public void testTransactionScope() {
+        expectQuery(1L, 2L, rights, 2);
+        expectQuery(1L, 3L, null, 1);
+        replayAll();
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertSame(rights, cache.getRights(1L, 2L));
+        assertSame(rights, cache.getRights(1L, 2L));
+        assertSame(rights, cache.getRights(1L, 2L));
+
+        // Missing rights are also retained
+        assertNull(cache.getRights(1L, 3L));
+        assertNull(cache.getRights(1L, 3L));
+
+        // Changed rights are queried again
+        cache.invalidate(1L, 2L);
+        assertSame(rights, cache.getRights(1L, 2L));
+
+        assertEquals(3, cache.getQueryCount());
+        assertEquals(3, cache.getSavedQueryCount());
+
+        // Retained rights are discarded when the transaction completes
+        for (TransactionSynchronization sync :
+            TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertNull(TransactionSynchronizationManager.getResource(
+            AccountRightsCache.class.getName()));
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class AdaptivePasswordEncoderTest {
+
+    private static final String PASSWORD = "pass";
+    private static final String SHA_HASH =
+        "d74ff0ee8da3b9806b18c877dbf29bbde50b5bd8e4dad7a3a725000feb82e8f1";
+
+    private AdaptivePasswordEncoder shaEncoder = new AdaptivePasswordEncoder();
+    private AdaptivePasswordEncoder bcryptEncoder =
+        new AdaptivePasswordEncoder("bcrypt", 4, 1, 10);
+
+    @After
+    public void tearDown() {
+        shaEncoder.shutdown();
+        bcryptEncoder.shutdown();
+    }
+
+    @Test
+    public void testAlgorithm() {
+        assertEquals(AdaptivePasswordEncoder.Algorithm.SHA_256,
+                     AdaptivePasswordEncoder.Algorithm.fromString("sha-256"));
+        assertEquals(AdaptivePasswordEncoder.Algorithm.SHA_256,
+                     AdaptivePasswordEncoder.Algorithm.fromString("SHA_256"));
+        assertEquals(AdaptivePasswordEncoder.Algorithm.BCRYPT,
+                     AdaptivePasswordEncoder.Algorithm.fromString(" BCrypt "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownAlgorithm() {
+        AdaptivePasswordEncoder.Algorithm.fromString("md5");
+    }
+
+    @Test
+    public void testSha256() {
+        assertEquals(SHA_HASH, shaEncoder.encode(PASSWORD));
+        assertTrue(shaEncoder.matches(PASSWORD, SHA_HASH));
+        assertFalse(shaEncoder.matches("other", SHA_HASH));
+        assertFalse(shaEncoder.matches(PASSWORD, null));
+        assertFalse(shaEncoder.upgradeEncoding(SHA_HASH));
+    }
+
+    @Test
+    public void testBcrypt() {
+        String hash = bcryptEncoder.encode(PASSWORD);
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(bcryptEncoder.matches(PASSWORD, hash));
+        assertFalse(bcryptEncoder.matches("other", hash));
+
+        // Either encoder verifies either format
+        assertTrue(bcryptEncoder.matches(PASSWORD, SHA_HASH));
+        assertTrue(shaEncoder.matches(PASSWORD, hash));
+    }
+
+    @Test
+    public void testUpgradeEncoding() {
+        assertTrue(bcryptEncoder.upgradeEncoding(SHA_HASH));
+        assertFalse(bcryptEncoder.upgradeEncoding(bcryptEncoder.encode(PASSWORD)));
+
+        AdaptivePasswordEncoder strongerEncoder =
+            new AdaptivePasswordEncoder("bcrypt", 5, 1, 10);
+        try {
+            assertTrue(strongerEncoder.upgradeEncoding(bcryptEncoder.encode(PASSWORD)));
+        } finally {
+            strongerEncoder.shutdown();
+        }
+    }
+
+    @Test
+    public void testTimeout() {
+        // A bcrypt hash at strength 14 takes far longer than the timeout
+        AdaptivePasswordEncoder slowEncoder =
+            new AdaptivePasswordEncoder("bcrypt", 14, 1, 10, 1);
+        try {
+            slowEncoder.encode(PASSWORD);
+            fail("Exception expected");
+        } catch (AuthenticationServiceException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        } finally {
+            slowEncoder.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.duracloud.account.db.model.DuracloudUser;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class AuthenticatedUserCacheTest {
+
+    private DuracloudUser user = new DuracloudUser();
+
+    @Test
+    public void testGet() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache();
+        assertNull(cache.get("user", "pass"));
+
+        put(cache, "user");
+        assertSame(user, cache.get("user", "pass"));
+        assertNull(cache.get("user", "other"));
+        assertNull(cache.get("other", "pass"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testInvalidate() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache();
+        put(cache, "user");
+        put(cache, "other");
+
+        cache.invalidate("user");
+        assertNull(cache.get("user", "pass"));
+        assertSame(user, cache.get("other", "pass"));
+
+        cache.invalidateAll();
+        assertNull(cache.get("other", "pass"));
+    }
+
+    @Test
+    public void testInvalidateDuringAuthentication() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache();
+
+        // The user changes after being loaded, but before being retained
+        long generation = cache.getGeneration("user");
+        cache.invalidate("user");
+        cache.put("user", "pass", user, generation);
+        assertNull(cache.get("user", "pass"));
+
+        generation = cache.getGeneration("user");
+        cache.invalidateAll();
+        cache.put("user", "pass", user, generation);
+        assertNull(cache.get("user", "pass"));
+
+        put(cache, "user");
+        assertSame(user, cache.get("user", "pass"));
+    }
+
+    @Test
+    public void testInvalidateWithinTransaction() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("user");
+
+            // The user is read, before the change is committed
+            put(cache, "user");
+            assertSame(user, cache.get("user", "pass"));
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+            assertNull(cache.get("user", "pass"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testExpiry() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(0, 10);
+        put(cache, "user");
+        assertNull(cache.get("user", "pass"));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(60000, 2);
+        put(cache, "user1");
+        put(cache, "user2");
+        put(cache, "user3");
+
+        assertNull(cache.get("user1", "pass"));
+        assertSame(user, cache.get("user3", "pass"));
+    }
+
+    private void put(AuthenticatedUserCache cache, String username) {
+        cache.put(username, "pass", user, cache.getGeneration(username));
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the login throughput which AdaptivePasswordEncoder sustains at
+ * each bcrypt strength, using the given number of hashing threads, and
+ * reports the highest strength which meets a target number of logins per
+ * second. Logins are submitted from more request threads than there are
+ * hashing threads, as they would be under load. This is not run as part of
+ * the build; run it on hardware like that of the deployment with:
+ *
+ * java -cp [test classpath] \
+ *   org.duracloud.account.db.util.security.PasswordHashBenchmark \
+ *   [target-logins-per-second] [hashing-threads] [max-strength]
+ *
+ * @author agent
+ * Date: 10/17/26
+ */
+public class PasswordHashBenchmark {
+
+    private static final int MIN_STRENGTH = 4;
+    private static final int REQUEST_THREADS = 32;
+    private static final long MIN_RUN_MILLIS = 2000;
+
+    private PasswordHashBenchmark() {
+        // Run through main
+    }
+
+    public static void main(String[] args) throws Exception {
+        double target = args.length > 0 ? Double.parseDouble(args[0]) : 50;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) :
+                      Runtime.getRuntime().availableProcessors();
+        int maxStrength = args.length > 2 ? Integer.parseInt(args[2]) : 14;
+
+        ExecutorService requests = Executors.newFixedThreadPool(REQUEST_THREADS);
+        int chosen = -1;
+        try {
+            for (int strength = MIN_STRENGTH; strength <= maxStrength; strength++) {
+                double loginsPerSecond = measure(requests, strength, threads);
+                System.out.println(String.format(
+                    "strength %2d, %d hashing threads: %8.1f logins/s, %7.1f ms/login",
+                    strength, threads, loginsPerSecond, 1000.0 * threads / loginsPerSecond));
+                if (loginsPerSecond < target) {
+                    break;
+                }
+                chosen = strength;
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+
+        if (chosen < 0) {
+            System.out.println(String.format(
+                "No strength of at least %d meets %.1f logins/s; add hashing threads",
+                MIN_STRENGTH, target));
+        } else {
+            System.out.println(String.format(
+                "Highest strength meeting %.1f logins/s: password.hash.strength=%d",
+                target, chosen));
+        }
+    }
+
+    /*
+     * Verifies passwords against a stored hash, as logins do, for at least
+     * MIN_RUN_MILLIS and returns the rate achieved.
+     */
+    private static double measure(ExecutorService requests, int strength, int threads)
+        throws Exception {
+        AdaptivePasswordEncoder encoder =
+            new AdaptivePasswordEncoder("bcrypt", strength, threads, REQUEST_THREADS);
+        try {
+            String hash = encoder.encode("password");
+            encoder.matches("password", hash); // warm up
+
+            int logins = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < REQUEST_THREADS; i++) {
+                    results.add(requests.submit(() -> encoder.matches("password", hash)));
+                }
+                for (Future<Boolean> result : results) {
+                    if (!result.get()) {
+                        throw new IllegalStateException("Password did not match");
+                    }
+                    logins++;
+                }
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MIN_RUN_MILLIS * 1000000L);
+
+            return logins * 1e9 / elapsed;
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.security.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.duracloud.account.db.util.AccountService;
+import org.duracloud.account.db.util.DuracloudUserService;
+import org.duracloud.account.db.util.EmailTemplateService;
+import org.duracloud.account.db.util.impl.AccountServiceSecuredImpl;
+import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.junit.Test;
+import org.springframework.security.access.annotation.Secured;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+public class AnnotationParserImplTest {
+
+    /**
+     * Has a method without a rule
+     */
+    public interface EmptyRuleService {
+        @Secured({})
+        void call();
+    }
+
+    /**
+     * Has a method without the annotation
+     */
+    public interface MissingRuleService {
+        @Secured({"role:ROLE_USER, scope:ANY"})
+        void call();
+
+        void unsecured();
+    }
+
+    /**
+     * Has differing rules which cannot be told apart by method name
+     */
+    public interface OverloadedService {
+        @Secured({"role:ROLE_USER, scope:ANY"})
+        void call();
+
+        @Secured({"role:ROLE_ADMIN, scope:ANY"})
+        void call(String arg);
+    }
+
+    @Test
+    public void testGetMethodAnnotations() throws Exception {
+        AnnotationParserImpl parser = new AnnotationParserImpl();
+
+        Map<String, Object[]> methods =
+            parser.getMethodAnnotationsForClass(Secured.class, AccountService.class);
+        assertEquals(AccountService.class.getMethods().length, methods.size());
+        String[] rules = AccountService.class.getMethod("getUsers")
+                                             .getAnnotation(Secured.class).value();
+        assertArrayEquals(rules, methods.get("getUsers"));
+
+        // Parsed once per class
+        assertSame(methods,
+                   parser.getMethodAnnotationsForClass(Secured.class, AccountService.class));
+
+        // The annotated interface of a class is found
+        Map<String, Object[]> implMethods =
+            parser.getMethodAnnotationsForClass(Secured.class,
+                                                AccountServiceSecuredImpl.class);
+        assertEquals(methods.keySet(), implMethods.keySet());
+    }
+
+    @Test
+    public void testStartup() {
+        AnnotationParserImpl parser =
+            new AnnotationParserImpl(Secured.class,
+                                     Arrays.asList(AccountService.class,
+                                                   DuracloudUserService.class,
+                                                   EmailTemplateService.class));
+        assertEquals(DuracloudUserService.class.getMethods().length,
+                     parser.getMethodAnnotationsForClass(Secured.class,
+                                                         DuracloudUserService.class)
+                           .size());
+
+        verifyStartupFails(EmptyRuleService.class);
+        verifyStartupFails(MissingRuleService.class);
+        verifyStartupFails(OverloadedService.class);
+        verifyStartupFails(Runnable.class);
+    }
+
+    private void verifyStartupFails(Class securedClass) {
+        try {
+            new AnnotationParserImpl(Secured.class, Collections.singletonList(securedClass));
+            fail("Exception expected for " + securedClass.getName());
+        } catch (DuraCloudRuntimeException e) {
+            // expected
+        }
+    }
+
+}
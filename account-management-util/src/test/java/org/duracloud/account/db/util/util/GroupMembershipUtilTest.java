@@ -0,0 +1,94 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.util;
+
+import static org.easymock.EasyMock.endsWith;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+@RunWith(EasyMockRunner.class)
+public class GroupMembershipUtilTest extends EasyMockSupport {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<String> accountsQuery;
+
+    @Mock
+    private Query deleteQuery;
+
+    private GroupMembershipUtil groupMembershipUtil;
+
+    @Before
+    public void setup() {
+        groupMembershipUtil = new GroupMembershipUtil();
+        groupMembershipUtil.setEntityManager(entityManager);
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testRemoveUserFromAllGroups() {
+        expectQueries("WHERE u.id = :userId", "DELETE FROM group_user WHERE user_id = :userId");
+        expect(accountsQuery.getResultList()).andReturn(Arrays.asList("acct1", "acct2"));
+        expect(deleteQuery.executeUpdate()).andReturn(3);
+        replayAll();
+
+        Set<String> subdomains = groupMembershipUtil.removeUserFromAllGroups(7L);
+        assertEquals(new HashSet<>(Arrays.asList("acct1", "acct2")), subdomains);
+    }
+
+    @Test
+    public void testRemoveUserFromAccountGroups() {
+        expectQueries("AND g.account.id = :accountId", "account_id = :accountId)");
+        expect(accountsQuery.setParameter("accountId", 5L)).andReturn(accountsQuery);
+        expect(deleteQuery.setParameter("accountId", 5L)).andReturn(deleteQuery);
+
+        // Not a member of any group of the account, so nothing is deleted
+        expect(accountsQuery.getResultList()).andReturn(new ArrayList<String>());
+        replayAll();
+
+        assertTrue(groupMembershipUtil.removeUserFromAccountGroups(5L, 7L).isEmpty());
+    }
+
+    private void expectQueries(String accountsQueryEnd, String deleteQueryEnd) {
+        expect(entityManager.createQuery(endsWith(accountsQueryEnd), eq(String.class)))
+            .andReturn(accountsQuery);
+        expect(accountsQuery.setParameter("userId", 7L)).andReturn(accountsQuery);
+        expect(entityManager.createNativeQuery(endsWith(deleteQueryEnd)))
+            .andReturn(deleteQuery);
+        expect(deleteQuery.setParameter("userId", 7L)).andReturn(deleteQuery);
+    }
+
+}
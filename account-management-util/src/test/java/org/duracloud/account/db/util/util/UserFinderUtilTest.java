@@ -0,0 +1,132 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.account.db.util.util;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import org.duracloud.account.db.model.AccountRights;
+import org.duracloud.account.db.model.DuracloudUser;
+import org.duracloud.account.db.model.Role;
+import org.duracloud.account.db.util.AccountMember;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * @author agent
+ * Date: 10/17/26
+ */
+@RunWith(EasyMockRunner.class)
+public class UserFinderUtilTest extends EasyMockSupport {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Object[]> membersQuery;
+
+    @Mock
+    private TypedQuery<DuracloudUser> usersQuery;
+
+    @Mock
+    private TypedQuery<AccountRights> rightsQuery;
+
+    private UserFinderUtil userFinderUtil;
+
+    @Before
+    public void setup() {
+        userFinderUtil = new UserFinderUtil();
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testGetAccountMembers() {
+        userFinderUtil.setEntityManager(entityManager);
+
+        // A row for each role of each member, and a row with no role for a
+        // member with none
+        List<Object[]> rows = Arrays.asList(
+            new Object[] {2L, "adoe", "Ann", "Doe", "adoe@example.com", null, false,
+                          Role.ROLE_USER},
+            new Object[] {2L, "adoe", "Ann", "Doe", "adoe@example.com", null, false,
+                          Role.ROLE_ADMIN},
+            new Object[] {1L, "jsmith", "John", "Smith", "jsmith@example.com", "1.2.3.4/32",
+                          true, Role.ROLE_USER},
+            new Object[] {3L, "knorole", "Kim", "Norole", "knorole@example.com", null, false,
+                          null});
+        expect(entityManager.createQuery(startsWith("SELECT u.id"), eq(Object[].class)))
+            .andReturn(membersQuery);
+        expect(membersQuery.setParameter("accountId", 5L)).andReturn(membersQuery);
+        expect(membersQuery.getResultList()).andReturn(rows);
+        replayAll();
+
+        List<AccountMember> members = userFinderUtil.getAccountMembers(5L);
+        assertEquals(3, members.size());
+
+        AccountMember member = members.get(0);
+        assertEquals(Long.valueOf(2), member.getId());
+        assertEquals("adoe", member.getUsername());
+        assertEquals(Role.ROLE_ADMIN, member.getRole());
+        assertFalse(member.isRoot());
+
+        member = members.get(1);
+        assertEquals("jsmith", member.getUsername());
+        assertEquals("1.2.3.4/32", member.getAllowableIPAddressRange());
+        assertEquals(Role.ROLE_USER, member.getRole());
+        assertTrue(member.isRoot());
+
+        member = members.get(2);
+        assertEquals("knorole", member.getUsername());
+        assertNull(member.getRole());
+    }
+
+    @Test
+    public void testGetAccountUsers() {
+        userFinderUtil.setEntityManager(entityManager);
+        DuracloudUser user = new DuracloudUser();
+        user.setId(1L);
+        user.setUsername("jsmith");
+
+        expect(entityManager.createQuery(startsWith("SELECT DISTINCT u"),
+                                         eq(DuracloudUser.class)))
+            .andReturn(usersQuery);
+        expect(usersQuery.setParameter("accountId", 5L)).andReturn(usersQuery);
+        expect(usersQuery.getResultList()).andReturn(Arrays.asList(user));
+
+        // The roles of the rights are fetched by a second query
+        expect(entityManager.createQuery(startsWith("SELECT DISTINCT ur"),
+                                         eq(AccountRights.class)))
+            .andReturn(rightsQuery);
+        expect(rightsQuery.setParameter("accountId", 5L)).andReturn(rightsQuery);
+        expect(rightsQuery.getResultList()).andReturn(Collections.<AccountRights>emptyList());
+        replayAll();
+
+        assertEquals(Collections.singleton(user), userFinderUtil.getAccountUsers(5L));
+    }
+
+}
@@ -0,0 +1,10 @@
+-- Indexes for the paged listings of the root console. Each page is found by
+-- seeking the sort index past the last row of the previous page. InnoDB
+-- secondary indexes end with the primary key, so these also order rows with
+-- equal names by id.
+ALTER TABLE `duracloud_user`
+ADD INDEX `IDX_USER_USERNAME` (`username`),
+ADD INDEX `IDX_USER_ROOT_USERNAME` (`root`, `username`);
+
+ALTER TABLE `account_info`
+ADD INDEX `IDX_ACCOUNT_ACCT_NAME` (`acct_name`);